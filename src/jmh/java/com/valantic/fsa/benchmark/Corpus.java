@@ -0,0 +1,79 @@
+package com.valantic.fsa.benchmark;
+
+/**
+ * Representative reservation requests used by the benchmarks.
+ *
+ * @author M. Frick
+ */
+public enum Corpus {
+
+	/**
+	 * Short requests as typically sent by customers.
+	 */
+	SHORT(
+		"Einen Tisch für 4 Personen am 8. Mai um 19 Uhr, Gruß Tom Weber",
+		"Reservierung am 3.6. um 20:00 Uhr für 6 Leute. Mit freundlichen Grüßen, Lisa Krause",
+		"Für fünf Gäste bitte ein Tisch am 10.04. um 18 Uhr. Vielen Dank, Peter Wolf",
+		"Wir würden gern kommenden Dienstag um 18 Uhr mit fünf Leuten bei Ihnen essen. Viele Grüße, Laura Schmitt",
+		"Guten Tag, wir kommen morgen gegen 20 Uhr mit 3-4 Leuten vorbei. Gruß, Nina Thalberg",
+		"Hallo, wir planen für den nächsten Mittwoch ein Abendessen, ca. 6 Personen um 6 Uhr. Grüße, Kim Wagner",
+		"Einen Tisch bitte übernächsten Freitagabend um 8:30 Uhr für etwa sechs Personen. Danke, Jan Lorenz",
+		"Tisch für zwei am Sonntagmorgen zum Frühstück um 9 Uhr, danke Eva Roth"),
+
+	/**
+	 * Long requests with a lot of text around the reservation details.
+	 */
+	LONG(
+		"Sehr geehrte Damen und Herren, nachdem wir im letzten Jahr einen wunderbaren Abend in Ihrem Restaurant "
+			+ "verbracht haben, möchten wir auch dieses Jahr wieder unser Firmenjubiläum bei Ihnen feiern. Wir sind "
+			+ "eine Gruppe von Kollegen aus der Buchhaltung und dem Vertrieb und würden uns sehr freuen, wenn Sie "
+			+ "für uns am 22. Mai um 19:15 Uhr einen Tisch für 14 Personen reservieren könnten. Bitte teilen Sie uns "
+			+ "mit, ob es möglich ist, ein vegetarisches Menü für drei Gäste vorzubereiten und ob wir eigene Getränke "
+			+ "für den Sektempfang mitbringen dürfen. Mit freundlichen Grüßen, Markus Schäfer",
+		"Hallo liebes Team, meine Frau und ich feiern bald unseren zehnten Hochzeitstag und möchten diesen "
+			+ "besonderen Anlass gerne mit unserer Familie begehen. Insgesamt wären wir zwischen 8 und 10 Leuten, "
+			+ "darunter drei Kinder im Alter von vier, sechs und neun Jahren. Wäre es möglich, am kommenden Samstag "
+			+ "zwischen 18 und 19 Uhr einen ruhigen Tisch im hinteren Bereich zu bekommen? Ein Kinderstuhl wäre "
+			+ "ebenfalls wunderbar. Wir freuen uns schon sehr auf den Abend und Ihr ausgezeichnetes Essen. "
+			+ "Herzliche Grüße, Sabine Hofmann",
+		"Guten Tag, ich schreibe Ihnen im Auftrag unseres Vereins. Nach unserem Turnier am Wochenende würden "
+			+ "wir gerne mit der gesamten Mannschaft, den Trainern und einigen Eltern bei Ihnen zu Abend essen. "
+			+ "Wir rechnen mit mindestens 25 Personen, eventuell kommen noch ein paar Freunde dazu. Als Termin "
+			+ "hatten wir an den 14.06.2025 gedacht, ungefähr ab halb sieben abends, also 18:30 Uhr. Bitte geben "
+			+ "Sie uns kurz Bescheid, ob das klappt und ob eine Anzahlung nötig ist. Vielen Dank, Tobias Frank"),
+
+	/**
+	 * Requests with many numbers, number words, dates and times.
+	 */
+	NUMBERS(
+		"Wir sind zweiundzwanzig Personen und kommen am 12.4. oder am 13.4. um 18:30 Uhr oder 19:45 Uhr, Gruß Anna Fischer",
+		"Für dreihundertfünfundvierzig Gäste am 1.7.2025 zwischen 17 und 18 Uhr, Tische 3, 4 und 5, Danke Jens König",
+		"Zwischen acht bis zwölf Leute am 24.12. um 20 Uhr, Telefon 0171 2345678, PLZ 10115, Gruß Nora Bauer",
+		"Reservierung für einhundertzwanzig Personen in 3 Wochen um 11:00 Uhr, Budget 2500 Euro, Danke Peter Wolf",
+		"Nicht mehr als sechzehn Personen am 5. Juni um 20:30 Uhr, dazu 2 Kinder, Viele Grüße Michael Berger",
+		"Wir sind neunundneunzig, brauchen 33 Tische am 30.4. um 13 Uhr und 14 Uhr, Danke Sophie Neumann");
+
+	/**
+	 * The texts of the corpus.
+	 */
+	private final String[] texts;
+
+	/**
+	 * Constructs a new {@code Corpus} with the specified texts.
+	 *
+	 * @param texts the texts of the corpus
+	 */
+	Corpus(String... texts) {
+		this.texts = texts;
+	}
+
+	/**
+	 * Returns the texts of the corpus.
+	 *
+	 * @return the texts
+	 */
+	public String[] getTexts() {
+		return texts.clone();
+	}
+
+}
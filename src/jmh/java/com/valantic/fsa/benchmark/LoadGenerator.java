@@ -0,0 +1,137 @@
+package com.valantic.fsa.benchmark;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.valantic.fsa.llm.LatencyHistogram;
+import com.valantic.fsa.llm.OpenAIClient;
+import com.valantic.fsa.llm.OpenAIStubServer;
+import com.valantic.fsa.llm.TransportSettings;
+import com.valantic.fsa.model.DefaultReservationRequest;
+import com.valantic.fsa.parser.OpenAIReservationParser;
+
+/**
+ * Drives the {@link OpenAIReservationParser} against the {@link OpenAIStubServer} at a target rate and reports
+ * the throughput and latency percentiles. The load is open-loop, i.e., requests are sent on schedule regardless
+ * of outstanding responses, and latencies are measured from the scheduled start of a request, so a stalled
+ * client does not hide its own queueing delay.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=com.valantic.fsa.benchmark.LoadGenerator \
+ *     -Djmh.args="--rps 200 --seconds 10 --latency 300 --sigma 0.5 --error-rate 0.01 --burst 1000:50 --streaming"
+ * </pre>
+ *
+ * @author M. Frick
+ */
+public class LoadGenerator {
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int rps = 100;
+		int seconds = 10;
+		double latency = 200;
+		double sigma = 0.5;
+		double errorRate = 0;
+		int burstInterval = 0;
+		int burstLength = 0;
+		boolean streaming = false;
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "--rps":
+				rps = Integer.parseInt(args[++i]);
+				break;
+			case "--seconds":
+				seconds = Integer.parseInt(args[++i]);
+				break;
+			case "--latency":
+				latency = Double.parseDouble(args[++i]);
+				break;
+			case "--sigma":
+				sigma = Double.parseDouble(args[++i]);
+				break;
+			case "--error-rate":
+				errorRate = Double.parseDouble(args[++i]);
+				break;
+			case "--burst":
+				String[] burst = args[++i].split(":");
+				burstInterval = Integer.parseInt(burst[0]);
+				burstLength = Integer.parseInt(burst[1]);
+				break;
+			case "--streaming":
+				streaming = true;
+				break;
+			default:
+				System.err.println("Usage: LoadGenerator [--rps n] [--seconds n] [--latency ms] [--sigma s] "
+						+ "[--error-rate r] [--burst interval:length] [--streaming]");
+				System.exit(1);
+			}
+		}
+
+		try (OpenAIStubServer server = new OpenAIStubServer(OpenAIStubServer.logNormalLatency(latency, sigma),
+				errorRate, burstInterval, burstLength).start()) {
+			OpenAIClient client = new OpenAIClient("stub", server.getApiUrl(), "key", null, new TransportSettings(
+					Duration.ofSeconds(1), Duration.ofSeconds(30), 3, Duration.ofMillis(100), Duration.ofSeconds(2)));
+			OpenAIReservationParser parser = new OpenAIReservationParser(client,
+					OpenAIReservationParser.DEFAULT_TOKEN_BUDGET, streaming);
+			System.out.println(run(parser, rps, seconds));
+			System.out.println(String.format("Stub: %d requests, %d errors, %d rate limited", server.getRequests(),
+					server.getErrors(), server.getRateLimited()));
+		}
+	}
+
+	/**
+	 * Sends requests of the corpus at the given rate for the given time and waits for the outstanding responses.
+	 *
+	 * @param parser the parser
+	 * @param rps the target number of requests per second
+	 * @param seconds the time to send requests
+	 * @return the report
+	 * @throws InterruptedException if the thread was interrupted
+	 */
+	static String run(OpenAIReservationParser parser, int rps, int seconds) throws InterruptedException {
+		String[] texts = Corpus.SHORT.getTexts();
+		long total = (long) rps * seconds;
+		long period = TimeUnit.SECONDS.toNanos(1) / rps;
+		LatencyHistogram histogram = new LatencyHistogram();
+		AtomicLong sent = new AtomicLong();
+		AtomicLong completed = new AtomicLong();
+		AtomicLong failed = new AtomicLong();
+
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		long start = System.nanoTime();
+		scheduler.scheduleAtFixedRate(() -> {
+			long i = sent.getAndIncrement();
+			if (i >= total) {
+				return;
+			}
+			long scheduled = start + i * period;
+			DefaultReservationRequest request = new DefaultReservationRequest(
+					texts[(int) (i % texts.length)] + " #" + i, LocalDateTime.now());
+			parser.parseAsync(request).whenComplete((data, throwable) -> {
+				histogram.record(System.nanoTime() - scheduled);
+				if (throwable != null) {
+					failed.incrementAndGet();
+				}
+				completed.incrementAndGet();
+			});
+		}, 0, period, TimeUnit.NANOSECONDS);
+
+		long deadline = start + TimeUnit.SECONDS.toNanos(seconds + 60);
+		while ((completed.get() < total) && (System.nanoTime() < deadline)) {
+			Thread.sleep(10);
+		}
+		scheduler.shutdownNow();
+		double elapsed = (System.nanoTime() - start) / 1e9;
+
+		return String.format("Target %d requests/s for %d s: %d completed (%d failed) in %.2f s (%.1f requests/s)%n"
+				+ "Latency: p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms",
+				rps, seconds, completed.get(), failed.get(), elapsed, completed.get() / elapsed,
+				histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+				histogram.getValueAtPercentile(99.9) / 1e6, histogram.getMax() / 1e6);
+	}
+
+}
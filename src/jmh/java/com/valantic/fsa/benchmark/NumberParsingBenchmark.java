@@ -0,0 +1,43 @@
+package com.valantic.fsa.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.valantic.fsa.util.ParserUtils;
+
+/**
+ * Benchmarks of the number parsing in {@code ParserUtils}.
+ *
+ * @author M. Frick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NumberParsingBenchmark {
+
+	@Param({ "zwei", "zweiundzwanzig", "dreihundertfuenfundvierzig", "zweitausendfuenfhundert", "42", "tisch" })
+	public String numberWord;
+
+	@Benchmark
+	public int parseToInteger() {
+		try {
+			return ParserUtils.parseToInteger(numberWord);
+		} catch (ParserUtils.ParserException e) {
+			return -1;
+		}
+	}
+
+}
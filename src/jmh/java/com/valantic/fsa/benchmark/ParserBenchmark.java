@@ -0,0 +1,86 @@
+package com.valantic.fsa.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.valantic.fsa.model.DefaultReservationRequest;
+import com.valantic.fsa.model.ReservationRequest;
+import com.valantic.fsa.parser.BasicReservationParser;
+import com.valantic.fsa.parser.ParserStatistics;
+import com.valantic.fsa.parser.TokenizedReservationParser;
+
+/**
+ * End to end benchmarks of the rule based parsers.
+ *
+ * @author M. Frick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+	@Param({ "basic", "tokenized", "instrumented" })
+	public String parserType;
+
+	@Param({ "SHORT", "LONG", "NUMBERS" })
+	public Corpus corpus;
+
+	private BasicReservationParser parser;
+
+	private ReservationRequest[] requests;
+
+	@Setup
+	public void setup() {
+		if ("tokenized".equals(parserType)) {
+			parser = new TokenizedReservationParser();
+		} else if ("instrumented".equals(parserType)) {
+			parser = new BasicReservationParser(new ParserStatistics());
+		} else {
+			parser = new BasicReservationParser();
+		}
+		LocalDateTime timestamp = LocalDateTime.of(2025, 4, 23, 9, 0);
+		String[] texts = corpus.getTexts();
+		requests = new ReservationRequest[texts.length];
+		for (int i = 0; i < texts.length; i++) {
+			requests[i] = new DefaultReservationRequest(texts[i], timestamp);
+		}
+	}
+
+	@Benchmark
+	public void parse(Blackhole blackhole) {
+		for (ReservationRequest request : requests) {
+			blackhole.consume(parser.parse(request));
+		}
+	}
+
+	@Benchmark
+	public void parseDateOnly(Blackhole blackhole) {
+		for (ReservationRequest request : requests) {
+			blackhole.consume(parser.parse(request).getDate());
+		}
+	}
+
+	@Benchmark
+	public void parseLazilyDateOnly(Blackhole blackhole) {
+		for (ReservationRequest request : requests) {
+			blackhole.consume(parser.parseLazily(request).getDate());
+		}
+	}
+
+}
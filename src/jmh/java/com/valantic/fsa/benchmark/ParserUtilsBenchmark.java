@@ -0,0 +1,59 @@
+package com.valantic.fsa.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.valantic.fsa.util.NormalizationContext;
+import com.valantic.fsa.util.ParserUtils;
+
+/**
+ * Benchmarks of the text normalization in {@code ParserUtils}.
+ *
+ * @author M. Frick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserUtilsBenchmark {
+
+	@Param({ "SHORT", "LONG", "NUMBERS" })
+	public Corpus corpus;
+
+	private String[] texts;
+
+	@Setup
+	public void setup() {
+		texts = corpus.getTexts();
+	}
+
+	@Benchmark
+	public void normalizeText(Blackhole blackhole) {
+		for (String text : texts) {
+			blackhole.consume(ParserUtils.normalizeText(text));
+		}
+	}
+
+	@Benchmark
+	public void normalizeInContext(Blackhole blackhole) {
+		NormalizationContext context = NormalizationContext.get();
+		for (String text : texts) {
+			blackhole.consume(context.normalize(text).length());
+		}
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.valantic.fsa.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.valantic.fsa.util.ParserUtils;
+import com.valantic.fsa.util.Patterns;
+
+/**
+ * Benchmarks of the regular expressions in {@code Patterns} on normalized texts.
+ *
+ * @author M. Frick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatternsBenchmark {
+
+	@Param({ "NAME", "DATE", "PARTIAL_DATE", "RELATIVE_DATE_IN", "RELATIVE_DATE_NEXT", "WEEKDAY", "TIME", "TIME_RANGE",
+		"SIMPLE_PEOPLE_COUNT", "PEOPLE_COUNT", "PEOPLE_RANGE" })
+	public String pattern;
+
+	@Param({ "SHORT", "LONG", "NUMBERS" })
+	public Corpus corpus;
+
+	private Pattern compiledPattern;
+
+	private String[] normalizedTexts;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		compiledPattern = (Pattern) Patterns.class.getField(pattern).get(null);
+		String[] texts = corpus.getTexts();
+		normalizedTexts = new String[texts.length];
+		for (int i = 0; i < texts.length; i++) {
+			// the name pattern is applied to the lower case text, all others to the normalized text
+			normalizedTexts[i] = "NAME".equals(pattern) ? texts[i].toLowerCase() : ParserUtils.normalizeText(texts[i]);
+		}
+	}
+
+	@Benchmark
+	public int findAll() {
+		int count = 0;
+		for (String text : normalizedTexts) {
+			Matcher matcher = compiledPattern.matcher(text);
+			while (matcher.find()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
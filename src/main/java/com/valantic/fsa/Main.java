@@ -1,14 +1,90 @@
 package com.valantic.fsa;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.valantic.fsa.io.IngestionPipeline;
+import com.valantic.fsa.io.ReservationDataWriter;
+import com.valantic.fsa.io.ReservationRequestReader;
+import com.valantic.fsa.llm.OpenAIClient;
 import com.valantic.fsa.model.DefaultReservationRequest;
 import com.valantic.fsa.model.ReservationData;
 import com.valantic.fsa.model.ReservationRequest;
 import com.valantic.fsa.parser.BasicReservationParser;
+import com.valantic.fsa.parser.CascadingReservationParser;
+import com.valantic.fsa.parser.CoalescingReservationParser;
+import com.valantic.fsa.parser.OpenAIReservationParser;
 import com.valantic.fsa.parser.ReservationParser;
+import com.valantic.fsa.parser.TokenizedReservationParser;
+import com.valantic.fsa.service.ReservationService;
 
 public class Main {
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			runExamples();
+			return;
+		}
+		if ("--serve".equals(args[0]) && (args.length >= 2)) {
+			serve(Integer.parseInt(args[1]), (args.length >= 4) && "--parser".equals(args[2]) ? args[3] : "basic");
+			return;
+		}
+		if (args.length < 2) {
+			System.err.println("Usage: Main <input.jsonl|input.csv|input.txt> <output.jsonl> [--parser basic|tokenized|openai|openai-json|cascading] [--threads n]");
+			System.err.println("       Main --serve <port> [--parser basic|tokenized|openai|openai-json|cascading]");
+			System.exit(1);
+		}
+
+		Path input = Paths.get(args[0]);
+		Path output = Paths.get(args[1]);
+		String parserName = "basic";
+		int threads = Runtime.getRuntime().availableProcessors();
+		for (int i = 2; i < args.length - 1; i += 2) {
+			if ("--parser".equals(args[i])) {
+				parserName = args[i + 1];
+			} else if ("--threads".equals(args[i])) {
+				threads = Integer.parseInt(args[i + 1]);
+			}
+		}
+
+		IngestionPipeline pipeline = new IngestionPipeline(createParser(parserName), threads);
+		try (ReservationRequestReader reader = ReservationRequestReader.open(input);
+				ReservationDataWriter writer = new ReservationDataWriter(output)) {
+			System.out.println(pipeline.run(reader, writer));
+		}
+	}
+
+	private static void serve(int port, String parserName) throws IOException {
+		ReservationService service = new ReservationService(createParser(parserName), port).start();
+		Runtime.getRuntime().addShutdownHook(new Thread(service::close));
+		System.out.println("Listening on http://localhost:" + service.getPort() + ReservationService.PATH);
+	}
+
+	private static ReservationParser createParser(String name) {
+		switch (name) {
+		case "tokenized":
+			return new TokenizedReservationParser();
+		case "openai":
+			return new CoalescingReservationParser(new OpenAIReservationParser(createOpenAIClient()));
+		case "openai-json":
+			return new CoalescingReservationParser(new OpenAIReservationParser(createOpenAIClient(),
+					OpenAIReservationParser.DEFAULT_TOKEN_BUDGET, false, true));
+		case "cascading":
+			return new CascadingReservationParser(new BasicReservationParser(),
+					new OpenAIReservationParser(createOpenAIClient()));
+		default:
+			return new BasicReservationParser();
+		}
+	}
+
+	private static OpenAIClient createOpenAIClient() {
+		OpenAIClient client = new OpenAIClient();
+		client.warmUp();
+		return client;
+	}
+
+	private static void runExamples() {
 		ReservationParser parser = new BasicReservationParser();
 		
 		ReservationRequest example1 = new DefaultReservationRequest(
@@ -0,0 +1,71 @@
+package com.valantic.fsa.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * View of ASCII encoded bytes in a buffer as a character sequence, i.e., each byte is read as one character
+ * without copying or decoding the bytes.
+ * 
+ * @author M. Frick
+ */
+class AsciiCharSequence implements CharSequence {
+
+	/**
+	 * The underlying buffer.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * The index of the first byte in the buffer.
+	 */
+	private final int offset;
+
+	/**
+	 * The number of bytes.
+	 */
+	private final int length;
+
+	/**
+	 * Constructs a new {@code AsciiCharSequence} viewing the given bytes of the buffer.
+	 * 
+	 * @param buffer the underlying buffer
+	 * @param offset the index of the first byte in the buffer
+	 * @param length the number of bytes
+	 */
+	AsciiCharSequence(ByteBuffer buffer, int offset, int length) {
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if ((index < 0) || (index >= length)) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+		}
+		return (char) buffer.get(offset + index);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if ((start < 0) || (start > end) || (end > length)) {
+			throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") out of bounds for length " + length);
+		}
+		return new AsciiCharSequence(buffer, offset + start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) buffer.get(offset + i);
+		}
+		return new String(chars);
+	}
+
+}
@@ -0,0 +1,151 @@
+package com.valantic.fsa.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.valantic.fsa.model.ReservationRequest;
+
+/**
+ * Reader streaming reservation requests from a CSV file (RFC 4180, i.e., fields may be quoted and contain
+ * commas, quotes and line breaks). The first line is a header naming the columns "text" and (optionally)
+ * "timestamp"; other columns are skipped.
+ * 
+ * @author M. Frick
+ */
+public class CsvRequestReader implements ReservationRequestReader {
+
+	/**
+	 * The reader of the file.
+	 */
+	private final BufferedReader reader;
+
+	/**
+	 * The index of the text column.
+	 */
+	private final int textColumn;
+
+	/**
+	 * The index of the timestamp column (-1 if there is none).
+	 */
+	private final int timestampColumn;
+
+	/**
+	 * Buffer of the current field.
+	 */
+	private final StringBuilder field = new StringBuilder();
+
+	/**
+	 * Constructs a new {@code CsvRequestReader} for the given file.
+	 * 
+	 * @param file the file to read
+	 * @throws IOException if the file cannot be opened or has no valid header
+	 */
+	public CsvRequestReader(Path file) throws IOException {
+		this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+		List<String> header = this.readRecord();
+		if (header == null) {
+			header = new ArrayList<>();
+		}
+		this.textColumn = this.indexOf(header, "text");
+		this.timestampColumn = this.indexOf(header, "timestamp");
+		if (textColumn < 0) {
+			reader.close();
+			throw new IOException("Missing column 'text' in CSV header");
+		}
+	}
+
+	@Override
+	public ReservationRequest read() throws IOException {
+		List<String> record = this.readRecord();
+		while ((record != null) && (record.size() == 1) && record.get(0).isEmpty()) {
+			// skip empty lines
+			record = this.readRecord();
+		}
+		if (record == null) {
+			return null;
+		}
+		String text = (textColumn < record.size()) ? record.get(textColumn) : null;
+		String timestamp = ((timestampColumn >= 0) && (timestampColumn < record.size())) ? record.get(timestampColumn) : null;
+		return ReservationRequestReader.createRequest(text, timestamp);
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * Returns the index of a column in the header (ignoring case and surrounding whitespace).
+	 * 
+	 * @param header the header
+	 * @param column the name of the column
+	 * @return the index of the column, or -1 if the header has no such column
+	 */
+	private int indexOf(List<String> header, String column) {
+		for (int i = 0; i < header.size(); i++) {
+			if (header.get(i).trim().equalsIgnoreCase(column)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Reads the fields of the next record.
+	 * 
+	 * @return the fields of the record, or null at the end of the file
+	 * @throws IOException if the file cannot be read or a quoted field is not closed
+	 */
+	private List<String> readRecord() throws IOException {
+		int c = reader.read();
+		if (c < 0) {
+			return null;
+		}
+		List<String> record = new ArrayList<>();
+		field.setLength(0);
+		boolean quoted = false;
+		while (true) {
+			if (quoted) {
+				if (c < 0) {
+					throw new IOException("Unclosed quoted field in CSV record");
+				}
+				if (c == '"') {
+					reader.mark(1);
+					int next = reader.read();
+					if (next == '"') {
+						field.append('"');
+					} else {
+						quoted = false;
+						reader.reset();
+					}
+				} else {
+					field.append((char) c);
+				}
+			} else if ((c < 0) || (c == '\n')) {
+				break;
+			} else if (c == '\r') {
+				reader.mark(1);
+				if (reader.read() != '\n') {
+					reader.reset();
+				}
+				break;
+			} else if (c == ',') {
+				record.add(field.toString());
+				field.setLength(0);
+			} else if ((c == '"') && (field.length() == 0)) {
+				quoted = true;
+			} else {
+				field.append((char) c);
+			}
+			c = reader.read();
+		}
+		record.add(field.toString());
+		return record;
+	}
+
+}
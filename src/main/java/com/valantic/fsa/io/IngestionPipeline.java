@@ -0,0 +1,203 @@
+package com.valantic.fsa.io;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.valantic.fsa.model.DefaultReservationData;
+import com.valantic.fsa.model.FailedReservationData;
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.model.ReservationRequest;
+import com.valantic.fsa.parser.ReservationParser;
+
+/**
+ * Pipeline streaming reservation requests from a reader through a parser to a writer. The requests are parsed
+ * in parallel, but at most a fixed window of requests is in flight, so the memory used does not depend on the
+ * size of the file. The results are written in the order of the requests.
+ * 
+ * @author M. Frick
+ */
+public class IngestionPipeline {
+
+	/**
+	 * The number of requests in flight per thread.
+	 */
+	private static final int WINDOW_PER_THREAD = 16;
+
+	/**
+	 * The parser to use.
+	 */
+	private final ReservationParser parser;
+
+	/**
+	 * The number of threads parsing requests.
+	 */
+	private final int parallelism;
+
+	/**
+	 * Constructs a new {@code IngestionPipeline} using one thread per processor.
+	 * 
+	 * @param parser the parser to use
+	 */
+	public IngestionPipeline(ReservationParser parser) {
+		this(parser, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a new {@code IngestionPipeline}.
+	 * 
+	 * @param parser the parser to use
+	 * @param parallelism the number of threads parsing requests
+	 */
+	public IngestionPipeline(ReservationParser parser, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+		}
+		this.parser = parser;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Reads all requests, parses them and writes the results. A request the parser fails on is written as empty
+	 * reservation data and counted as failure.
+	 * 
+	 * @param reader the reader of the requests
+	 * @param writer the writer of the results
+	 * @return the summary of the run
+	 * @throws IOException if the requests cannot be read or the results cannot be written
+	 */
+	public Summary run(ReservationRequestReader reader, ReservationDataWriter writer) throws IOException {
+		long start = System.nanoTime();
+		long count = 0;
+		long failures = 0;
+		int window = parallelism * WINDOW_PER_THREAD;
+		Deque<Future<ReservationData>> pending = new ArrayDeque<>(window);
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			ReservationRequest request;
+			while ((request = reader.read()) != null) {
+				if (pending.size() >= window) {
+					failures += this.write(pending.poll(), writer);
+				}
+				ReservationRequest next = request;
+				pending.add(executor.submit(() -> parser.parse(next)));
+				count++;
+			}
+			while (!pending.isEmpty()) {
+				failures += this.write(pending.poll(), writer);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return new Summary(count, failures, System.nanoTime() - start);
+	}
+
+	/**
+	 * Waits for the result of a request and writes it.
+	 * 
+	 * @param future the future result
+	 * @param writer the writer of the results
+	 * @return 1 if parsing the request failed, 0 otherwise
+	 * @throws IOException if the result cannot be written
+	 */
+	private int write(Future<ReservationData> future, ReservationDataWriter writer) throws IOException {
+		ReservationData data;
+		try {
+			data = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while parsing requests", e);
+		} catch (ExecutionException e) {
+			// fail gracefully
+			data = null;
+		}
+		if (data == null) {
+			writer.write(new DefaultReservationData());
+			return 1;
+		}
+		writer.write(data);
+		return FailedReservationData.isFailure(data) ? 1 : 0;
+	}
+
+	/**
+	 * Summary of a pipeline run.
+	 */
+	public static class Summary {
+
+		/**
+		 * The number of requests.
+		 */
+		private final long count;
+
+		/**
+		 * The number of requests the parser failed on.
+		 */
+		private final long failures;
+
+		/**
+		 * The elapsed time in nanoseconds.
+		 */
+		private final long elapsedNanos;
+
+		/**
+		 * Constructs a new {@code Summary}.
+		 * 
+		 * @param count the number of requests
+		 * @param failures the number of requests the parser failed on
+		 * @param elapsedNanos the elapsed time in nanoseconds
+		 */
+		Summary(long count, long failures, long elapsedNanos) {
+			this.count = count;
+			this.failures = failures;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		/**
+		 * Returns the number of requests.
+		 * 
+		 * @return the number of requests
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Returns the number of requests the parser failed on.
+		 * 
+		 * @return the number of failures
+		 */
+		public long getFailures() {
+			return failures;
+		}
+
+		/**
+		 * Returns the elapsed time in nanoseconds.
+		 * 
+		 * @return the elapsed time
+		 */
+		public long getElapsedNanos() {
+			return elapsedNanos;
+		}
+
+		/**
+		 * Returns the throughput in requests per second.
+		 * 
+		 * @return the throughput
+		 */
+		public double getThroughput() {
+			return (elapsedNanos > 0) ? count * 1e9 / elapsedNanos : 0;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Parsed %d requests (%d failures) in %.2f s (%.0f requests/s)", count, failures,
+					elapsedNanos / 1e9, this.getThroughput());
+		}
+
+	}
+
+}
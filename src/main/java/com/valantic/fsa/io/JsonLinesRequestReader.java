@@ -0,0 +1,64 @@
+package com.valantic.fsa.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.valantic.fsa.model.ReservationRequest;
+
+/**
+ * Reader streaming reservation requests from a JSON Lines file, i.e., one object {@code {"text": ...,
+ * "timestamp": ...}} per line. Other fields are skipped.
+ * 
+ * @author M. Frick
+ */
+public class JsonLinesRequestReader implements ReservationRequestReader {
+
+	/**
+	 * The streaming JSON parser.
+	 */
+	private final JsonParser parser;
+
+	/**
+	 * Constructs a new {@code JsonLinesRequestReader} for the given file.
+	 * 
+	 * @param file the file to read
+	 * @throws IOException if the file cannot be opened
+	 */
+	public JsonLinesRequestReader(Path file) throws IOException {
+		this.parser = new JsonFactory().createParser(file.toFile());
+	}
+
+	@Override
+	public ReservationRequest read() throws IOException {
+		JsonToken token = parser.nextToken();
+		if (token == null) {
+			return null;
+		}
+		if (token != JsonToken.START_OBJECT) {
+			throw new IOException("Expected an object at " + parser.getCurrentLocation());
+		}
+		String text = null;
+		String timestamp = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if ("text".equals(field) && (value == JsonToken.VALUE_STRING)) {
+				text = parser.getText();
+			} else if ("timestamp".equals(field) && (value == JsonToken.VALUE_STRING)) {
+				timestamp = parser.getText();
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return ReservationRequestReader.createRequest(text, timestamp);
+	}
+
+	@Override
+	public void close() throws IOException {
+		parser.close();
+	}
+
+}
@@ -0,0 +1,275 @@
+package com.valantic.fsa.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.valantic.fsa.model.DefaultReservationRequest;
+import com.valantic.fsa.model.ReservationRequest;
+
+/**
+ * Reader of large UTF-8 text files with one reservation request per line, optionally prefixed by its
+ * timestamp and a tab (e.g., "2025-03-01T12:00:00\tTisch für 2 ..."). The file is memory-mapped in windows and
+ * each record is exposed as a character sequence over the mapped bytes (see {@link #getText()}), so the
+ * records can be matched (e.g., by
+ * {@link com.valantic.fsa.parser.BasicReservationParser#parse(CharSequence, LocalDateTime)}) without
+ * creating a string per record. Records consisting of ASCII characters only are viewed without copying,
+ * others are decoded into a buffer reused for all records.
+ * <p>
+ * The character sequence of a record is only valid until the next record is read, so records have to be
+ * processed one after the other. {@link #read()} copies each record into a new request instead.
+ * 
+ * @author M. Frick
+ */
+public class MappedRecordReader implements ReservationRequestReader {
+
+	/**
+	 * The default size of the mapped windows (256 MB).
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+	/**
+	 * The file channel.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The size of the file.
+	 */
+	private final long size;
+
+	/**
+	 * The size of the mapped windows, i.e., the maximum length of a record in bytes.
+	 */
+	private final int windowSize;
+
+	/**
+	 * The decoder of records containing non-ASCII characters.
+	 */
+	private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+	/**
+	 * The position of the mapped window in the file.
+	 */
+	private long windowStart;
+
+	/**
+	 * The mapped window.
+	 */
+	private MappedByteBuffer window;
+
+	/**
+	 * The position of the next record in the window.
+	 */
+	private int position;
+
+	/**
+	 * The buffer the records containing non-ASCII characters are decoded into.
+	 */
+	private CharBuffer chars = CharBuffer.allocate(1024);
+
+	/**
+	 * The text of the current record.
+	 */
+	private CharSequence text;
+
+	/**
+	 * The timestamp of the current record.
+	 */
+	private LocalDateTime timestamp;
+
+	/**
+	 * Constructs a new {@code MappedRecordReader} for the given file using the default window size.
+	 * 
+	 * @param file the file to read
+	 * @throws IOException if the file cannot be opened
+	 */
+	public MappedRecordReader(Path file) throws IOException {
+		this(file, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Constructs a new {@code MappedRecordReader} for the given file.
+	 * 
+	 * @param file the file to read
+	 * @param windowSize the size of the mapped windows, i.e., the maximum length of a record in bytes
+	 * @throws IOException if the file cannot be opened
+	 */
+	public MappedRecordReader(Path file, int windowSize) throws IOException {
+		if (windowSize < 1) {
+			throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+		}
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.size = channel.size();
+		this.windowSize = windowSize;
+		this.map(0);
+		if ((window.remaining() >= 3) && (window.get(0) == (byte) 0xEF) && (window.get(1) == (byte) 0xBB)
+				&& (window.get(2) == (byte) 0xBF)) {
+			// skip byte order mark
+			position = 3;
+		}
+	}
+
+	/**
+	 * Advances to the next record. Empty lines are skipped.
+	 * 
+	 * @return true if there is a next record, false at the end of the file
+	 * @throws IOException if the file cannot be read, a record is longer than the window size or a timestamp is
+	 *             malformed
+	 */
+	public boolean next() throws IOException {
+		while (true) {
+			int end = position;
+			int limit = window.limit();
+			boolean ascii = true;
+			while ((end < limit) && (window.get(end) != '\n')) {
+				ascii &= (window.get(end) >= 0);
+				end++;
+			}
+			if ((end == limit) && (windowStart + limit < size)) {
+				// record crosses the end of the window
+				if (position == 0) {
+					throw new IOException("Record at " + windowStart + " is longer than " + windowSize + " bytes");
+				}
+				this.map(windowStart + position);
+				continue;
+			}
+			if ((end == position) && (end == limit)) {
+				text = null;
+				timestamp = null;
+				return false;
+			}
+
+			int start = position;
+			position = Math.min(end + 1, limit);
+			if ((end > start) && (window.get(end - 1) == '\r')) {
+				end--;
+			}
+			if (end > start) {
+				this.setRecord(start, end, ascii);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Returns the text of the current record. The character sequence is only valid until the next record is
+	 * read.
+	 * 
+	 * @return the text of the current record
+	 */
+	public CharSequence getText() {
+		return text;
+	}
+
+	/**
+	 * Returns the timestamp of the current record (the time the record was read if it has no timestamp).
+	 * 
+	 * @return the timestamp of the current record
+	 */
+	public LocalDateTime getTimestamp() {
+		return timestamp;
+	}
+
+	@Override
+	public ReservationRequest read() throws IOException {
+		if (!this.next()) {
+			return null;
+		}
+		return new DefaultReservationRequest(text.toString(), timestamp);
+	}
+
+	@Override
+	public void close() throws IOException {
+		// the mapped window is released by the garbage collector
+		window = null;
+		channel.close();
+	}
+
+	/**
+	 * Maps the window starting at the given position of the file.
+	 * 
+	 * @param start the position of the window in the file
+	 * @throws IOException if the file cannot be mapped
+	 */
+	private void map(long start) throws IOException {
+		windowStart = start;
+		window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+		position = 0;
+	}
+
+	/**
+	 * Sets the text and timestamp of the current record.
+	 * 
+	 * @param start the index of the first byte of the record in the window
+	 * @param end the index after the last byte of the record in the window
+	 * @param ascii true if the record consists of ASCII characters only
+	 * @throws IOException if the timestamp is malformed
+	 */
+	private void setRecord(int start, int end, boolean ascii) throws IOException {
+		CharSequence record;
+		if (ascii) {
+			record = new AsciiCharSequence(window, start, end - start);
+		} else {
+			if (chars.capacity() < end - start) {
+				chars = CharBuffer.allocate(Math.max(end - start, 2 * chars.capacity()));
+			}
+			ByteBuffer bytes = window.duplicate();
+			bytes.position(start).limit(end);
+			chars.clear();
+			decoder.reset();
+			decoder.decode(bytes, chars, true);
+			decoder.flush(chars);
+			chars.flip();
+			record = chars;
+		}
+
+		int tab = -1;
+		for (int i = 0; i < record.length(); i++) {
+			if (record.charAt(i) == '\t') {
+				tab = i;
+				break;
+			}
+		}
+		if (tab < 0) {
+			text = record;
+			timestamp = LocalDateTime.now();
+			return;
+		}
+		text = record.subSequence(tab + 1, record.length());
+		timestamp = this.parseTimestamp(record.subSequence(0, tab));
+	}
+
+	/**
+	 * Parses a timestamp given as ISO date time or date.
+	 * 
+	 * @param value the timestamp
+	 * @return the parsed timestamp (now if the value is empty)
+	 * @throws IOException if the timestamp is malformed
+	 */
+	private LocalDateTime parseTimestamp(CharSequence value) throws IOException {
+		if (value.length() == 0) {
+			return LocalDateTime.now();
+		}
+		try {
+			if (value.length() <= 10) {
+				return LocalDate.parse(value).atStartOfDay();
+			}
+			return LocalDateTime.parse(value);
+		} catch (RuntimeException e) {
+			throw new IOException("Malformed timestamp: " + value, e);
+		}
+	}
+
+}
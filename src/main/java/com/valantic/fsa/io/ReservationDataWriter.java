@@ -0,0 +1,74 @@
+package com.valantic.fsa.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.valantic.fsa.model.ReservationData;
+
+/**
+ * Writer streaming reservation data to a JSON Lines file, i.e., one object {@code {"name": ..., "date": ...,
+ * "time": ..., "numberOfPeople": ...}} per line. Missing values are written as null.
+ * 
+ * @author M. Frick
+ */
+public class ReservationDataWriter implements Closeable {
+
+	/**
+	 * The streaming JSON generator.
+	 */
+	private final JsonGenerator generator;
+
+	/**
+	 * Constructs a new {@code ReservationDataWriter} for the given file.
+	 * 
+	 * @param file the file to write
+	 * @throws IOException if the file cannot be created
+	 */
+	public ReservationDataWriter(Path file) throws IOException {
+		this.generator = new JsonFactory().createGenerator(file.toFile(), JsonEncoding.UTF8);
+		generator.setRootValueSeparator(null);
+	}
+
+	/**
+	 * Constructs a new {@code ReservationDataWriter} for the given stream.
+	 * 
+	 * @param out the stream to write (closed when the writer is closed)
+	 * @throws IOException if the writer cannot be created
+	 */
+	public ReservationDataWriter(OutputStream out) throws IOException {
+		this.generator = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+		generator.setRootValueSeparator(null);
+	}
+
+	/**
+	 * Writes the reservation data as one line.
+	 * 
+	 * @param data the reservation data to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(ReservationData data) throws IOException {
+		generator.writeStartObject();
+		generator.writeStringField("name", data.getName());
+		generator.writeStringField("date", (data.getDate() != null) ? data.getDate().toString() : null);
+		generator.writeStringField("time", (data.getTime() != null) ? data.getTime().toString() : null);
+		generator.writeFieldName("numberOfPeople");
+		if (data.getNumberOfPeople() > 0) {
+			generator.writeNumber(data.getNumberOfPeople());
+		} else {
+			generator.writeNull();
+		}
+		generator.writeEndObject();
+		generator.writeRaw('\n');
+	}
+
+	@Override
+	public void close() throws IOException {
+		generator.close();
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.valantic.fsa.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.valantic.fsa.model.DefaultReservationRequest;
+import com.valantic.fsa.model.ReservationRequest;
+
+/**
+ * Reader streaming reservation requests (records of a text and a timestamp) from a file one by one.
+ * 
+ * @author M. Frick
+ */
+public interface ReservationRequestReader extends Closeable {
+
+	/**
+	 * Reads the next reservation request.
+	 * 
+	 * @return the next reservation request, or null if there are no more requests
+	 * @throws IOException if the file cannot be read or is malformed
+	 */
+	public ReservationRequest read() throws IOException;
+
+	/**
+	 * Opens a reader for the given file. Files ending with ".csv" are read as CSV, files ending with ".txt" as
+	 * one request per line (see {@link MappedRecordReader}), all others as JSON Lines.
+	 * 
+	 * @param file the file to read
+	 * @return the reader
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static ReservationRequestReader open(Path file) throws IOException {
+		String name = file.getFileName().toString().toLowerCase();
+		if (name.endsWith(".csv")) {
+			return new CsvRequestReader(file);
+		}
+		if (name.endsWith(".txt")) {
+			return new MappedRecordReader(file);
+		}
+		return new JsonLinesRequestReader(file);
+	}
+
+	/**
+	 * Creates a reservation request from the values of a record.
+	 * 
+	 * @param text the text of the request
+	 * @param timestamp the timestamp of the request as ISO date time or date (null or empty for now)
+	 * @return the reservation request
+	 * @throws IOException if the text is missing or the timestamp is malformed
+	 */
+	static ReservationRequest createRequest(String text, String timestamp) throws IOException {
+		if (text == null) {
+			throw new IOException("Missing text in record");
+		}
+		if ((timestamp == null) || timestamp.isEmpty()) {
+			return new DefaultReservationRequest(text);
+		}
+		try {
+			if (timestamp.length() <= 10) {
+				return new DefaultReservationRequest(text, LocalDate.parse(timestamp).atStartOfDay());
+			}
+			return new DefaultReservationRequest(text, LocalDateTime.parse(timestamp));
+		} catch (RuntimeException e) {
+			throw new IOException("Malformed timestamp: " + timestamp, e);
+		}
+	}
+
+}
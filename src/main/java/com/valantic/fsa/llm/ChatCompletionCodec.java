@@ -0,0 +1,217 @@
+package com.valantic.fsa.llm;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.valantic.fsa.llm.OpenAIClient.OpenAIException;
+
+/**
+ * Writes requests to and reads responses from the chat completions API with the streaming API of Jackson, i.e.,
+ * without building maps or trees: the request is generated into a buffer reused per thread, and the response is
+ * scanned for the content of the first choice, stopping as soon as it is found.
+ *
+ * @author M. Frick
+ */
+final class ChatCompletionCodec {
+
+	/**
+	 * The reader creating the parsers (thread-safe).
+	 */
+	private static final ObjectReader READER = new ObjectMapper().reader();
+
+	/**
+	 * The writer creating the generators (thread-safe).
+	 */
+	private static final ObjectWriter WRITER = new ObjectMapper().writer();
+
+	/**
+	 * The buffer of the request body per thread.
+	 */
+	private static final ThreadLocal<ByteArrayBuilder> BUFFER = ThreadLocal.withInitial(() -> new ByteArrayBuilder(1024));
+
+	/**
+	 * Buffers larger than this are not kept for reuse.
+	 */
+	private static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+	private ChatCompletionCodec() {
+	}
+
+	/**
+	 * Writes the request body asking the model with a user prompt.
+	 *
+	 * @param model the model
+	 * @param userPrompt the user prompt
+	 * @param stream true to stream the response
+	 * @return the request body (UTF-8)
+	 * @throws IOException if the body cannot be written
+	 */
+	static byte[] writeRequest(String model, String userPrompt, boolean stream) throws IOException {
+		return writeRequest(model, null, userPrompt, stream, null);
+	}
+
+	/**
+	 * Writes the request body asking the model with a system and a user prompt for a response in the given
+	 * format. The system message comes first, so that a static system prompt is a common prefix of all requests.
+	 *
+	 * @param model the model
+	 * @param systemPrompt the system prompt (null for none)
+	 * @param userPrompt the user prompt
+	 * @param stream true to stream the response
+	 * @param responseFormat the {@code response_format} object as JSON (null for plain text)
+	 * @return the request body (UTF-8)
+	 * @throws IOException if the body cannot be written
+	 */
+	static byte[] writeRequest(String model, String systemPrompt, String userPrompt, boolean stream,
+			String responseFormat) throws IOException {
+		ByteArrayBuilder buffer = BUFFER.get();
+		buffer.reset();
+		try (JsonGenerator generator = WRITER.createGenerator(buffer)) {
+			generator.writeStartObject();
+			generator.writeStringField("model", model);
+			generator.writeArrayFieldStart("messages");
+			if (systemPrompt != null) {
+				generator.writeStartObject();
+				generator.writeStringField("role", "system");
+				generator.writeStringField("content", systemPrompt);
+				generator.writeEndObject();
+			}
+			generator.writeStartObject();
+			generator.writeStringField("role", "user");
+			generator.writeStringField("content", userPrompt);
+			generator.writeEndObject();
+			generator.writeEndArray();
+			if (responseFormat != null) {
+				generator.writeFieldName("response_format");
+				generator.writeRawValue(responseFormat);
+			}
+			if (stream) {
+				generator.writeBooleanField("stream", true);
+			}
+			generator.writeEndObject();
+		}
+		byte[] body = buffer.toByteArray();
+		if (body.length > MAX_BUFFER_SIZE) {
+			BUFFER.remove();
+		}
+		return body;
+	}
+
+	/**
+	 * Reads the content of the first choice ({@code choices[0].message.content}) from a response body. If the
+	 * event of the call is enabled, the token usage is read into the event, too; otherwise, reading stops at the
+	 * content.
+	 *
+	 * @param body the response body
+	 * @param event the event of the call
+	 * @return the content
+	 * @throws IOException if the body is not valid JSON
+	 * @throws OpenAIException if the body has no content
+	 */
+	static String readContent(String body, OpenAICallEvent event) throws IOException {
+		try (JsonParser parser = READER.createParser(body)) {
+			String content = readChoice(parser, "message", event.isEnabled() ? event : null);
+			if (content == null) {
+				throw new OpenAIException("Missing choices[0].message.content in response: " + body);
+			}
+			return content;
+		}
+	}
+
+	/**
+	 * Reads the content delta of the first choice ({@code choices[0].delta.content}) from the data of a
+	 * server-sent event of a streamed response.
+	 *
+	 * @param data the data of the event
+	 * @return the content delta, or null if the event has none (e.g., the first and the last event)
+	 * @throws IOException if the data is not valid JSON
+	 */
+	static String readDelta(String data) throws IOException {
+		try (JsonParser parser = READER.createParser(data)) {
+			return readChoice(parser, "delta", null);
+		}
+	}
+
+	/**
+	 * Reads the content of the given object of the first choice, skipping all other values.
+	 *
+	 * @param parser the parser positioned before the response object
+	 * @param field the field of the choice holding the content ("message" or "delta")
+	 * @param event the event to read the token usage into (null to stop at the content)
+	 * @return the content, or null if there is none
+	 * @throws IOException if the response is not valid JSON
+	 */
+	private static String readChoice(JsonParser parser, String field, OpenAICallEvent event) throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw new OpenAIException("Response is not a JSON object");
+		}
+		String content = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if ("choices".equals(name) && (token == JsonToken.START_ARRAY)) {
+				if (parser.nextToken() == JsonToken.START_OBJECT) {
+					content = readObjectContent(parser, field);
+					if ((content != null) && (event == null)) {
+						return content;
+					}
+					// first choice read, skip the others
+					while (parser.nextToken() != JsonToken.END_ARRAY) {
+						parser.skipChildren();
+					}
+				}
+			} else if ("usage".equals(name) && (token == JsonToken.START_OBJECT) && (event != null)) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String usage = parser.getCurrentName();
+					parser.nextToken();
+					if ("prompt_tokens".equals(usage)) {
+						event.promptTokens = parser.getValueAsInt(-1);
+					} else if ("completion_tokens".equals(usage)) {
+						event.completionTokens = parser.getValueAsInt(-1);
+					} else {
+						parser.skipChildren();
+					}
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return content;
+	}
+
+	/**
+	 * Reads the content of the given object of a choice, leaving the parser at the end of the choice.
+	 *
+	 * @param parser the parser positioned at the start of the choice
+	 * @param field the field of the choice holding the content
+	 * @return the content, or null if there is none
+	 * @throws IOException if the response is not valid JSON
+	 */
+	private static String readObjectContent(JsonParser parser, String field) throws IOException {
+		String content = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if (field.equals(name) && (token == JsonToken.START_OBJECT)) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String inner = parser.getCurrentName();
+					if ((parser.nextToken() == JsonToken.VALUE_STRING) && "content".equals(inner)) {
+						content = parser.getText();
+					} else {
+						parser.skipChildren();
+					}
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return content;
+	}
+
+}
@@ -0,0 +1,144 @@
+package com.valantic.fsa.llm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Predicate;
+
+/**
+ * Consumes a streamed chat completion, i.e., the server-sent events of a request with {@code "stream": true},
+ * line by line as the bytes arrive. The content deltas of the first choice are concatenated; as soon as the
+ * content is complete according to the stop condition (or the stream ends), the rest of the stream is cancelled
+ * and the body completes with the content received so far.
+ *
+ * @author M. Frick
+ */
+class CompletionStreamSubscriber implements HttpResponse.BodySubscriber<String> {
+
+	/**
+	 * The prefix of a data line.
+	 */
+	private static final String DATA = "data:";
+
+	/**
+	 * The data marking the end of the stream.
+	 */
+	private static final String DONE = "[DONE]";
+
+	/**
+	 * The condition on the content received so far to stop the stream.
+	 */
+	private Predicate<CharSequence> stop;
+
+	/**
+	 * The content received so far.
+	 */
+	private StringBuilder content = new StringBuilder();
+
+	/**
+	 * The bytes of the current line (a line break never occurs inside a UTF-8 encoded character).
+	 */
+	private ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+	/**
+	 * The body completed with the content.
+	 */
+	private CompletableFuture<String> body = new CompletableFuture<>();
+
+	/**
+	 * The subscription to the stream.
+	 */
+	private Flow.Subscription subscription;
+
+	/**
+	 * Constructs a new subscriber.
+	 *
+	 * @param stop the condition on the content received so far to stop the stream
+	 */
+	CompletionStreamSubscriber(Predicate<CharSequence> stop) {
+		this.stop = stop;
+	}
+
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+		this.subscription = subscription;
+		subscription.request(1);
+	}
+
+	@Override
+	public void onNext(List<ByteBuffer> items) {
+		try {
+			for (ByteBuffer buffer : items) {
+				while (buffer.hasRemaining()) {
+					byte b = buffer.get();
+					if (b == '\n') {
+						if (this.onLine()) {
+							subscription.cancel();
+							body.complete(content.toString());
+							return;
+						}
+					} else if (b != '\r') {
+						line.write(b);
+					}
+				}
+			}
+		} catch (Exception e) {
+			subscription.cancel();
+			body.completeExceptionally(e);
+			return;
+		}
+		subscription.request(1);
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		body.completeExceptionally(throwable);
+	}
+
+	@Override
+	public void onComplete() {
+		try {
+			this.onLine();
+			body.complete(content.toString());
+		} catch (Exception e) {
+			body.completeExceptionally(e);
+		}
+	}
+
+	@Override
+	public CompletionStage<String> getBody() {
+		return body;
+	}
+
+	/**
+	 * Handles the current line, i.e., appends the content delta of a data line.
+	 *
+	 * @return true if the stream ended or the content is complete
+	 * @throws IOException if the data of the line cannot be read
+	 */
+	private boolean onLine() throws IOException {
+		String text = line.toString(StandardCharsets.UTF_8);
+		line.reset();
+		if (!text.startsWith(DATA)) {
+			// empty line, comment or other field
+			return false;
+		}
+		String data = text.substring(DATA.length()).trim();
+		if (DONE.equals(data)) {
+			return true;
+		}
+		String delta = ChatCompletionCodec.readDelta(data);
+		if (delta != null) {
+			content.append(delta);
+			return stop.test(content);
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,166 @@
+package com.valantic.fsa.llm;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of latencies in nanoseconds with a relative precision of better than 1% over the whole
+ * range of {@code long} values (in the style of an HDR histogram). Values below 256 are counted exactly, larger
+ * values in log-linear buckets: each power of two is split into 128 sub-buckets of equal width. Recording is
+ * lock-free and does not allocate.
+ * 
+ * @author M. Frick
+ */
+public class LatencyHistogram {
+
+	/**
+	 * The number of bits of the sub-bucket index.
+	 */
+	private static final int SUB_BUCKET_BITS = 7;
+
+	/**
+	 * The number of sub-buckets per power of two.
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * The counts per bucket.
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray(indexOf(Long.MAX_VALUE) + 1);
+
+	/**
+	 * The number of recorded values.
+	 */
+	private final LongAdder count = new LongAdder();
+
+	/**
+	 * The sum of the recorded values.
+	 */
+	private final LongAdder sum = new LongAdder();
+
+	/**
+	 * The maximum recorded value.
+	 */
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Records a latency.
+	 * 
+	 * @param nanos the latency in nanoseconds (negative values are recorded as 0)
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts.incrementAndGet(indexOf(value));
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * Returns the number of recorded latencies.
+	 * 
+	 * @return the number of recorded latencies
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the maximum recorded latency.
+	 * 
+	 * @return the maximum latency in nanoseconds (0 if nothing was recorded)
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the mean recorded latency.
+	 * 
+	 * @return the mean latency in nanoseconds (0 if nothing was recorded)
+	 */
+	public double getMean() {
+		long n = this.getCount();
+		return (n > 0) ? (double) sum.sum() / n : 0;
+	}
+
+	/**
+	 * Returns the latency at the given percentile, i.e., the highest latency equivalent to the bucket holding
+	 * the percentile (at most the maximum recorded latency).
+	 * 
+	 * @param percentile the percentile (0 to 100)
+	 * @return the latency in nanoseconds (0 if nothing was recorded)
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long total = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			total += counts.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(highestValueOf(i), this.getMax());
+			}
+		}
+		return this.getMax();
+	}
+
+	/**
+	 * Resets the histogram.
+	 */
+	public void reset() {
+		for (int i = 0; i < counts.length(); i++) {
+			counts.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+
+	/**
+	 * Returns the bucket index of a value.
+	 * 
+	 * @param value the value (not negative)
+	 * @return the bucket index
+	 */
+	static int indexOf(long value) {
+		if (value < 2 * SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+	}
+
+	/**
+	 * Returns the highest value of a bucket.
+	 * 
+	 * @param index the bucket index
+	 * @return the highest value counted in the bucket
+	 */
+	static long highestValueOf(int index) {
+		if (index < 2 * SUB_BUCKETS) {
+			return index;
+		}
+		int shift = (index >>> SUB_BUCKET_BITS) - 1;
+		long mantissa = (index & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+		long lowest = mantissa << shift;
+		long width = 1L << shift;
+		return (lowest > Long.MAX_VALUE - width) ? Long.MAX_VALUE : lowest + width - 1;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d mean=%.1f ms p50=%.1f ms p90=%.1f ms p99=%.1f ms p99.9=%.1f ms max=%.1f ms",
+				this.getCount(), this.getMean() / 1e6, this.getValueAtPercentile(50) / 1e6,
+				this.getValueAtPercentile(90) / 1e6, this.getValueAtPercentile(99) / 1e6,
+				this.getValueAtPercentile(99.9) / 1e6, this.getMax() / 1e6);
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.valantic.fsa.llm;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event recorded for each call of the OpenAI API that is not answered from the cache. The duration of the
+ * event is the latency of the call.
+ * 
+ * @author M. Frick
+ */
+@Name("com.valantic.fsa.OpenAICall")
+@Label("OpenAI Call")
+@Category({ "Reservation Service", "OpenAI" })
+@Description("A call of the OpenAI chat completions API")
+class OpenAICallEvent extends Event {
+
+	/**
+	 * The model asked.
+	 */
+	@Label("Model")
+	String model;
+
+	/**
+	 * The size of the request body.
+	 */
+	@Label("Prompt Bytes")
+	@DataAmount
+	long promptBytes;
+
+	/**
+	 * The size of the response body.
+	 */
+	@Label("Response Bytes")
+	@DataAmount
+	long responseBytes;
+
+	/**
+	 * The HTTP status of the response (-1 if there is no response).
+	 */
+	@Label("Status")
+	int status = -1;
+
+	/**
+	 * The number of prompt tokens reported by the API (-1 if not reported).
+	 */
+	@Label("Prompt Tokens")
+	int promptTokens = -1;
+
+	/**
+	 * The number of completion tokens reported by the API (-1 if not reported).
+	 */
+	@Label("Completion Tokens")
+	int completionTokens = -1;
+
+	/**
+	 * The number of requests sent for the call, i.e., 1 plus the number of retries.
+	 */
+	@Label("Attempts")
+	int attempts;
+
+	/**
+	 * Whether the call returned a content.
+	 */
+	@Label("Success")
+	boolean success;
+
+}
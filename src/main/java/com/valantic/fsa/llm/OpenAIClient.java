@@ -1,16 +1,27 @@
 package com.valantic.fsa.llm;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
- * A client for the OpenAI API.
+ * A client for the OpenAI API. The client speaks HTTP/2 where the server supports it, applies the timeouts of its
+ * {@link TransportSettings} and retries calls failing transiently with jittered exponential backoff. Each call that is not answered from the cache is recorded as JFR event (see
+ * {@link OpenAICallEvent}) and in the latency histogram of its model (see {@link #getLatencyHistogram(String)}).
  * 
  * @author M. Frick
  */
@@ -32,6 +43,17 @@ public class OpenAIClient {
      */
     public static final String DEFAULT_API_URL = "https://api.openai.com/v1/chat/completions";
 
+    /**
+     * The latency histograms of all clients by model.
+     */
+    private static final Map<String, LatencyHistogram> LATENCIES = new ConcurrentHashMap<>();
+
+    /**
+     * The executors handling the responses of all clients by number of threads, i.e., clients with the same
+     * number of threads share one pool of daemon threads instead of each leaking a pool of its own.
+     */
+    private static final Map<Integer, ExecutorService> EXECUTORS = new ConcurrentHashMap<>();
+
     /**
      * The OpenAI model to use.
      */ 
@@ -47,8 +69,17 @@ public class OpenAIClient {
      */
     private String apiUrl;
 
+    /**
+     * The cache of responses (null if responses are not cached).
+     */
+    private ResponseCache cache;
+
+    /**
+     * The settings of the HTTP transport.
+     */
+    private TransportSettings settings;
+
     private HttpClient client;
-    private ObjectMapper mapper;
 
     /**
      * Constructs a new OpenAIClient with the default model.
@@ -84,12 +115,56 @@ public class OpenAIClient {
      * @param apiKey the API key to use
      */
     public OpenAIClient(String model, String apiUrl, String apiKey) {
+    	this(model, apiUrl, apiKey, null);
+    }
+
+    /**
+     * Constructs a new OpenAIClient with the given model, API URL, API key and response cache.
+     * 
+     * @param model the model to use
+     * @param apiUrl the API URL to use
+     * @param apiKey the API key to use
+     * @param cache the cache of responses to use (null to not cache responses)
+     */
+    public OpenAIClient(String model, String apiUrl, String apiKey, ResponseCache cache) {
+    	this(model, apiUrl, apiKey, cache, new TransportSettings());
+    }
+
+    /**
+     * Constructs a new OpenAIClient with the given model, API URL, API key, response cache and transport settings.
+     * 
+     * @param model the model to use
+     * @param apiUrl the API URL to use
+     * @param apiKey the API key to use
+     * @param cache the cache of responses to use (null to not cache responses)
+     * @param settings the settings of the HTTP transport
+     */
+    public OpenAIClient(String model, String apiUrl, String apiKey, ResponseCache cache, TransportSettings settings) {
     	this.model = model;
         this.apiUrl = apiUrl;
         this.apiKey = apiKey;
+        this.cache = cache;
+        this.settings = settings;
         
-        this.client = HttpClient.newHttpClient();
-        this.mapper = new ObjectMapper();
+        this.client = HttpClient.newBuilder()
+        		.version(HttpClient.Version.HTTP_2)
+        		.connectTimeout(settings.getConnectTimeout())
+        		.executor(getExecutor(settings.getThreads()))
+        		.build();
+    }
+
+    /**
+     * Returns the shared executor with the given number of daemon threads, creating it on first use.
+     * 
+     * @param threads the number of threads
+     * @return the executor
+     */
+    private static ExecutorService getExecutor(int threads) {
+    	return EXECUTORS.computeIfAbsent(threads, n -> Executors.newFixedThreadPool(n, runnable -> {
+    		Thread thread = new Thread(runnable, "openai-client");
+    		thread.setDaemon(true);
+    		return thread;
+    	}));
     }
 
     /**
@@ -99,36 +174,529 @@ public class OpenAIClient {
      * @return the response from the OpenAI API
      */ 
     public String ask(String userPrompt) {
-    	HttpResponse<String> response = null;
-        try {
-            Map<String, Object> body = Map.of(
-                "model", model,
-                "messages", new Object[] {
-                    Map.of("role", "user", "content", userPrompt)
-                }
-            );
+    	return this.call(null, userPrompt, null, null);
+    }
 
-            String json = mapper.writeValueAsString(body);
+    /**
+     * Asks the OpenAI API with the given user prompt, streaming the response. The content is consumed as it
+     * arrives; as soon as it satisfies the stop condition, the rest of the stream is cancelled, e.g., any text the
+     * model adds after the answer. Streamed responses are neither cached nor answered from the cache.
+     * 
+     * @param userPrompt the user prompt to ask the OpenAI API with
+     * @param stop the condition on the content received so far to stop the stream
+     * @return the response from the OpenAI API up to the stop condition
+     */ 
+    public String askStreaming(String userPrompt, Predicate<CharSequence> stop) {
+    	return this.call(null, userPrompt, null, stop);
+    }
 
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(apiUrl))
-                .header("Authorization", "Bearer " + apiKey)
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(json))
-                .build();
+    /**
+     * Asks the OpenAI API with the given system and user prompt. A system prompt that is the same for all calls
+     * is a common prefix of the requests, which the API caches (lowering the latency and cost of the prompt).
+     * 
+     * @param systemPrompt the system prompt, i.e., the instructions
+     * @param userPrompt the user prompt, i.e., the input of the call
+     * @return the response from the OpenAI API
+     */ 
+    public String ask(String systemPrompt, String userPrompt) {
+    	return this.call(systemPrompt, userPrompt, null, null);
+    }
 
-            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    /**
+     * Asks the OpenAI API with the given system and user prompt without blocking the calling thread (see
+     * {@link #ask(String, String)}).
+     * 
+     * @param systemPrompt the system prompt, i.e., the instructions
+     * @param userPrompt the user prompt, i.e., the input of the call
+     * @return a future completing with the response from the OpenAI API, or exceptionally with an
+     *         {@code OpenAIException}
+     */ 
+    public CompletableFuture<String> askAsync(String systemPrompt, String userPrompt) {
+    	return this.callAsync(systemPrompt, userPrompt, null, null);
+    }
 
-            Map<?, ?> jsonMap = mapper.readValue(response.body(), Map.class);
-            return (String) ((Map<?, ?>)((Map<?, ?>)((List<?>) jsonMap.get("choices")).get(0)).get("message")).get("content");
+    /**
+     * Asks the OpenAI API with the given system and user prompt, streaming the response (see
+     * {@link #askStreaming(String, Predicate)}).
+     * 
+     * @param systemPrompt the system prompt, i.e., the instructions
+     * @param userPrompt the user prompt, i.e., the input of the call
+     * @param stop the condition on the content received so far to stop the stream
+     * @return the response from the OpenAI API up to the stop condition
+     */ 
+    public String askStreaming(String systemPrompt, String userPrompt, Predicate<CharSequence> stop) {
+    	return this.call(systemPrompt, userPrompt, null, stop);
+    }
+
+    /**
+     * Asks the OpenAI API with the given system and user prompt without blocking the calling thread, streaming
+     * the response (see {@link #askStreaming(String, Predicate)}).
+     * 
+     * @param systemPrompt the system prompt, i.e., the instructions
+     * @param userPrompt the user prompt, i.e., the input of the call
+     * @param stop the condition on the content received so far to stop the stream
+     * @return a future completing with the response from the OpenAI API up to the stop condition, or exceptionally
+     *         with an {@code OpenAIException}
+     */ 
+    public CompletableFuture<String> askStreamingAsync(String systemPrompt, String userPrompt,
+    		Predicate<CharSequence> stop) {
+    	return this.callAsync(systemPrompt, userPrompt, null, stop);
+    }
+
+    /**
+     * Asks the OpenAI API with the given user prompt without blocking the calling thread. The request is sent
+     * asynchronously by the HTTP client, i.e., many requests can be in flight using only a few threads.
+     * 
+     * @param userPrompt the user prompt to ask the OpenAI API with
+     * @return a future completing with the response from the OpenAI API, or exceptionally with an
+     *         {@code OpenAIException}
+     */ 
+    public CompletableFuture<String> askAsync(String userPrompt) {
+    	return this.callAsync(null, userPrompt, null, null);
+    }
+
+    /**
+     * Asks the OpenAI API with the given user prompt without blocking the calling thread, streaming the response
+     * (see {@link #askStreaming(String, Predicate)}).
+     * 
+     * @param userPrompt the user prompt to ask the OpenAI API with
+     * @param stop the condition on the content received so far to stop the stream
+     * @return a future completing with the response from the OpenAI API up to the stop condition, or exceptionally
+     *         with an {@code OpenAIException}
+     */ 
+    public CompletableFuture<String> askStreamingAsync(String userPrompt, Predicate<CharSequence> stop) {
+    	return this.callAsync(null, userPrompt, null, stop);
+    }
+
+    /**
+     * Asks the OpenAI API with the given user prompt for structured output, i.e., a JSON object conforming to
+     * the given JSON schema. The schema is sent as {@code response_format} of type {@code json_schema} in strict
+     * mode, so the model answers with nothing but the object.
+     * 
+     * @param userPrompt the user prompt to ask the OpenAI API with
+     * @param schemaName the name of the schema
+     * @param schema the JSON schema of the response
+     * @return the response from the OpenAI API, i.e., the JSON object
+     */ 
+    public String askJson(String userPrompt, String schemaName, String schema) {
+    	return this.askJson(null, userPrompt, schemaName, schema);
+    }
+
+    /**
+     * Asks the OpenAI API with the given system and user prompt for structured output (see
+     * {@link #askJson(String, String, String)}).
+     * 
+     * @param systemPrompt the system prompt, i.e., the instructions (null for none)
+     * @param userPrompt the user prompt, i.e., the input of the call
+     * @param schemaName the name of the schema
+     * @param schema the JSON schema of the response
+     * @return the response from the OpenAI API, i.e., the JSON object
+     */ 
+    public String askJson(String systemPrompt, String userPrompt, String schemaName, String schema) {
+    	return this.call(systemPrompt, userPrompt, createResponseFormat(schemaName, schema), null);
+    }
+
+    /**
+     * Asks the OpenAI API with the given user prompt for structured output without blocking the calling thread
+     * (see {@link #askJson(String, String, String)}).
+     * 
+     * @param userPrompt the user prompt to ask the OpenAI API with
+     * @param schemaName the name of the schema
+     * @param schema the JSON schema of the response
+     * @return a future completing with the response from the OpenAI API, i.e., the JSON object, or exceptionally
+     *         with an {@code OpenAIException}
+     */ 
+    public CompletableFuture<String> askJsonAsync(String userPrompt, String schemaName, String schema) {
+    	return this.askJsonAsync(null, userPrompt, schemaName, schema);
+    }
+
+    /**
+     * Asks the OpenAI API with the given system and user prompt for structured output without blocking the
+     * calling thread (see {@link #askJson(String, String, String)}).
+     * 
+     * @param systemPrompt the system prompt, i.e., the instructions (null for none)
+     * @param userPrompt the user prompt, i.e., the input of the call
+     * @param schemaName the name of the schema
+     * @param schema the JSON schema of the response
+     * @return a future completing with the response from the OpenAI API, i.e., the JSON object, or exceptionally
+     *         with an {@code OpenAIException}
+     */ 
+    public CompletableFuture<String> askJsonAsync(String systemPrompt, String userPrompt, String schemaName,
+    		String schema) {
+    	return this.callAsync(systemPrompt, userPrompt, createResponseFormat(schemaName, schema), null);
+    }
 
+    /**
+     * Creates the {@code response_format} object asking for a JSON object conforming to a JSON schema.
+     * 
+     * @param schemaName the name of the schema
+     * @param schema the JSON schema
+     * @return the response format as JSON
+     */
+    private static String createResponseFormat(String schemaName, String schema) {
+    	return "{\"type\":\"json_schema\",\"json_schema\":{\"name\":\"" + schemaName + "\",\"strict\":true,\"schema\":"
+    			+ schema + "}}";
+    }
+
+    /**
+     * Calls the OpenAI API with the given system and user prompt.
+     * 
+     * @param systemPrompt the system prompt (null for none)
+     * @param userPrompt the user prompt to ask the OpenAI API with
+     * @param responseFormat the format of the response as JSON (null for plain text)
+     * @param stop the condition to stop streaming the response (null to not stream the response)
+     * @return the response from the OpenAI API
+     */
+    private String call(String systemPrompt, String userPrompt, String responseFormat, Predicate<CharSequence> stop) {
+    	// a streamed response ends at the stop condition of its caller, hence it is not cached
+    	String cacheKey = (stop == null) ? createCacheKey(systemPrompt, userPrompt, responseFormat) : null;
+    	String cached = this.getCached(cacheKey);
+    	if (cached != null) {
+    		return cached;
+    	}
+    	OpenAICallEvent event = new OpenAICallEvent();
+    	long start = System.nanoTime();
+    	event.begin();
+    	HttpResponse<String> response = null;
+    	String content = null;
+        try {
+        	HttpRequest request = this.createRequest(systemPrompt, userPrompt, responseFormat, stop != null);
+        	event.promptBytes = request.bodyPublisher().get().contentLength();
+            response = this.send(request, this.createBodyHandler(stop), event);
+            content = this.extractContent(response, event, stop != null);
+        } catch (InterruptedException e) {
+        	// keep the thread interrupted, e.g., for a pool being shut down
+        	Thread.currentThread().interrupt();
+        	throw new OpenAIException("Interrupted while calling the OpenAI API", e);
         } catch (Exception e) {
-        	String message = e.getMessage();
-        	if (response != null) {
-        		message = response.body();
-        	}
-        	throw new OpenAIException(message);
+        	throw this.toOpenAIException(e, response);
+        } finally {
+        	this.record(event, start, response, content != null);
         }
+        this.putCached(cacheKey, content);
+        return content;
+    }
+
+    /**
+     * Calls the OpenAI API with the given system and user prompt without blocking the calling thread.
+     * 
+     * @param systemPrompt the system prompt (null for none)
+     * @param userPrompt the user prompt to ask the OpenAI API with
+     * @param responseFormat the format of the response as JSON (null for plain text)
+     * @param stop the condition to stop streaming the response (null to not stream the response)
+     * @return a future completing with the response from the OpenAI API, or exceptionally with an
+     *         {@code OpenAIException}
+     */
+    private CompletableFuture<String> callAsync(String systemPrompt, String userPrompt, String responseFormat,
+    		Predicate<CharSequence> stop) {
+    	// a streamed response ends at the stop condition of its caller, hence it is not cached
+    	String cacheKey = (stop == null) ? createCacheKey(systemPrompt, userPrompt, responseFormat) : null;
+    	String cached = this.getCached(cacheKey);
+    	if (cached != null) {
+    		return CompletableFuture.completedFuture(cached);
+    	}
+    	HttpRequest request;
+    	try {
+    		request = this.createRequest(systemPrompt, userPrompt, responseFormat, stop != null);
+    	} catch (Exception e) {
+    		return CompletableFuture.failedFuture(this.toOpenAIException(e, null));
+    	}
+    	OpenAICallEvent event = new OpenAICallEvent();
+    	event.promptBytes = request.bodyPublisher().get().contentLength();
+    	long start = System.nanoTime();
+    	event.begin();
+    	return this.sendAsync(request, this.createBodyHandler(stop), event, 0)
+    			.handle((response, throwable) -> {
+    				if (throwable != null) {
+    					this.record(event, start, null, false);
+    					Throwable cause = (throwable instanceof CompletionException) ? throwable.getCause() : throwable;
+    					throw this.toOpenAIException(cause, null);
+    				}
+    				String content = null;
+    				try {
+    					content = this.extractContent(response, event, stop != null);
+    				} catch (Exception e) {
+    					throw this.toOpenAIException(e, response);
+    				} finally {
+    					this.record(event, start, response, content != null);
+    				}
+    				this.putCached(cacheKey, content);
+    				return content;
+    			});
+    }
+
+    /**
+     * Opens a connection to the API without asking it, so that the first call does not pay for the TCP and TLS
+     * handshakes. The response of the API is ignored.
+     * 
+     * @return a future completing when the connection is established or failed
+     */
+    public CompletableFuture<Void> warmUp() {
+    	HttpRequest request = HttpRequest.newBuilder()
+    			.uri(URI.create(apiUrl))
+    			.timeout(settings.getRequestTimeout())
+    			.method("HEAD", HttpRequest.BodyPublishers.noBody())
+    			.build();
+    	return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+    			.handle((response, throwable) -> null);
+    }
+
+    /**
+     * Returns the settings of the HTTP transport of the client.
+     * 
+     * @return the transport settings
+     */
+    public TransportSettings getSettings() {
+    	return settings;
+    }
+
+    /**
+     * Returns the response cache of the client.
+     * 
+     * @return the response cache, or null if responses are not cached
+     */
+    public ResponseCache getCache() {
+    	return cache;
+    }
+
+    /**
+     * Sends the request, retrying it while the API answers with a retryable status or the request fails with an
+     * I/O error (see {@link TransportSettings}).
+     * 
+     * @param request the HTTP request
+     * @param handler the handler of the response body
+     * @param event the event of the call
+     * @return the last HTTP response
+     * @throws IOException if the last request failed
+     * @throws InterruptedException if the thread was interrupted
+     */
+    private HttpResponse<String> send(HttpRequest request, HttpResponse.BodyHandler<String> handler,
+    		OpenAICallEvent event) throws IOException, InterruptedException {
+    	for (int retry = 0; ; retry++) {
+    		event.attempts = retry + 1;
+    		HttpResponse<String> response;
+    		try {
+    			response = client.send(request, handler);
+    		} catch (IOException e) {
+    			if (retry >= settings.getMaxRetries()) {
+    				throw e;
+    			}
+    			Thread.sleep(settings.getBackoffMillis(retry, null));
+    			continue;
+    		}
+    		if ((retry >= settings.getMaxRetries()) || !settings.isRetryable(response.statusCode())) {
+    			return response;
+    		}
+    		Thread.sleep(settings.getBackoffMillis(retry, response.headers().firstValue("Retry-After").orElse(null)));
+    	}
+    }
+
+    /**
+     * Sends the request asynchronously, retrying it after a backoff while the API answers with a retryable status
+     * or the request fails with an I/O error (see {@link TransportSettings}). No thread is blocked during the
+     * backoff.
+     * 
+     * @param request the HTTP request
+     * @param handler the handler of the response body
+     * @param event the event of the call
+     * @param retry the number of the retry (0 for the first attempt)
+     * @return a future completing with the last HTTP response
+     */
+    private CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request,
+    		HttpResponse.BodyHandler<String> handler, OpenAICallEvent event, int retry) {
+    	event.attempts = retry + 1;
+    	return client.sendAsync(request, handler)
+    			.handle((response, throwable) -> {
+    				if (retry < settings.getMaxRetries()) {
+    					Throwable cause = (throwable instanceof CompletionException) ? throwable.getCause() : throwable;
+    					if (cause instanceof IOException) {
+    						return this.retryAsync(request, handler, event, retry, null);
+    					}
+    					if ((throwable == null) && settings.isRetryable(response.statusCode())) {
+    						return this.retryAsync(request, handler, event, retry,
+    								response.headers().firstValue("Retry-After").orElse(null));
+    					}
+    				}
+    				return (throwable != null) ? CompletableFuture.<HttpResponse<String>>failedFuture(throwable)
+    						: CompletableFuture.completedFuture(response);
+    			})
+    			.thenCompose(Function.identity());
+    }
+
+    /**
+     * Sends the request asynchronously again after the backoff of the given retry.
+     * 
+     * @param request the HTTP request
+     * @param handler the handler of the response body
+     * @param event the event of the call
+     * @param retry the number of the retry
+     * @param retryAfter the value of the Retry-After header (null if there is none)
+     * @return a future completing with the last HTTP response
+     */
+    private CompletableFuture<HttpResponse<String>> retryAsync(HttpRequest request,
+    		HttpResponse.BodyHandler<String> handler, OpenAICallEvent event, int retry, String retryAfter) {
+    	long backoff = settings.getBackoffMillis(retry, retryAfter);
+    	return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS))
+    			.thenCompose(v -> this.sendAsync(request, handler, event, retry + 1));
+    }
+
+    /**
+     * Returns the latency histogram of the calls of all clients using the given model.
+     * 
+     * @param model the model
+     * @return the latency histogram of the model
+     */
+    public static LatencyHistogram getLatencyHistogram(String model) {
+    	return LATENCIES.computeIfAbsent(model, m -> new LatencyHistogram());
+    }
+
+    /**
+     * Returns the latency histograms of the calls of all clients by model.
+     * 
+     * @return an unmodifiable view of the latency histograms by model
+     */
+    public static Map<String, LatencyHistogram> getLatencyHistograms() {
+    	return Collections.unmodifiableMap(LATENCIES);
+    }
+
+    /**
+     * Records a call in the latency histogram of the model and as JFR event.
+     * 
+     * @param event the event of the call (begun when the call was sent)
+     * @param start the time the call was sent (see {@link System#nanoTime()})
+     * @param response the HTTP response (null if there is none)
+     * @param success true if the call returned a content
+     */
+    private void record(OpenAICallEvent event, long start, HttpResponse<String> response, boolean success) {
+    	getLatencyHistogram(model).record(System.nanoTime() - start);
+    	event.end();
+    	if (event.shouldCommit()) {
+    		event.model = model;
+    		if (response != null) {
+    			event.status = response.statusCode();
+    			event.responseBytes = (response.body() != null) ? response.body().getBytes(StandardCharsets.UTF_8).length : 0;
+    		}
+    		event.success = success;
+    		event.commit();
+    	}
+    }
+
+    /**
+     * Creates the key of a response in the cache: the user prompt, preceded by the response format and the
+     * system prompt if any (a structured response must not be answered with a plain one and vice versa).
+     * 
+     * @param systemPrompt the system prompt (null for none)
+     * @param userPrompt the user prompt
+     * @param responseFormat the format of the response as JSON (null for plain text)
+     * @return the cache key
+     */
+    private static String createCacheKey(String systemPrompt, String userPrompt, String responseFormat) {
+    	String key = (systemPrompt != null) ? systemPrompt + "\n" + userPrompt : userPrompt;
+    	return (responseFormat != null) ? responseFormat + "\n" + key : key;
+    }
+
+    /**
+     * Returns the cached response for the given user prompt.
+     * 
+     * @param userPrompt the user prompt (null if the response is not cached)
+     * @return the cached response, or null if there is none
+     */
+    private String getCached(String userPrompt) {
+    	return ((cache != null) && (userPrompt != null)) ? cache.get(model, userPrompt) : null;
+    }
+
+    /**
+     * Caches the response for the given user prompt.
+     * 
+     * @param userPrompt the user prompt (null if the response is not cached)
+     * @param content the response to cache
+     */
+    private void putCached(String userPrompt, String content) {
+    	if ((cache != null) && (userPrompt != null) && (content != null)) {
+    		try {
+    			cache.put(model, userPrompt, content);
+    		} catch (Exception e) {
+    			// fail gracefully
+    		}
+    	}
+    }
+
+    /**
+     * Creates the HTTP request asking the OpenAI API with the given system and user prompt.
+     * 
+     * @param systemPrompt the system prompt (null for none)
+     * @param userPrompt the user prompt to ask the OpenAI API with
+     * @param responseFormat the format of the response as JSON (null for plain text)
+     * @param stream true to stream the response
+     * @return the HTTP request
+     * @throws IOException if the request body cannot be written
+     */
+    private HttpRequest createRequest(String systemPrompt, String userPrompt, String responseFormat, boolean stream)
+    		throws IOException {
+        byte[] body = ChatCompletionCodec.writeRequest(model, systemPrompt, userPrompt, stream, responseFormat);
+
+        return HttpRequest.newBuilder()
+            .uri(URI.create(apiUrl))
+            .timeout(settings.getRequestTimeout())
+            .header("Authorization", "Bearer " + apiKey)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+    }
+
+    /**
+     * Creates the handler of the response body: the body as string, or for a streamed response with status 200
+     * the content of the stream up to the stop condition.
+     * 
+     * @param stop the condition to stop streaming the response (null if the response is not streamed)
+     * @return the handler of the response body
+     */
+    private HttpResponse.BodyHandler<String> createBodyHandler(Predicate<CharSequence> stop) {
+    	if (stop == null) {
+    		return HttpResponse.BodyHandlers.ofString();
+    	}
+    	return responseInfo -> (responseInfo.statusCode() == 200) ? new CompletionStreamSubscriber(stop)
+    			: HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Extracts the content of the first choice from the response of the OpenAI API, and the token usage into
+     * the event of the call (see {@link ChatCompletionCodec#readContent(String, OpenAICallEvent)}).
+     * 
+     * @param response the HTTP response
+     * @param event the event of the call
+     * @param streamed true if the response was streamed, i.e., the body is the content
+     * @return the content of the response
+     * @throws IOException if the response body is not valid JSON
+     * @throws OpenAIException if the response is an error or has no content
+     */
+    private String extractContent(HttpResponse<String> response, OpenAICallEvent event, boolean streamed)
+    		throws IOException {
+    	if (response.statusCode() != 200) {
+    		throw new OpenAIException(response.body());
+    	}
+    	if (streamed) {
+    		return response.body();
+    	}
+    	return ChatCompletionCodec.readContent(response.body(), event);
+    }
+
+    /**
+     * Wraps an exception into an {@code OpenAIException}, using the response body as message if available.
+     * 
+     * @param e the exception to wrap
+     * @param response the HTTP response (may be null)
+     * @return the OpenAI exception
+     */
+    private OpenAIException toOpenAIException(Throwable e, HttpResponse<String> response) {
+    	if (e instanceof OpenAIException) {
+    		return (OpenAIException) e;
+    	}
+    	String message = e.getMessage();
+    	if (response != null) {
+    		message = response.body();
+    	}
+    	return new OpenAIException(message, e);
     }
     
     /**
@@ -148,6 +716,16 @@ public class OpenAIClient {
 		public OpenAIException(String message) {
     		super(message);
     	}
+
+		/**
+		 * Constructs a new OpenAIException with the given message and cause.
+		 * 
+		 * @param message the message to throw
+		 * @param cause the cause of the exception
+		 */
+		public OpenAIException(String message, Throwable cause) {
+    		super(message, cause);
+    	}
     	
     }
 	
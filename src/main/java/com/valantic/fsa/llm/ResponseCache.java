@@ -0,0 +1,637 @@
+package com.valantic.fsa.llm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent cache of OpenAI API responses keyed by a hash of model and prompt. The responses are stored in an
+ * append-only log file, the keys in a memory-mapped hash index pointing into the log. Both files survive
+ * restarts, hence repeated prompts are answered from disk without a network round-trip.
+ * <p>
+ * The cache is bounded by the size of the log: if the log exceeds the maximum size, it is compacted to the
+ * most recent, unexpired entries filling half of the maximum size. Entries older than the time to live are
+ * treated as missing.
+ *
+ * @author M. Frick
+ */
+public class ResponseCache implements Closeable {
+
+	/**
+	 * The default maximum size of the log in bytes.
+	 */
+	public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+	/**
+	 * The default time to live of an entry.
+	 */
+	public static final Duration DEFAULT_TTL = Duration.ofDays(7);
+
+	/**
+	 * The name of the log file.
+	 */
+	private static final String LOG_FILE = "responses.log";
+
+	/**
+	 * The name of the index file.
+	 */
+	private static final String INDEX_FILE = "responses.idx";
+
+	/**
+	 * Magic number identifying an index file.
+	 */
+	private static final int INDEX_MAGIC = 0x52434958;
+
+	/**
+	 * The size of the index header (magic, capacity, count, size of the indexed log).
+	 */
+	private static final int HEADER_SIZE = 24;
+
+	/**
+	 * The size of an index slot (first 8 bytes of the key, offset of the record in the log plus one).
+	 */
+	private static final int SLOT_SIZE = 16;
+
+	/**
+	 * The initial number of index slots.
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * The size of a key (SHA-256).
+	 */
+	private static final int KEY_SIZE = 32;
+
+	/**
+	 * The size of a record header in the log (key, timestamp, length of the response).
+	 */
+	private static final int RECORD_HEADER_SIZE = KEY_SIZE + 8 + 4;
+
+	/**
+	 * The directory of the cache files.
+	 */
+	private final Path directory;
+
+	/**
+	 * The maximum size of the log in bytes.
+	 */
+	private final long maxBytes;
+
+	/**
+	 * The time to live of an entry in milliseconds.
+	 */
+	private final long ttlMillis;
+
+	/**
+	 * The number of cache hits.
+	 */
+	private final AtomicLong hits = new AtomicLong();
+
+	/**
+	 * The number of cache misses.
+	 */
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * The log file.
+	 */
+	private FileChannel log;
+
+	/**
+	 * The size of the log in bytes.
+	 */
+	private long logSize;
+
+	/**
+	 * The index file.
+	 */
+	private FileChannel indexChannel;
+
+	/**
+	 * The memory-mapped index.
+	 */
+	private MappedByteBuffer index;
+
+	/**
+	 * The number of index slots (power of two).
+	 */
+	private int capacity;
+
+	/**
+	 * The number of entries in the index.
+	 */
+	private int count;
+
+	/**
+	 * Constructs a new {@code ResponseCache} in the given directory with the default size and time to live.
+	 *
+	 * @param directory the directory of the cache files
+	 */
+	public ResponseCache(Path directory) {
+		this(directory, DEFAULT_MAX_BYTES, DEFAULT_TTL);
+	}
+
+	/**
+	 * Constructs a new {@code ResponseCache} in the given directory. Existing cache files are reopened.
+	 *
+	 * @param directory the directory of the cache files
+	 * @param maxBytes the maximum size of the log in bytes
+	 * @param ttl the time to live of an entry
+	 */
+	public ResponseCache(Path directory, long maxBytes, Duration ttl) {
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		this.ttlMillis = ttl.toMillis();
+		try {
+			Files.createDirectories(directory);
+			this.open();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the cached response for the given model and prompt.
+	 *
+	 * @param model the model asked
+	 * @param prompt the prompt asked
+	 * @return the cached response, or null if there is no (unexpired) response
+	 */
+	public synchronized String get(String model, String prompt) {
+		byte[] key = key(model, prompt);
+		try {
+			int slot = this.findSlot(key);
+			long offset = index.getLong(slotPosition(slot) + 8) - 1;
+			if (offset >= 0) {
+				Record record = this.readRecord(offset);
+				if (!this.isExpired(record)) {
+					hits.incrementAndGet();
+					return record.response;
+				}
+			}
+		} catch (IOException e) {
+			// fail gracefully
+		}
+		misses.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Caches the response for the given model and prompt.
+	 *
+	 * @param model the model asked
+	 * @param prompt the prompt asked
+	 * @param response the response to cache
+	 */
+	public synchronized void put(String model, String prompt, String response) {
+		byte[] key = key(model, prompt);
+		try {
+			long offset = this.append(key, System.currentTimeMillis(), response);
+			this.index(key, offset);
+			if (logSize > maxBytes) {
+				this.compact();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the number of cache hits.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of cache misses.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns the number of entries in the cache (including expired entries not yet compacted).
+	 *
+	 * @return the number of entries
+	 */
+	public synchronized int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the size of the log in bytes.
+	 *
+	 * @return the size of the log
+	 */
+	public synchronized long getLogSize() {
+		return logSize;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		index.force();
+		indexChannel.close();
+		log.force(false);
+		log.close();
+	}
+
+	/**
+	 * Opens the cache files. The index is rebuilt from the log if it is missing or does not match the log,
+	 * e.g., after a crash.
+	 *
+	 * @throws IOException if the files cannot be opened
+	 */
+	private void open() throws IOException {
+		log = FileChannel.open(directory.resolve(LOG_FILE),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		logSize = log.size();
+
+		Path indexFile = directory.resolve(INDEX_FILE);
+		if (this.isValidIndex(indexFile)) {
+			this.mapIndex(indexFile, -1);
+			return;
+		}
+		this.rebuildIndex(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Checks if the index file exists and matches the log.
+	 *
+	 * @param indexFile the index file
+	 * @return true if the index can be used, false if it must be rebuilt
+	 * @throws IOException if the index file cannot be read
+	 */
+	private boolean isValidIndex(Path indexFile) throws IOException {
+		if (!Files.exists(indexFile) || (Files.size(indexFile) < HEADER_SIZE)) {
+			return false;
+		}
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+			channel.read(header, 0);
+		}
+		int indexCapacity = header.getInt(4);
+		return (header.getInt(0) == INDEX_MAGIC) && (indexCapacity > 0) && (Integer.bitCount(indexCapacity) == 1)
+				&& (header.getLong(16) == logSize)
+				&& (Files.size(indexFile) == HEADER_SIZE + (long) indexCapacity * SLOT_SIZE);
+	}
+
+	/**
+	 * Maps the index file.
+	 *
+	 * @param indexFile the index file
+	 * @param newCapacity the capacity of a new index, or -1 to map an existing index
+	 * @throws IOException if the file cannot be mapped
+	 */
+	private void mapIndex(Path indexFile, int newCapacity) throws IOException {
+		indexChannel = FileChannel.open(indexFile,
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		if (newCapacity < 0) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			indexChannel.read(header, 0);
+			capacity = header.getInt(4);
+			count = header.getInt(8);
+		} else {
+			indexChannel.truncate(0);
+			capacity = newCapacity;
+			count = 0;
+		}
+		index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+		if (newCapacity >= 0) {
+			index.putInt(0, INDEX_MAGIC);
+			index.putInt(4, capacity);
+			index.putInt(8, 0);
+			index.putLong(16, 0);
+		}
+	}
+
+	/**
+	 * Rebuilds the index from the log. A truncated record at the end of the log is discarded.
+	 *
+	 * @param newCapacity the capacity of the new index
+	 * @throws IOException if the files cannot be read or written
+	 */
+	private void rebuildIndex(int newCapacity) throws IOException {
+		this.mapIndex(directory.resolve(INDEX_FILE), newCapacity);
+		long offset = 0;
+		while (offset < logSize) {
+			Record record;
+			try {
+				record = this.readRecord(offset);
+			} catch (IOException e) {
+				break;
+			}
+			this.index(record.key, offset);
+			offset += record.size();
+		}
+		if (offset < logSize) {
+			log.truncate(offset);
+			logSize = offset;
+		}
+		index.putLong(16, logSize);
+	}
+
+	/**
+	 * Grows the index to the given capacity, keeping its entries.
+	 *
+	 * @param newCapacity the capacity of the new index
+	 * @throws IOException if the index cannot be written
+	 */
+	private void growIndex(int newCapacity) throws IOException {
+		long[] slots = new long[capacity * 2];
+		for (int slot = 0; slot < capacity; slot++) {
+			slots[slot * 2] = index.getLong(slotPosition(slot));
+			slots[slot * 2 + 1] = index.getLong(slotPosition(slot) + 8);
+		}
+		indexChannel.close();
+		this.mapIndex(directory.resolve(INDEX_FILE), newCapacity);
+		for (int i = 0; i < slots.length; i += 2) {
+			if (slots[i + 1] != 0) {
+				int slot = this.probe(slots[i]);
+				while (index.getLong(slotPosition(slot) + 8) != 0) {
+					slot = (slot + 1) & (capacity - 1);
+				}
+				index.putLong(slotPosition(slot), slots[i]);
+				index.putLong(slotPosition(slot) + 8, slots[i + 1]);
+				count++;
+			}
+		}
+		index.putInt(8, count);
+		index.putLong(16, logSize);
+	}
+
+	/**
+	 * Compacts the log to the most recent, unexpired entries filling half of the maximum size.
+	 *
+	 * @throws IOException if the files cannot be read or written
+	 */
+	private void compact() throws IOException {
+		List<Record> records = new ArrayList<>();
+		for (int slot = 0; slot < capacity; slot++) {
+			long offset = index.getLong(slotPosition(slot) + 8) - 1;
+			if (offset >= 0) {
+				Record record = this.readRecord(offset);
+				if (!this.isExpired(record)) {
+					records.add(record);
+				}
+			}
+		}
+		records.sort(Comparator.comparingLong((Record record) -> record.timestamp).reversed());
+		int kept = 0;
+		long keptSize = 0;
+		while ((kept < records.size()) && (keptSize + records.get(kept).size() <= maxBytes / 2)) {
+			keptSize += records.get(kept).size();
+			kept++;
+		}
+
+		Path compacted = directory.resolve(LOG_FILE + ".tmp");
+		try (FileChannel out = FileChannel.open(compacted,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			// oldest first, i.e., the log stays in chronological order
+			for (int i = kept - 1; i >= 0; i--) {
+				ByteBuffer buffer = records.get(i).toBuffer();
+				while (buffer.hasRemaining()) {
+					out.write(buffer);
+				}
+			}
+			out.force(false);
+		}
+		log.close();
+		indexChannel.close();
+		Files.move(compacted, directory.resolve(LOG_FILE), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		logSize = log.size();
+		this.rebuildIndex(capacity);
+	}
+
+	/**
+	 * Appends a record to the log.
+	 *
+	 * @param key the key of the record
+	 * @param timestamp the timestamp of the record
+	 * @param response the response of the record
+	 * @return the offset of the record in the log
+	 * @throws IOException if the log cannot be written
+	 */
+	private long append(byte[] key, long timestamp, String response) throws IOException {
+		Record record = new Record(key, timestamp, response);
+		long offset = logSize;
+		ByteBuffer buffer = record.toBuffer();
+		while (buffer.hasRemaining()) {
+			logSize += log.write(buffer, logSize);
+		}
+		return offset;
+	}
+
+	/**
+	 * Reads the record at the given offset from the log.
+	 *
+	 * @param offset the offset of the record
+	 * @return the record
+	 * @throws IOException if the record cannot be read (e.g., it is truncated)
+	 */
+	private Record readRecord(long offset) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+		this.readFully(header, offset);
+		byte[] key = new byte[KEY_SIZE];
+		header.get(key);
+		long timestamp = header.getLong();
+		int length = header.getInt();
+		if ((length < 0) || (offset + RECORD_HEADER_SIZE + length > logSize)) {
+			throw new IOException("Truncated record at offset " + offset);
+		}
+		ByteBuffer body = ByteBuffer.allocate(length);
+		this.readFully(body, offset + RECORD_HEADER_SIZE);
+		return new Record(key, timestamp, new String(body.array(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Reads the log into the buffer until the buffer is full.
+	 *
+	 * @param buffer the buffer to read into
+	 * @param position the position in the log
+	 * @throws IOException if the log ends before the buffer is full
+	 */
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = log.read(buffer, position + buffer.position());
+			if (read < 0) {
+				throw new IOException("Unexpected end of log at offset " + position);
+			}
+		}
+		buffer.flip();
+	}
+
+	/**
+	 * Adds the key with the given log offset to the index (replacing an existing entry of the key).
+	 *
+	 * @param key the key
+	 * @param offset the offset of the record in the log
+	 * @throws IOException if the log or index cannot be accessed
+	 */
+	private void index(byte[] key, long offset) throws IOException {
+		int slot = this.findSlot(key);
+		if (index.getLong(slotPosition(slot) + 8) == 0) {
+			count++;
+			index.putInt(8, count);
+		}
+		index.putLong(slotPosition(slot), ByteBuffer.wrap(key).getLong());
+		index.putLong(slotPosition(slot) + 8, offset + 1);
+		index.putLong(16, logSize);
+		if (count * 4L > capacity * 3L) {
+			this.growIndex(capacity * 2);
+		}
+	}
+
+	/**
+	 * Finds the slot of the key, i.e., the slot containing the key or the empty slot to insert the key at.
+	 *
+	 * @param key the key
+	 * @return the slot of the key
+	 * @throws IOException if the log cannot be read
+	 */
+	private int findSlot(byte[] key) throws IOException {
+		long prefix = ByteBuffer.wrap(key).getLong();
+		int slot = this.probe(prefix);
+		while (true) {
+			long offset = index.getLong(slotPosition(slot) + 8) - 1;
+			if ((offset < 0) || ((index.getLong(slotPosition(slot)) == prefix)
+					&& Arrays.equals(this.readRecord(offset).key, key))) {
+				return slot;
+			}
+			slot = (slot + 1) & (capacity - 1);
+		}
+	}
+
+	/**
+	 * Returns the first slot to probe for a key.
+	 *
+	 * @param prefix the first 8 bytes of the key
+	 * @return the first slot
+	 */
+	private int probe(long prefix) {
+		return (int) (prefix ^ (prefix >>> 32)) & (capacity - 1);
+	}
+
+	/**
+	 * Checks if the record is expired.
+	 *
+	 * @param record the record to check
+	 * @return true if the record is expired, false otherwise
+	 */
+	private boolean isExpired(Record record) {
+		return System.currentTimeMillis() - record.timestamp > ttlMillis;
+	}
+
+	/**
+	 * Returns the position of a slot in the index.
+	 *
+	 * @param slot the slot
+	 * @return the position of the slot
+	 */
+	private static int slotPosition(int slot) {
+		return HEADER_SIZE + slot * SLOT_SIZE;
+	}
+
+	/**
+	 * Computes the key of a model and prompt.
+	 *
+	 * @param model the model
+	 * @param prompt the prompt
+	 * @return the SHA-256 hash of model and prompt
+	 */
+	private static byte[] key(String model, String prompt) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(model.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			return digest.digest(prompt.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * A record of the log.
+	 */
+	private static class Record {
+
+		/**
+		 * The key of the record.
+		 */
+		private final byte[] key;
+
+		/**
+		 * The time the record was written (in milliseconds).
+		 */
+		private final long timestamp;
+
+		/**
+		 * The cached response.
+		 */
+		private final String response;
+
+		/**
+		 * The encoded response.
+		 */
+		private final byte[] bytes;
+
+		/**
+		 * Constructs a new {@code Record}.
+		 *
+		 * @param key the key of the record
+		 * @param timestamp the time the record was written
+		 * @param response the cached response
+		 */
+		Record(byte[] key, long timestamp, String response) {
+			this.key = key;
+			this.timestamp = timestamp;
+			this.response = response;
+			this.bytes = response.getBytes(StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * Returns the size of the record in the log.
+		 *
+		 * @return the size in bytes
+		 */
+		long size() {
+			return RECORD_HEADER_SIZE + bytes.length;
+		}
+
+		/**
+		 * Encodes the record.
+		 *
+		 * @return a buffer containing the encoded record
+		 */
+		ByteBuffer toBuffer() {
+			ByteBuffer buffer = ByteBuffer.allocate((int) this.size());
+			buffer.put(key).putLong(timestamp).putInt(bytes.length).put(bytes);
+			buffer.flip();
+			return buffer;
+		}
+
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.valantic.fsa.llm;
+
+/**
+ * Estimates the number of tokens of prompts locally, i.e., without a tokenizer or a call of the API. The estimate
+ * follows how byte pair encodings split text: a word costs about one token per four letters (more if it contains
+ * umlauts or other non-ASCII letters), numbers one token per three digits, punctuation one token per character,
+ * and a single space is merged into the following word. For German text the estimate errs on the high side.
+ *
+ * @author M. Frick
+ */
+public final class TokenEstimator {
+
+	/**
+	 * The tokens framing each message of a chat (role and delimiters).
+	 */
+	public static final int TOKENS_PER_MESSAGE = 4;
+
+	/**
+	 * The tokens priming the reply of a chat.
+	 */
+	public static final int TOKENS_PER_REPLY = 3;
+
+	private TokenEstimator() {
+	}
+
+	/**
+	 * Estimates the number of tokens of a text.
+	 *
+	 * @param text the text
+	 * @return the estimated number of tokens
+	 */
+	public static int estimate(CharSequence text) {
+		int tokens = 0;
+		int length = text.length();
+		int i = 0;
+		while (i < length) {
+			char c = text.charAt(i);
+			int start = i;
+			if (Character.isLetter(c)) {
+				boolean ascii = true;
+				while ((i < length) && Character.isLetter(text.charAt(i))) {
+					ascii &= text.charAt(i) < 0x80;
+					i++;
+				}
+				tokens += (i - start + 3) / 4 + (ascii ? 0 : 1);
+			} else if (Character.isDigit(c)) {
+				while ((i < length) && Character.isDigit(text.charAt(i))) {
+					i++;
+				}
+				tokens += (i - start + 2) / 3;
+			} else if (Character.isWhitespace(c)) {
+				boolean lineBreak = false;
+				while ((i < length) && Character.isWhitespace(text.charAt(i))) {
+					lineBreak |= text.charAt(i) == '\n';
+					i++;
+				}
+				if (lineBreak || (i - start > 1)) {
+					// a single space is part of the next word
+					tokens++;
+				}
+			} else {
+				tokens += (c < 0x80) ? 1 : 2;
+				i++;
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * Estimates the number of prompt tokens of a chat with a system and a user message.
+	 *
+	 * @param systemPrompt the system prompt (null for none)
+	 * @param userPrompt the user prompt
+	 * @return the estimated number of prompt tokens
+	 */
+	public static int estimate(String systemPrompt, String userPrompt) {
+		int tokens = TOKENS_PER_REPLY + TOKENS_PER_MESSAGE + estimate(userPrompt);
+		if (systemPrompt != null) {
+			tokens += TOKENS_PER_MESSAGE + estimate(systemPrompt);
+		}
+		return tokens;
+	}
+
+}
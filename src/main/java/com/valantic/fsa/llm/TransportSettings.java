@@ -0,0 +1,237 @@
+package com.valantic.fsa.llm;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The settings of the HTTP transport of the {@link OpenAIClient}: timeouts, retries and the number of threads
+ * handling responses. Calls answered with status 429 or 5xx, or failing with an I/O error (including a timeout),
+ * are retried with jittered exponential backoff. A Retry-After header of the response overrides the backoff,
+ * capped at the maximum backoff.
+ *
+ * @author M. Frick
+ */
+public class TransportSettings {
+
+	/**
+	 * The default timeout for connecting to the API.
+	 */
+	public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+	/**
+	 * The default timeout for a single request to the API.
+	 */
+	public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+	/**
+	 * The default maximum number of retries of a call.
+	 */
+	public static final int DEFAULT_MAX_RETRIES = 3;
+
+	/**
+	 * The default backoff before the first retry.
+	 */
+	public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(500);
+
+	/**
+	 * The default maximum backoff before a retry.
+	 */
+	public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(30);
+
+	/**
+	 * The timeout for connecting to the API.
+	 */
+	private Duration connectTimeout;
+
+	/**
+	 * The timeout for a single request to the API.
+	 */
+	private Duration requestTimeout;
+
+	/**
+	 * The maximum number of retries of a call (0 to not retry).
+	 */
+	private int maxRetries;
+
+	/**
+	 * The backoff before the first retry, doubled for each further retry.
+	 */
+	private Duration initialBackoff;
+
+	/**
+	 * The maximum backoff before a retry.
+	 */
+	private Duration maxBackoff;
+
+	/**
+	 * The number of threads handling responses.
+	 */
+	private int threads;
+
+	/**
+	 * Constructs new transport settings with the default values.
+	 */
+	public TransportSettings() {
+		this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT);
+	}
+
+	/**
+	 * Constructs new transport settings with the given timeouts.
+	 *
+	 * @param connectTimeout the timeout for connecting to the API
+	 * @param requestTimeout the timeout for a single request to the API
+	 */
+	public TransportSettings(Duration connectTimeout, Duration requestTimeout) {
+		this(connectTimeout, requestTimeout, DEFAULT_MAX_RETRIES, DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF);
+	}
+
+	/**
+	 * Constructs new transport settings with the given timeouts and retries.
+	 *
+	 * @param connectTimeout the timeout for connecting to the API
+	 * @param requestTimeout the timeout for a single request to the API
+	 * @param maxRetries the maximum number of retries of a call (0 to not retry)
+	 * @param initialBackoff the backoff before the first retry
+	 * @param maxBackoff the maximum backoff before a retry
+	 */
+	public TransportSettings(Duration connectTimeout, Duration requestTimeout, int maxRetries, Duration initialBackoff,
+			Duration maxBackoff) {
+		this(connectTimeout, requestTimeout, maxRetries, initialBackoff, maxBackoff,
+				Math.max(2, Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Constructs new transport settings with the given timeouts, retries and number of threads.
+	 *
+	 * @param connectTimeout the timeout for connecting to the API
+	 * @param requestTimeout the timeout for a single request to the API
+	 * @param maxRetries the maximum number of retries of a call (0 to not retry)
+	 * @param initialBackoff the backoff before the first retry
+	 * @param maxBackoff the maximum backoff before a retry
+	 * @param threads the number of threads handling responses
+	 */
+	public TransportSettings(Duration connectTimeout, Duration requestTimeout, int maxRetries, Duration initialBackoff,
+			Duration maxBackoff, int threads) {
+		if (connectTimeout.isNegative() || connectTimeout.isZero() || requestTimeout.isNegative()
+				|| requestTimeout.isZero()) {
+			throw new IllegalArgumentException("Timeouts must be positive");
+		}
+		if ((maxRetries < 0) || initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+			throw new IllegalArgumentException("Invalid retries: " + maxRetries + ", " + initialBackoff + ", " + maxBackoff);
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("Threads must be positive: " + threads);
+		}
+		this.connectTimeout = connectTimeout;
+		this.requestTimeout = requestTimeout;
+		this.maxRetries = maxRetries;
+		this.initialBackoff = initialBackoff;
+		this.maxBackoff = maxBackoff;
+		this.threads = threads;
+	}
+
+	/**
+	 * Returns the timeout for connecting to the API.
+	 *
+	 * @return the connect timeout
+	 */
+	public Duration getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	/**
+	 * Returns the timeout for a single request to the API.
+	 *
+	 * @return the request timeout
+	 */
+	public Duration getRequestTimeout() {
+		return requestTimeout;
+	}
+
+	/**
+	 * Returns the maximum number of retries of a call.
+	 *
+	 * @return the maximum number of retries (0 if calls are not retried)
+	 */
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	/**
+	 * Returns the backoff before the first retry.
+	 *
+	 * @return the initial backoff
+	 */
+	public Duration getInitialBackoff() {
+		return initialBackoff;
+	}
+
+	/**
+	 * Returns the maximum backoff before a retry.
+	 *
+	 * @return the maximum backoff
+	 */
+	public Duration getMaxBackoff() {
+		return maxBackoff;
+	}
+
+	/**
+	 * Returns the number of threads handling responses.
+	 *
+	 * @return the number of threads
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Returns true if a response with the given status should be retried, i.e., the status is 429 (too many
+	 * requests) or 5xx (server error).
+	 *
+	 * @param status the HTTP status
+	 * @return true if the response should be retried
+	 */
+	public boolean isRetryable(int status) {
+		return (status == 429) || (status >= 500);
+	}
+
+	/**
+	 * Returns the backoff before the given retry: a random duration between zero and the initial backoff doubled
+	 * for each previous retry ("full jitter"), capped at the maximum backoff. If the server asked to retry after a
+	 * given number of seconds or date (see the Retry-After header), that duration is used instead, also capped at
+	 * the maximum backoff.
+	 *
+	 * @param retry the number of the retry (starting with 0)
+	 * @param retryAfter the value of the Retry-After header (null if there is none)
+	 * @return the backoff in milliseconds
+	 */
+	public long getBackoffMillis(int retry, String retryAfter) {
+		long max = maxBackoff.toMillis();
+		if (retryAfter != null) {
+			try {
+				return Math.min(max, Math.max(0, Long.parseLong(retryAfter.trim()) * 1000));
+			} catch (NumberFormatException e) {
+				// fail gracefully
+			}
+			try {
+				ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+				return Math.min(max, Math.max(0, Duration.between(ZonedDateTime.now(), date).toMillis()));
+			} catch (DateTimeParseException e) {
+				// fail gracefully
+			}
+		}
+		long cap = Math.min(max, initialBackoff.toMillis() << Math.min(retry, 30));
+		return ThreadLocalRandom.current().nextLong(cap + 1);
+	}
+
+	@Override
+	public String toString() {
+		return "TransportSettings [connectTimeout=" + connectTimeout + ", requestTimeout=" + requestTimeout
+				+ ", maxRetries=" + maxRetries + ", initialBackoff=" + initialBackoff + ", maxBackoff=" + maxBackoff
+				+ ", threads=" + threads + "]";
+	}
+
+}
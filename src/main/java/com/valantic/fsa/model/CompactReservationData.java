@@ -0,0 +1,182 @@
+package com.valantic.fsa.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Compact implementation of the {@code ReservationData} interface packing the date as epoch day, the time as
+ * minute of day and the number of people into primitive fields. The date and time objects are only created
+ * when they are requested, so a compact reservation data takes about a third of the heap of a
+ * {@link DefaultReservationData} (not counting the name).
+ * 
+ * @author M. Frick
+ */
+public class CompactReservationData implements ReservationData {
+
+	/**
+	 * The packed value of a missing date.
+	 */
+	static final int NO_DATE = Integer.MIN_VALUE;
+
+	/**
+	 * The packed value of a missing time.
+	 */
+	static final short NO_TIME = -1;
+
+	/**
+	 * The name of the person making the reservation.
+	 */
+	private final String name;
+
+	/**
+	 * The date of the reservation as epoch day (see {@link #NO_DATE}).
+	 */
+	private final int epochDay;
+
+	/**
+	 * The time of the reservation as minute of day (see {@link #NO_TIME}).
+	 */
+	private final short minuteOfDay;
+
+	/**
+	 * The number of people for the reservation.
+	 */
+	private final short numberOfPeople;
+
+	/**
+	 * Constructs a new {@code CompactReservationData} with the specified name, date, time, and number of
+	 * people.
+	 * 
+	 * @param name the name of the person making the reservation
+	 * @param date the date of the reservation
+	 * @param time the time of the reservation (without seconds)
+	 * @param numberOfPeople the number of people for the reservation (-1 to {@code Short.MAX_VALUE})
+	 * @throws IllegalArgumentException if a value cannot be packed (see {@link #isPackable(ReservationData)})
+	 */
+	public CompactReservationData(String name, LocalDate date, LocalTime time, int numberOfPeople) {
+		if (!isPackable(date, time, numberOfPeople)) {
+			throw new IllegalArgumentException("Cannot pack reservation data: " + date + ", " + time + ", "
+					+ numberOfPeople);
+		}
+		this.name = name;
+		this.epochDay = packDate(date);
+		this.minuteOfDay = packTime(time);
+		this.numberOfPeople = (short) numberOfPeople;
+	}
+
+	/**
+	 * Returns a compact copy of the reservation data, or the reservation data itself if it cannot be packed.
+	 * 
+	 * @param data the reservation data
+	 * @return the compact reservation data
+	 */
+	public static ReservationData of(ReservationData data) {
+		if ((data instanceof CompactReservationData) || !isPackable(data)) {
+			return data;
+		}
+		return new CompactReservationData(data.getName(), data.getDate(), data.getTime(), data.getNumberOfPeople());
+	}
+
+	/**
+	 * Checks if the reservation data can be packed, i.e., its date lies within the range of an epoch day
+	 * {@code int}, its time has no seconds and its number of people lies between -1 and
+	 * {@code Short.MAX_VALUE}.
+	 * 
+	 * @param data the reservation data to check
+	 * @return true if the reservation data can be packed, false otherwise
+	 */
+	public static boolean isPackable(ReservationData data) {
+		return isPackable(data.getDate(), data.getTime(), data.getNumberOfPeople());
+	}
+
+	/**
+	 * Checks if the values can be packed.
+	 * 
+	 * @param date the date of the reservation
+	 * @param time the time of the reservation
+	 * @param numberOfPeople the number of people for the reservation
+	 * @return true if the values can be packed, false otherwise
+	 */
+	static boolean isPackable(LocalDate date, LocalTime time, int numberOfPeople) {
+		if ((date != null) && ((date.toEpochDay() <= NO_DATE) || (date.toEpochDay() > Integer.MAX_VALUE))) {
+			return false;
+		}
+		if ((time != null) && ((time.getSecond() != 0) || (time.getNano() != 0))) {
+			return false;
+		}
+		return (numberOfPeople >= -1) && (numberOfPeople <= Short.MAX_VALUE);
+	}
+
+	/**
+	 * Packs a date into its epoch day.
+	 * 
+	 * @param date the date to pack
+	 * @return the epoch day, or {@link #NO_DATE} if the date is null
+	 */
+	static int packDate(LocalDate date) {
+		return (date != null) ? (int) date.toEpochDay() : NO_DATE;
+	}
+
+	/**
+	 * Unpacks a date from its epoch day.
+	 * 
+	 * @param epochDay the epoch day
+	 * @return the date, or null if the epoch day is {@link #NO_DATE}
+	 */
+	static LocalDate unpackDate(int epochDay) {
+		return (epochDay != NO_DATE) ? LocalDate.ofEpochDay(epochDay) : null;
+	}
+
+	/**
+	 * Packs a time into its minute of day.
+	 * 
+	 * @param time the time to pack
+	 * @return the minute of day, or {@link #NO_TIME} if the time is null
+	 */
+	static short packTime(LocalTime time) {
+		return (time != null) ? (short) (time.getHour() * 60 + time.getMinute()) : NO_TIME;
+	}
+
+	/**
+	 * Unpacks a time from its minute of day.
+	 * 
+	 * @param minuteOfDay the minute of day
+	 * @return the time, or null if the minute of day is {@link #NO_TIME}
+	 */
+	static LocalTime unpackTime(short minuteOfDay) {
+		return (minuteOfDay != NO_TIME) ? LocalTime.of(minuteOfDay / 60, minuteOfDay % 60) : null;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public LocalDate getDate() {
+		return unpackDate(epochDay);
+	}
+
+	@Override
+	public LocalTime getTime() {
+		return unpackTime(minuteOfDay);
+	}
+
+	@Override
+	public int getNumberOfPeople() {
+		return numberOfPeople;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("CompactReservationData[")
+			.append("name='").append(this.getName())
+			.append("', date=").append(this.getDate())
+			.append(", time=").append(this.getTime())
+			.append(", numberOfPeople=").append(this.getNumberOfPeople())
+			.append("]");
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.valantic.fsa.model;
+
+/**
+ * Empty reservation data standing in for a request the parser failed on, e.g., in the results of
+ * {@code ReservationParser.parseAll}. Unlike plain empty data, which is the result of a text without anything
+ * to extract, it carries the exception the parser failed with.
+ *
+ * @author M. Frick
+ */
+public class FailedReservationData extends DefaultReservationData {
+
+	/**
+	 * The exception the parser failed with.
+	 */
+	private final Throwable cause;
+
+	/**
+	 * Constructs a new {@code FailedReservationData} with the specified cause.
+	 *
+	 * @param cause the exception the parser failed with
+	 */
+	public FailedReservationData(Throwable cause) {
+		this.cause = cause;
+	}
+
+	/**
+	 * Returns the exception the parser failed with.
+	 *
+	 * @return the cause of the failure
+	 */
+	public Throwable getCause() {
+		return cause;
+	}
+
+	/**
+	 * Returns true if the given reservation data stands in for a failed request.
+	 *
+	 * @param data the reservation data
+	 * @return true if parsing the request failed
+	 */
+	public static boolean isFailure(ReservationData data) {
+		return data instanceof FailedReservationData;
+	}
+
+	@Override
+	public String toString() {
+		return "FailedReservationData[cause=" + cause + "]";
+	}
+
+}
@@ -0,0 +1,296 @@
+package com.valantic.fsa.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar store of many reservation data, keeping each field in a primitive array (the date as epoch day, the
+ * time as minute of day, the number of people as {@code short}) and each distinct name only once in a name
+ * pool. A row takes 12 bytes plus its share of the name pool, instead of about 80 bytes plus the name for a
+ * {@link DefaultReservationData}.
+ * <p>
+ * The batch is a list of reservation data: {@link #get(int)} returns a view of a row that unpacks its fields
+ * only when they are requested. Reservation data that cannot be packed (see
+ * {@link CompactReservationData#isPackable(ReservationData)}) is kept as it is. A batch is not thread-safe.
+ * 
+ * @author M. Frick
+ */
+public class ReservationDataBatch extends AbstractList<ReservationData> {
+
+	/**
+	 * The default initial capacity.
+	 */
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * The packed number of people of a row kept in {@link #unpackable}.
+	 */
+	private static final short UNPACKABLE = Short.MIN_VALUE;
+
+	/**
+	 * The name ids of the rows, i.e., the indices into {@link #names} (-1 if there is no name).
+	 */
+	private int[] nameIds;
+
+	/**
+	 * The dates of the rows as epoch days.
+	 */
+	private int[] epochDays;
+
+	/**
+	 * The times of the rows as minutes of day.
+	 */
+	private short[] minutesOfDay;
+
+	/**
+	 * The numbers of people of the rows.
+	 */
+	private short[] numbersOfPeople;
+
+	/**
+	 * The number of rows.
+	 */
+	private int size;
+
+	/**
+	 * The pool of distinct names.
+	 */
+	private final List<String> names = new ArrayList<>();
+
+	/**
+	 * The ids of the names in the pool.
+	 */
+	private final Map<String, Integer> nameIndex = new HashMap<>();
+
+	/**
+	 * The reservation data that cannot be packed by row.
+	 */
+	private final Map<Integer, ReservationData> unpackable = new HashMap<>();
+
+	/**
+	 * Constructs a new empty {@code ReservationDataBatch}.
+	 */
+	public ReservationDataBatch() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs a new empty {@code ReservationDataBatch} with the given initial capacity.
+	 * 
+	 * @param capacity the initial number of rows
+	 */
+	public ReservationDataBatch(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+		}
+		this.nameIds = new int[capacity];
+		this.epochDays = new int[capacity];
+		this.minutesOfDay = new short[capacity];
+		this.numbersOfPeople = new short[capacity];
+	}
+
+	@Override
+	public boolean add(ReservationData data) {
+		if (size == nameIds.length) {
+			this.grow();
+		}
+		int row = size++;
+		nameIds[row] = this.intern(data.getName());
+		if (CompactReservationData.isPackable(data)) {
+			epochDays[row] = CompactReservationData.packDate(data.getDate());
+			minutesOfDay[row] = CompactReservationData.packTime(data.getTime());
+			numbersOfPeople[row] = (short) data.getNumberOfPeople();
+		} else {
+			epochDays[row] = CompactReservationData.NO_DATE;
+			minutesOfDay[row] = CompactReservationData.NO_TIME;
+			numbersOfPeople[row] = UNPACKABLE;
+			unpackable.put(row, data);
+		}
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public ReservationData get(int row) {
+		this.checkRow(row);
+		return new Row(row);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		size = 0;
+		names.clear();
+		nameIndex.clear();
+		unpackable.clear();
+		modCount++;
+	}
+
+	/**
+	 * Returns the name of a row.
+	 * 
+	 * @param row the index of the row
+	 * @return the name of the row
+	 */
+	public String getName(int row) {
+		this.checkRow(row);
+		return (nameIds[row] >= 0) ? names.get(nameIds[row]) : null;
+	}
+
+	/**
+	 * Returns the date of a row.
+	 * 
+	 * @param row the index of the row
+	 * @return the date of the row
+	 */
+	public LocalDate getDate(int row) {
+		this.checkRow(row);
+		if (numbersOfPeople[row] == UNPACKABLE) {
+			return unpackable.get(row).getDate();
+		}
+		return CompactReservationData.unpackDate(epochDays[row]);
+	}
+
+	/**
+	 * Returns the time of a row.
+	 * 
+	 * @param row the index of the row
+	 * @return the time of the row
+	 */
+	public LocalTime getTime(int row) {
+		this.checkRow(row);
+		if (numbersOfPeople[row] == UNPACKABLE) {
+			return unpackable.get(row).getTime();
+		}
+		return CompactReservationData.unpackTime(minutesOfDay[row]);
+	}
+
+	/**
+	 * Returns the number of people of a row.
+	 * 
+	 * @param row the index of the row
+	 * @return the number of people of the row
+	 */
+	public int getNumberOfPeople(int row) {
+		this.checkRow(row);
+		if (numbersOfPeople[row] == UNPACKABLE) {
+			return unpackable.get(row).getNumberOfPeople();
+		}
+		return numbersOfPeople[row];
+	}
+
+	/**
+	 * Returns the number of distinct names in the batch.
+	 * 
+	 * @return the number of distinct names
+	 */
+	public int getNameCount() {
+		return names.size();
+	}
+
+	/**
+	 * Returns the id of a name in the name pool, adding the name if it is new.
+	 * 
+	 * @param name the name
+	 * @return the id of the name, or -1 if the name is null
+	 */
+	private int intern(String name) {
+		if (name == null) {
+			return -1;
+		}
+		Integer id = nameIndex.get(name);
+		if (id == null) {
+			id = names.size();
+			names.add(name);
+			nameIndex.put(name, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Grows the columns by half of their size.
+	 */
+	private void grow() {
+		int capacity = Math.max(DEFAULT_CAPACITY, nameIds.length + (nameIds.length >> 1));
+		nameIds = Arrays.copyOf(nameIds, capacity);
+		epochDays = Arrays.copyOf(epochDays, capacity);
+		minutesOfDay = Arrays.copyOf(minutesOfDay, capacity);
+		numbersOfPeople = Arrays.copyOf(numbersOfPeople, capacity);
+	}
+
+	/**
+	 * Checks if the row exists.
+	 * 
+	 * @param row the index of the row
+	 * @throws IndexOutOfBoundsException if the row does not exist
+	 */
+	private void checkRow(int row) {
+		if ((row < 0) || (row >= size)) {
+			throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+		}
+	}
+
+	/**
+	 * View of a row of the batch as reservation data.
+	 */
+	private class Row implements ReservationData {
+
+		/**
+		 * The index of the row.
+		 */
+		private final int row;
+
+		/**
+		 * Constructs a new {@code Row}.
+		 * 
+		 * @param row the index of the row
+		 */
+		Row(int row) {
+			this.row = row;
+		}
+
+		@Override
+		public String getName() {
+			return ReservationDataBatch.this.getName(row);
+		}
+
+		@Override
+		public LocalDate getDate() {
+			return ReservationDataBatch.this.getDate(row);
+		}
+
+		@Override
+		public LocalTime getTime() {
+			return ReservationDataBatch.this.getTime(row);
+		}
+
+		@Override
+		public int getNumberOfPeople() {
+			return ReservationDataBatch.this.getNumberOfPeople(row);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append("ReservationDataBatch.Row[")
+				.append("name='").append(this.getName())
+				.append("', date=").append(this.getDate())
+				.append(", time=").append(this.getTime())
+				.append(", numberOfPeople=").append(this.getNumberOfPeople())
+				.append("]");
+			return sb.toString();
+		}
+
+	}
+
+}
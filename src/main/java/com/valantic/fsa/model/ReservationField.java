@@ -0,0 +1,30 @@
+package com.valantic.fsa.model;
+
+/**
+ * Fields of the {@code ReservationData}.
+ * 
+ * @author M. Frick
+ */
+public enum ReservationField {
+
+	/**
+	 * The name of the person making the reservation.
+	 */
+	NAME,
+
+	/**
+	 * The date of the reservation.
+	 */
+	DATE,
+
+	/**
+	 * The time of the reservation.
+	 */
+	TIME,
+
+	/**
+	 * The number of people for the reservation.
+	 */
+	NUMBER_OF_PEOPLE;
+
+}
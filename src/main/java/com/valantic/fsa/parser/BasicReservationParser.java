@@ -1,15 +1,20 @@
 package com.valantic.fsa.parser;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.BitSet;
 import java.util.regex.Matcher;
 
 import com.valantic.fsa.model.DefaultReservationData;
 import com.valantic.fsa.model.ReservationData;
 import com.valantic.fsa.model.ReservationRequest;
 import com.valantic.fsa.util.Formatters;
+import com.valantic.fsa.util.LowerCaseCharSequence;
+import com.valantic.fsa.util.NormalizationContext;
 import com.valantic.fsa.util.ParserUtils;
 import com.valantic.fsa.util.Patterns;
+import com.valantic.fsa.util.TokenType;
 
 /**
  * Basic implementation of the {@code ReservationParser} interface.
@@ -18,16 +23,95 @@ import com.valantic.fsa.util.Patterns;
  */
 public class BasicReservationParser implements ReservationParser {
 
+	/**
+	 * Whether {@link #parse(ReservationRequest)} extracts the fields lazily.
+	 */
+	private final boolean lazy;
+
+	/**
+	 * The listener recording the stages of each parse (null if disabled).
+	 */
+	private final ParserMetrics metrics;
+
+	/**
+	 * Constructs a new {@code BasicReservationParser} extracting all fields up front.
+	 */
+	public BasicReservationParser() {
+		this(false);
+	}
+
+	/**
+	 * Constructs a new {@code BasicReservationParser} extracting all fields up front and recording the timing
+	 * and outcome of each stage.
+	 * 
+	 * @param metrics the listener recording the stages of each parse (null to disable)
+	 */
+	public BasicReservationParser(ParserMetrics metrics) {
+		this(false, metrics);
+	}
+
+	/**
+	 * Constructs a new {@code BasicReservationParser}.
+	 * 
+	 * @param lazy true if {@link #parse(ReservationRequest)} should extract each field only when it is
+	 *            requested (see {@link #parseLazily(ReservationRequest)}), false to extract all fields up front
+	 */
+	public BasicReservationParser(boolean lazy) {
+		this(lazy, null);
+	}
+
+	/**
+	 * Constructs a new {@code BasicReservationParser}.
+	 * 
+	 * @param lazy true if {@link #parse(ReservationRequest)} should extract each field only when it is
+	 *            requested, false to extract all fields up front
+	 * @param metrics the listener recording the stages of each parse extracting all fields up front (null to
+	 *            disable)
+	 */
+	public BasicReservationParser(boolean lazy, ParserMetrics metrics) {
+		this.lazy = lazy;
+		this.metrics = metrics;
+	}
+
     @Override
     public ReservationData parse(ReservationRequest request) {
-        String text = request.getText();
-        
-    	text = text.trim();
+    	if (lazy) {
+    		return this.parseLazily(request);
+    	}
+        return this.parse(request.getText(), request.getTimestamp());
+    }
+
+    /**
+     * Parses a reservation request lazily, i.e., each field of the returned reservation data is only extracted
+     * when its getter is called for the first time. Consumers needing a few fields only (e.g., the date) run
+     * only the extractors of these fields.
+     * 
+     * @param request the reservation request to parse
+     * @return the lazily parsed reservation data
+     */
+    public LazyReservationData parseLazily(ReservationRequest request) {
+    	return new LazyReservationData(this, request.getText(), request.getTimestamp());
+    }
+
+    /**
+     * Parses the text of a reservation request. The text may be any character sequence (e.g., a view of a
+     * memory-mapped file), only the extracted name is copied into a new string. The text is normalized into
+     * the buffers of the {@link NormalizationContext} of the current thread and matched with its matchers.
+     * 
+     * @param text the text of the reservation request
+     * @param timestamp the timestamp of the reservation request
+     * @return the parsed reservation data
+     */
+    public ReservationData parse(CharSequence text, LocalDateTime timestamp) {
+    	if (metrics != null) {
+    		return this.parseAndRecord(text, timestamp);
+    	}
+    	text = ParserUtils.trim(text);
         String name = this.extractName(text);
 
-    	String normalizedText = ParserUtils.normalizeText(text);
+    	CharSequence normalizedText = NormalizationContext.get().normalize(text);
         
-        LocalDate date = this.extractDate(normalizedText, request.getTimestamp().toLocalDate());
+        LocalDate date = this.extractDate(normalizedText, timestamp.toLocalDate());
         
         LocalTime time = this.extractTime(normalizedText);
 
@@ -36,17 +120,70 @@ public class BasicReservationParser implements ReservationParser {
         return new DefaultReservationData(name, date, time, peopleCount);
     }
 
+    /**
+     * Parses the text of a reservation request like {@link #parse(CharSequence, LocalDateTime)}, recording the
+     * timing and outcome of each stage. A stage failing with an exception is recorded as not matched.
+     * 
+     * @param text the text of the reservation request
+     * @param timestamp the timestamp of the reservation request
+     * @return the parsed reservation data
+     */
+    private ReservationData parseAndRecord(CharSequence text, LocalDateTime timestamp) {
+    	ParserMetrics.Stage stage = ParserMetrics.Stage.NAME;
+    	long start = System.nanoTime();
+    	try {
+    		text = ParserUtils.trim(text);
+    		String name = this.extractName(text);
+    		start = this.record(stage, start, name != null);
+
+    		stage = ParserMetrics.Stage.NORMALIZE;
+    		CharSequence normalizedText = NormalizationContext.get().normalize(text);
+    		start = this.record(stage, start, true);
+
+    		stage = ParserMetrics.Stage.DATE;
+    		LocalDate date = this.extractDate(normalizedText, timestamp.toLocalDate());
+    		start = this.record(stage, start, date != null);
+
+    		stage = ParserMetrics.Stage.TIME;
+    		LocalTime time = this.extractTime(normalizedText);
+    		start = this.record(stage, start, time != null);
+
+    		stage = ParserMetrics.Stage.NUMBER_OF_PEOPLE;
+    		int peopleCount = this.extractNumberOfPeople(normalizedText);
+    		this.record(stage, start, peopleCount >= 0);
+
+    		return new DefaultReservationData(name, date, time, peopleCount);
+    	} catch (RuntimeException e) {
+    		this.record(stage, start, false);
+    		throw e;
+    	}
+    }
+
+    /**
+     * Records a stage of a parse.
+     * 
+     * @param stage the stage
+     * @param start the start time of the stage (see {@link System#nanoTime()})
+     * @param matched true if the stage found a value
+     * @return the end time of the stage, i.e., the start time of the next stage
+     */
+    private long record(ParserMetrics.Stage stage, long start, boolean matched) {
+    	long end = System.nanoTime();
+    	metrics.record(stage, end - start, matched);
+    	return end;
+    }
+
     /**
      * Extracts the name of the person making the reservation from the text.
      * 
      * @param text the text to extract the name from
      * @return the name of the person making the reservation
      */
-    protected String extractName(String text) {
+    protected String extractName(CharSequence text) {
     	// match name pattern
-        Matcher namerMatcher = Patterns.NAME.matcher(text.toLowerCase());
+        Matcher namerMatcher = NormalizationContext.get().matcher(Patterns.NAME, new LowerCaseCharSequence(text));
 		if (namerMatcher.find()) {
-			return text.substring(namerMatcher.start(2), namerMatcher.end(2));
+			return text.subSequence(namerMatcher.start(2), namerMatcher.end(2)).toString();
 		}
 		return null;
 	}
@@ -58,11 +195,12 @@ public class BasicReservationParser implements ReservationParser {
      * @param timestamp the timestamp of the reservation request
      * @return the date of the reservation
      */
-    protected LocalDate extractDate(String normalizedText, LocalDate timestamp) {
+    protected LocalDate extractDate(CharSequence normalizedText, LocalDate timestamp) {
     	// match date pattern, e.g., 12.04, 12 May 2024
-    	Matcher particalDateMatcher = Patterns.PARTIAL_DATE.matcher(normalizedText);
+    	NormalizationContext context = NormalizationContext.get();
+    	Matcher particalDateMatcher = context.matcher(Patterns.PARTIAL_DATE, normalizedText);
 		if (particalDateMatcher.find()) {
-			Matcher dateMatcher = Patterns.DATE.matcher(normalizedText);
+			Matcher dateMatcher = context.matcher(Patterns.DATE, normalizedText);
 			if (dateMatcher.find()) {
 				return LocalDate.parse(dateMatcher.group(), Formatters.DATE);
 			}
@@ -70,8 +208,8 @@ public class BasicReservationParser implements ReservationParser {
 		}
 
 		// special cases
-		if (normalizedText.contains("morgen")) {
-			if (normalizedText.contains("uebermorgen")) {
+		if (ParserUtils.contains(normalizedText, "morgen")) {
+			if (ParserUtils.contains(normalizedText, "uebermorgen")) {
 				return timestamp.plusDays(2);
 			}
 			return timestamp.plusDays(1);
@@ -97,24 +235,26 @@ public class BasicReservationParser implements ReservationParser {
      * @param timestemp the timestamp of the reservation request
      * @return the relative date
      */
-    private LocalDate parseRelativeDate(String text, LocalDate timestemp) {
+    private LocalDate parseRelativeDate(CharSequence text, LocalDate timestemp) {
     	// match in x pattern
-    	Matcher inMatcher = Patterns.RELATIVE_DATE_IN.matcher(text);
+    	NormalizationContext context = NormalizationContext.get();
+    	Matcher inMatcher = context.matcher(Patterns.RELATIVE_DATE_IN, text);
 		LocalDate date = timestemp;
 		while (inMatcher.find()) {
 			try {
-				int valueToAdd = Integer.parseInt(inMatcher.group(1));
-				switch (inMatcher.group(2)) {
-					case "tagen":
+				int valueToAdd = Integer.parseInt(text, inMatcher.start(1), inMatcher.end(1), 10);
+				// tagen, wochen, monaten or jahren
+				switch (text.charAt(inMatcher.start(2))) {
+					case 't':
 						date = date.plusDays(valueToAdd);
 						break;
-					case "wochen":
+					case 'w':
 						date = date.plusWeeks(valueToAdd);
 						break;
-					case "monaten":
+					case 'm':
 						date = date.plusMonths(valueToAdd);
 						break;
-					case "jahren":
+					case 'j':
 						date = date.plusYears(valueToAdd);
 						break;
 				}
@@ -127,20 +267,21 @@ public class BasicReservationParser implements ReservationParser {
 		}
 
     	// match next day/week/month/year pattern
-		Matcher nextMatcher = Patterns.RELATIVE_DATE_NEXT.matcher(text);
+		Matcher nextMatcher = context.matcher(Patterns.RELATIVE_DATE_NEXT, text);
 		if (nextMatcher.find()) {
 			int amount = 1;
-			if (text.substring(nextMatcher.start() - 5).startsWith("ueber")) {
+			if (ParserUtils.startsWith(text, nextMatcher.start() - 5, "ueber")) {
 				amount = 2;
 			}
-			switch (nextMatcher.group(2)) {
-			case "tage":
+			// tage, woche, monat or jahr
+			switch (text.charAt(nextMatcher.start(2))) {
+			case 't':
 				return timestemp.plusDays(amount);
-			case "woche":
+			case 'w':
 				return timestemp.plusWeeks(amount);
-			case "monat":
+			case 'm':
 				return timestemp.plusMonths(amount);
-			case "jahr":
+			case 'j':
 				return timestemp.plusYears(amount);
 			}
 		}
@@ -155,8 +296,8 @@ public class BasicReservationParser implements ReservationParser {
 	 * @param timestamp the timestamp of the reservation request
 	 * @return the weekday
 	 */
-	private LocalDate parseWeekday(String text, LocalDate timestamp) {
-		Matcher weekdayMatcher = Patterns.WEEKDAY.matcher(text);
+	private LocalDate parseWeekday(CharSequence text, LocalDate timestamp) {
+		Matcher weekdayMatcher = NormalizationContext.get().matcher(Patterns.WEEKDAY, text);
 		if (weekdayMatcher.find()) {
 			int weekday = ParserUtils.weekdayToInteger(weekdayMatcher.group(2));
 			int currentDay = timestamp.getDayOfWeek().getValue();
@@ -164,7 +305,7 @@ public class BasicReservationParser implements ReservationParser {
 			if (daysToAdd == 0) {
 				daysToAdd = 7; // go to next week
 			}
-			if (text.substring(weekdayMatcher.start() - 5).startsWith("ueber")) {
+			if (ParserUtils.startsWith(text, weekdayMatcher.start() - 5, "ueber")) {
 				daysToAdd += 7; // go to week after next
 			}
 			return timestamp.plusDays(daysToAdd);
@@ -178,12 +319,12 @@ public class BasicReservationParser implements ReservationParser {
 	 * @param normalizedText the normalized text to extract the time from
 	 * @return the time of the reservation
 	 */
-	protected LocalTime extractTime(String normalizedText) {
+	protected LocalTime extractTime(CharSequence normalizedText) {
 		// match time range pattern
 		LocalTime time = this.parseTimeRange(normalizedText);
 		if (time == null) {
 			// match time pattern
-			Matcher timeMatcher = Patterns.TIME.matcher(normalizedText);
+			Matcher timeMatcher = NormalizationContext.get().matcher(Patterns.TIME, normalizedText);
 			if (timeMatcher.find()) {
 				time = LocalTime.parse(timeMatcher.group().replace("uhr", "").trim(), Formatters.TIME);
 			}
@@ -191,11 +332,11 @@ public class BasicReservationParser implements ReservationParser {
 
 		if (time != null) {
 			// apply hourly offsets
-			if (this.isMorningTime(normalizedText) && time.getHour() > 12) {
+			if ((time.getHour() > 12) && Patterns.KEYWORDS.contains(normalizedText, TokenType.MORNING_MARKER)) {
 				return time.minusHours(12);
 			}
 
-			if (this.isEveningTime(normalizedText) && time.getHour() < 12) {
+			if ((time.getHour() < 12) && Patterns.KEYWORDS.contains(normalizedText, TokenType.EVENING_MARKER)) {
 				return time.plusHours(12);
 			}
 
@@ -211,8 +352,8 @@ public class BasicReservationParser implements ReservationParser {
 	 * @param text the text to parse the time range from
 	 * @return the time range
 	 */
-	private LocalTime parseTimeRange(String text) {
-		Matcher rangeMatcher = Patterns.TIME_RANGE.matcher(text);
+	private LocalTime parseTimeRange(CharSequence text) {
+		Matcher rangeMatcher = NormalizationContext.get().matcher(Patterns.TIME_RANGE, text);
 		if (rangeMatcher.find()) {
 			LocalTime time1 = LocalTime.parse(rangeMatcher.group(1), Formatters.TIME);
 			LocalTime time2 = LocalTime.parse(rangeMatcher.group(3), Formatters.TIME);
@@ -221,65 +362,23 @@ public class BasicReservationParser implements ReservationParser {
 		return null;
 	}
 
-	/**
-	 * Checks if the time is morning.
-	 * 
-	 * @param normalizedText the normalized text to check the time from
-	 * @return true if the time is morning, false otherwise
-	 */
-	private boolean isMorningTime(String normalizedText) {
-		boolean isMorning = false;
-		String[] morningMarkers = new String[] { "morgens", "fruehstueck" };
-		for (String morningMarker : morningMarkers) {
-			isMorning = normalizedText.contains(morningMarker);
-			if (isMorning) {
-				return isMorning;
-			}
-		}
-		for (String weekday : ParserUtils.weekdays()) {
-			isMorning = normalizedText.contains(weekday + "morgen");
-			if (isMorning) {
-				return isMorning;
-			}
-		}
-		return isMorning;
-	}
-
-	/**
-	 * Checks if the time is evening.
-	 * 
-	 * @param normalizedText the normalized text to check the time from
-	 * @return true if the time is evening, false otherwise
-	 */
-	private boolean isEveningTime(String normalizedText) {
-		boolean isEvening = false;
-		String[] eveningMarkers = new String[] { "abends", "abendessen" };
-		for (String eveningMarker : eveningMarkers) {
-			isEvening = normalizedText.contains(eveningMarker);
-			if (isEvening) {
-				return isEvening;
-			}
-		}
-		for (String weekday : ParserUtils.weekdays()) {
-			isEvening = normalizedText.contains(weekday + "abend");
-			if (isEvening) {
-				return isEvening;
-			}
-		}
-		return isEvening;
-	}
-
     /**
      * Extracts the number of people for the reservation from the text.
      * 
      * @param normalizedText the normalized text to extract the number of people from
      * @return the number of people for the reservation
      */
-    protected int extractNumberOfPeople(String normalizedText) {
-		Matcher simplePeopleCountMatcher = Patterns.SIMPLE_PEOPLE_COUNT.matcher(normalizedText);
+    protected int extractNumberOfPeople(CharSequence normalizedText) {
+    	NormalizationContext context = NormalizationContext.get();
+		BitSet peopleNouns = context.findStarts(Patterns.KEYWORDS, normalizedText, TokenType.PEOPLE_NOUN);
+		Matcher simplePeopleCountMatcher = context.matcher(Patterns.SIMPLE_PEOPLE_COUNT, normalizedText);
 		int numberOfPeople = -1;
 		while (simplePeopleCountMatcher.find()) {
-			numberOfPeople = Math.max(numberOfPeople, Integer.parseInt(simplePeopleCountMatcher.group(1)));
+			if (!peopleNouns.get(simplePeopleCountMatcher.end())) {
+				continue;
+			}
+			numberOfPeople = Math.max(numberOfPeople, Integer.parseInt(normalizedText,
+					simplePeopleCountMatcher.start(1), simplePeopleCountMatcher.end(1), 10));
 		}
 		if (numberOfPeople >= 0) {
 			return numberOfPeople;
@@ -290,7 +389,7 @@ public class BasicReservationParser implements ReservationParser {
 			return numberOfPeople;
 		}
 
-		numberOfPeople = this.parsePeopleRange(normalizedText);
+		numberOfPeople = this.parsePeopleRange(normalizedText, peopleNouns);
 		if (numberOfPeople >= 0) {
 			return numberOfPeople;
 		}
@@ -304,14 +403,15 @@ public class BasicReservationParser implements ReservationParser {
 	 * @param text the text to parse the people count from
 	 * @return the number of people for the reservation
 	 */
-    private int parsePeopleCount(String text) {
-    	Matcher peopleCountMatcher = Patterns.PEOPLE_COUNT.matcher(text);
+    private int parsePeopleCount(CharSequence text) {
+    	Matcher peopleCountMatcher = NormalizationContext.get().matcher(Patterns.PEOPLE_COUNT, text);
 		int numberOfPeople = -1;
 		while (peopleCountMatcher.find()) {
 			try {
-				boolean isTimePattern = text.substring(peopleCountMatcher.end(2)).trim().startsWith("uhr");
+				boolean isTimePattern = ParserUtils.isFollowedBy(text, peopleCountMatcher.end(2), "uhr");
 				if (!isTimePattern) {
-					numberOfPeople = Math.max(numberOfPeople, Integer.parseInt(peopleCountMatcher.group(2)));
+					numberOfPeople = Math.max(numberOfPeople,
+							Integer.parseInt(text, peopleCountMatcher.start(2), peopleCountMatcher.end(2), 10));
 				}
 			} catch (Exception e) {
 				// fail gracefully
@@ -324,17 +424,21 @@ public class BasicReservationParser implements ReservationParser {
      * Parses a people range from the text.
      * 
      * @param text the text to parse the people range from
+     * @param peopleNouns the start indices of the people nouns in the text
      * @return the number of people for the reservation
      */
-	private int parsePeopleRange(String text) {
-		Matcher peopleRangeMatcher = Patterns.PEOPLE_RANGE.matcher(text);
+	private int parsePeopleRange(CharSequence text, BitSet peopleNouns) {
+		Matcher peopleRangeMatcher = NormalizationContext.get().matcher(Patterns.PEOPLE_RANGE, text);
 		int numberOfPeople = -1;
 		while (peopleRangeMatcher.find()) {
+			if (!peopleNouns.get(peopleRangeMatcher.end())) {
+				continue;
+			}
 			try {
-				boolean isTimePattern = text.substring(peopleRangeMatcher.end(4)).trim().startsWith("uhr");
+				boolean isTimePattern = ParserUtils.isFollowedBy(text, peopleRangeMatcher.end(4), "uhr");
 				if (!isTimePattern) {
-					Integer amount1 = Integer.parseInt(peopleRangeMatcher.group(2));
-					Integer amount2 = Integer.parseInt(peopleRangeMatcher.group(4));
+					int amount1 = Integer.parseInt(text, peopleRangeMatcher.start(2), peopleRangeMatcher.end(2), 10);
+					int amount2 = Integer.parseInt(text, peopleRangeMatcher.start(4), peopleRangeMatcher.end(4), 10);
 					numberOfPeople = Math.max(numberOfPeople, Math.max(amount1, amount2));
 				}
 			} catch (Exception e) {
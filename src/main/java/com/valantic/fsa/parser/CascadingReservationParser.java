@@ -0,0 +1,119 @@
+package com.valantic.fsa.parser;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.valantic.fsa.model.DefaultReservationData;
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.model.ReservationField;
+import com.valantic.fsa.model.ReservationRequest;
+import com.valantic.fsa.validator.ReservationDataValidator;
+
+/**
+ * A parser combining a fast rule based parser with the OpenAI parser. The rule based parser is run first, the
+ * OpenAI API is only asked for the fields the rule based parser could not extract (see
+ * {@link ReservationDataValidator}). The results of both parsers are merged per field.
+ *
+ * @author M. Frick
+ */
+public class CascadingReservationParser implements ReservationParser {
+
+	/**
+	 * The parser run first.
+	 */
+	private ReservationParser parser;
+
+	/**
+	 * The parser asked for the missing fields.
+	 */
+	private OpenAIReservationParser openAiParser;
+
+	/**
+	 * Constructs a new cascading parser using the basic and the OpenAI parser.
+	 */
+	public CascadingReservationParser() {
+		this(new BasicReservationParser(), new OpenAIReservationParser());
+	}
+
+	/**
+	 * Constructs a new cascading parser using the given parsers.
+	 *
+	 * @param parser the parser run first
+	 * @param openAiParser the parser asked for the missing fields
+	 */
+	public CascadingReservationParser(ReservationParser parser, OpenAIReservationParser openAiParser) {
+		this.parser = parser;
+		this.openAiParser = openAiParser;
+	}
+
+	@Override
+	public ReservationData parse(ReservationRequest request) {
+		ReservationData data;
+		try {
+			data = parser.parse(request);
+		} catch (Exception e) {
+			data = new DefaultReservationData();
+		}
+
+		Set<ReservationField> missingFields = this.getMissingFields(data);
+		if (missingFields.isEmpty()) {
+			return data;
+		}
+
+		ReservationData openAiData;
+		try {
+			openAiData = openAiParser.parse(request, missingFields);
+		} catch (Exception e) {
+			// fail gracefully
+			return data;
+		}
+		return this.merge(data, openAiData);
+	}
+
+	/**
+	 * Returns the fields of the reservation data that are missing or invalid.
+	 *
+	 * @param data the reservation data to check
+	 * @return the missing fields
+	 */
+	protected Set<ReservationField> getMissingFields(ReservationData data) {
+		Set<ReservationField> missingFields = EnumSet.noneOf(ReservationField.class);
+		if (!ReservationDataValidator.isNameValid(data)) {
+			missingFields.add(ReservationField.NAME);
+		}
+		if (!ReservationDataValidator.isDateValid(data)) {
+			missingFields.add(ReservationField.DATE);
+		}
+		if (!ReservationDataValidator.isTimeValid(data)) {
+			missingFields.add(ReservationField.TIME);
+		}
+		if (!ReservationDataValidator.isNumberOfPeopleValid(data)) {
+			missingFields.add(ReservationField.NUMBER_OF_PEOPLE);
+		}
+		return missingFields;
+	}
+
+	/**
+	 * Merges the reservation data per field: a valid field of the data is kept, otherwise the field of the
+	 * fallback data is taken if it is valid.
+	 *
+	 * @param data the reservation data
+	 * @param fallback the reservation data to take missing fields from
+	 * @return the merged reservation data
+	 */
+	protected ReservationData merge(ReservationData data, ReservationData fallback) {
+		String name = (!ReservationDataValidator.isNameValid(data) && ReservationDataValidator.isNameValid(fallback))
+				? fallback.getName() : data.getName();
+		LocalDate date = (!ReservationDataValidator.isDateValid(data) && ReservationDataValidator.isDateValid(fallback))
+				? fallback.getDate() : data.getDate();
+		LocalTime time = (!ReservationDataValidator.isTimeValid(data) && ReservationDataValidator.isTimeValid(fallback))
+				? fallback.getTime() : data.getTime();
+		int numberOfPeople = (!ReservationDataValidator.isNumberOfPeopleValid(data)
+				&& ReservationDataValidator.isNumberOfPeopleValid(fallback))
+				? fallback.getNumberOfPeople() : data.getNumberOfPeople();
+		return new DefaultReservationData(name, date, time, numberOfPeople);
+	}
+
+}
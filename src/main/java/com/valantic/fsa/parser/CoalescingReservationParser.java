@@ -0,0 +1,163 @@
+package com.valantic.fsa.parser;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.model.ReservationRequest;
+
+/**
+ * A parser coalescing identical concurrent requests to the OpenAI parser ("single flight"): while a request is
+ * in flight, identical requests share its future instead of calling the OpenAI API again. Requests are identical
+ * if their texts are equal up to whitespace and they have the same reference date. Unlike a cache, nothing is
+ * kept once the call completed.
+ * <p>
+ * The key is deliberately not the text normalized by {@code ParserUtils.normalizeText}, as that folds the case
+ * the OpenAI API keeps in the name it answers with.
+ *
+ * @author M. Frick
+ */
+public class CoalescingReservationParser implements ReservationParser {
+
+	/**
+	 * The parser asked for the requests.
+	 */
+	private OpenAIReservationParser parser;
+
+	/**
+	 * The futures of the requests in flight by key.
+	 */
+	private Map<String, CompletableFuture<ReservationData>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * The number of calls of the parser.
+	 */
+	private LongAdder calls = new LongAdder();
+
+	/**
+	 * The number of requests that shared the call of an identical request.
+	 */
+	private LongAdder coalesced = new LongAdder();
+
+	/**
+	 * Constructs a new coalescing parser in front of the given OpenAI parser.
+	 *
+	 * @param parser the parser asked for the requests
+	 */
+	public CoalescingReservationParser(OpenAIReservationParser parser) {
+		this.parser = parser;
+	}
+
+	@Override
+	public ReservationData parse(ReservationRequest request) {
+		try {
+			return this.parseAsync(request).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Parses the reservation data from a reservation request without blocking the calling thread, sharing the
+	 * call of an identical request in flight.
+	 *
+	 * @param request the reservation request
+	 * @return a future completing with the data parsed from the request (cancelling it does not affect other
+	 *         requests sharing the call)
+	 */
+	public CompletableFuture<ReservationData> parseAsync(ReservationRequest request) {
+		String key = createKey(request);
+		CompletableFuture<ReservationData> future = new CompletableFuture<>();
+		CompletableFuture<ReservationData> existing = inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			coalesced.increment();
+			return existing.copy();
+		}
+
+		calls.increment();
+		CompletableFuture<ReservationData> call;
+		try {
+			call = parser.parseAsync(request);
+		} catch (RuntimeException e) {
+			call = CompletableFuture.failedFuture(e);
+		}
+		call.whenComplete((data, throwable) -> {
+			// later requests start a call of their own
+			inFlight.remove(key, future);
+			if (throwable != null) {
+				future.completeExceptionally((throwable instanceof CompletionException) ? throwable.getCause() : throwable);
+			} else {
+				future.complete(data);
+			}
+		});
+		return future.copy();
+	}
+
+	/**
+	 * Returns the number of calls of the OpenAI parser.
+	 *
+	 * @return the number of calls
+	 */
+	public long getCalls() {
+		return calls.sum();
+	}
+
+	/**
+	 * Returns the number of calls saved, i.e., the number of requests that shared the call of an identical
+	 * request in flight.
+	 *
+	 * @return the number of saved calls
+	 */
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	/**
+	 * Returns the number of calls currently in flight.
+	 *
+	 * @return the number of calls in flight
+	 */
+	public int getInFlight() {
+		return inFlight.size();
+	}
+
+	/**
+	 * Creates the key of a request: the reference date and the text with runs of whitespace collapsed.
+	 *
+	 * @param request the reservation request
+	 * @return the key
+	 */
+	static String createKey(ReservationRequest request) {
+		String text = request.getText();
+		StringBuilder sb = new StringBuilder(text.length() + 11);
+		sb.append(request.getTimestamp().toLocalDate()).append('|');
+		int start = sb.length();
+		boolean space = false;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (Character.isWhitespace(c)) {
+				space = true;
+			} else {
+				if (space && (sb.length() > start)) {
+					sb.append(' ');
+				}
+				space = false;
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d calls, %d coalesced, %d in flight", this.getCalls(), this.getCoalesced(),
+				this.getInFlight());
+	}
+
+}
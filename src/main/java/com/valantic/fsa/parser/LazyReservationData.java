@@ -0,0 +1,154 @@
+package com.valantic.fsa.parser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.util.ParserUtils;
+
+/**
+ * Implementation of the {@code ReservationData} interface extracting each field only when it is requested
+ * (see {@link BasicReservationParser#parseLazily(ReservationRequest)}). The first call of a getter runs the
+ * extractor of the parser and memoizes its result, the normalized text is computed once and shared by the
+ * extractors of the date, time and number of people. An exception thrown by an extractor is thrown by its
+ * getter.
+ * 
+ * @author M. Frick
+ */
+public class LazyReservationData implements ReservationData {
+
+	/**
+	 * The parser providing the extractors.
+	 */
+	private final BasicReservationParser parser;
+
+	/**
+	 * The trimmed text of the reservation request.
+	 */
+	private final String text;
+
+	/**
+	 * The timestamp of the reservation request.
+	 */
+	private final LocalDateTime timestamp;
+
+	/**
+	 * The normalized text (null until needed).
+	 */
+	private String normalizedText;
+
+	/**
+	 * The name of the person making the reservation.
+	 */
+	private String name;
+
+	/**
+	 * The date of the reservation.
+	 */
+	private LocalDate date;
+
+	/**
+	 * The time of the reservation.
+	 */
+	private LocalTime time;
+
+	/**
+	 * The number of people for the reservation.
+	 */
+	private int numberOfPeople;
+
+	/**
+	 * Whether the name has been extracted.
+	 */
+	private boolean nameExtracted;
+
+	/**
+	 * Whether the date has been extracted.
+	 */
+	private boolean dateExtracted;
+
+	/**
+	 * Whether the time has been extracted.
+	 */
+	private boolean timeExtracted;
+
+	/**
+	 * Whether the number of people has been extracted.
+	 */
+	private boolean numberOfPeopleExtracted;
+
+	/**
+	 * Constructs a new {@code LazyReservationData}.
+	 * 
+	 * @param parser the parser providing the extractors
+	 * @param text the text of the reservation request
+	 * @param timestamp the timestamp of the reservation request
+	 */
+	LazyReservationData(BasicReservationParser parser, String text, LocalDateTime timestamp) {
+		this.parser = parser;
+		this.text = text.trim();
+		this.timestamp = timestamp;
+	}
+
+	@Override
+	public synchronized String getName() {
+		if (!nameExtracted) {
+			name = parser.extractName(text);
+			nameExtracted = true;
+		}
+		return name;
+	}
+
+	@Override
+	public synchronized LocalDate getDate() {
+		if (!dateExtracted) {
+			date = parser.extractDate(this.getNormalizedText(), timestamp.toLocalDate());
+			dateExtracted = true;
+		}
+		return date;
+	}
+
+	@Override
+	public synchronized LocalTime getTime() {
+		if (!timeExtracted) {
+			time = parser.extractTime(this.getNormalizedText());
+			timeExtracted = true;
+		}
+		return time;
+	}
+
+	@Override
+	public synchronized int getNumberOfPeople() {
+		if (!numberOfPeopleExtracted) {
+			numberOfPeople = parser.extractNumberOfPeople(this.getNormalizedText());
+			numberOfPeopleExtracted = true;
+		}
+		return numberOfPeople;
+	}
+
+	/**
+	 * Returns the normalized text, normalizing the text on the first call.
+	 * 
+	 * @return the normalized text
+	 */
+	private String getNormalizedText() {
+		if (normalizedText == null) {
+			normalizedText = ParserUtils.normalizeText(text);
+		}
+		return normalizedText;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("LazyReservationData[")
+			.append("name='").append(this.getName())
+			.append("', date=").append(this.getDate())
+			.append(", time=").append(this.getTime())
+			.append(", numberOfPeople=").append(this.getNumberOfPeople())
+			.append("]");
+		return sb.toString();
+	}
+
+}
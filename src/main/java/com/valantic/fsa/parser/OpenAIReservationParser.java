@@ -2,64 +2,577 @@ package com.valantic.fsa.parser;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import com.valantic.fsa.llm.OpenAIClient;
+import com.valantic.fsa.llm.TokenEstimator;
 import com.valantic.fsa.model.DefaultReservationData;
+import com.valantic.fsa.model.FailedReservationData;
 import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.model.ReservationField;
 import com.valantic.fsa.model.ReservationRequest;
 import com.valantic.fsa.util.Formatters;
 import com.valantic.fsa.util.ParserUtils;
 
 /**
- * A parser that uses the OpenAI API to parse reservation requests.
+ * A parser that uses the OpenAI API to parse reservation requests. In streaming mode, the response is consumed
+ * as it arrives and the stream is cancelled as soon as the closing parenthesis of the answer tuple is received.
+ * In structured mode, single requests are answered with a JSON object conforming to a schema instead of a tuple,
+ * which is validated and asked again once if it violates the schema.
+ * <p>
+ * The instructions are sent as system message that is identical for all requests, and only the date and text
+ * of a request as user message, so that the API can cache the common prefix of the prompts. A request whose
+ * estimated prompt and completion exceed the token budget is rejected without calling the API.
  * 
  * @author M. Frick
  */
 public class OpenAIReservationParser implements ReservationParser {
 	
 	/**
-	 * The prompt to asked.
-	 */
-	private static final String PROMPT =             
-			"Extrahiere aus folgendem Text die folgenden Informationen im Format: (Name, Datum, Uhrzeit, Personen)\n" +
-            "Name in dem Format wie der Name im Text vorkommt (z. B. ist der Name hochgestellt im Text, dann den Name auch hochgestellt lassen).\n" +
-    		"Datum als TT.MM.2025 (z. B. 01.05.2025).\n" +
-            "Uhrzeit im Format HH:mm (z. B. 09:45).\n"+ 
-    		"Personen als Integer.\n" +
-            "Relative Datumsangaben immer vom Zeitpunkt %s berechnen.\n" +
-            "Angaben wie \"übernächste X\" berechnet sich als %s + 2 X, wobei X ein Tag, eine Woche, ein Monat ein Jahr oder ein Wochentag sein kann.\n" +
-            "Bei Zeitangaben wie z. B. \"zwischen 18 und 19 Uhr \" immer die kleinere Zeit nehmen.\n" +
-            "Bei Personenangaben wie z. B. \"vier bis sechs Personen\" immer die größere Personenanzahl nehmen.\n" +
-            "Fehlende Names-, Datums- und Zeitangaben als leerer String \"\". Fehlende Personenangaben als -1.\n\n" +
-//            "Beispiele:\n" +
-//            "\"Guten Tag, einen Tisch für 8 Mann am 1.5. 9 Uhr abends, Gruß Franz Schulze\"-> (Franz Schulze, 01.05.2025, 21:00, 8)\n" +
-//            "\"Guten Tag, einen Tisch für vier Personen am kommenden Montagabend um 20 Uhr, Gruß Franz Schulze\"-> (Franz Schulze, 28.04.2025, 20:00, 4)\n" +
-//            "\"Guten Tag, einen Tisch für sieben für den übernächsten Freitagmittag um 12 Uhr, Gruß Franz Schulze\"-> (Franz Schulze, 02.05.2025, 12:00, 7)\n" +
-//            "\"Guten Tag, wir sind 9 und brauchen einen Tisch für den übernächsten Montag um 22 Uhr, Gruß Franz Schulze\"-> (Franz Schulze, 05.05.2025, 22:00, 9)\n" +
-//            "\"Guten Tag, einen Tisch für vier Personen für den übernächsten Monat um 18 Uhr, Gruß Franz Schulze\"-> (Franz Schulze, 24.06.2025, 18:00, 4)\n" +
-            "Text:\n \"%s\"";
+	 * The labels of the fields in the response tuple.
+	 */
+	private static final Map<ReservationField, String> LABELS = new EnumMap<>(ReservationField.class);
+
+	/**
+	 * The format instructions for the fields.
+	 */
+	private static final Map<ReservationField, String> FORMATS = new EnumMap<>(ReservationField.class);
+
+	/**
+	 * The rules for computing the fields.
+	 */
+	private static final Map<ReservationField, String> RULES = new EnumMap<>(ReservationField.class);
+
+	static {
+		LABELS.put(ReservationField.NAME, "Name");
+		LABELS.put(ReservationField.DATE, "Datum");
+		LABELS.put(ReservationField.TIME, "Uhrzeit");
+		LABELS.put(ReservationField.NUMBER_OF_PEOPLE, "Personen");
+
+		FORMATS.put(ReservationField.NAME, 
+				"Name in dem Format wie der Name im Text vorkommt (z. B. ist der Name hochgestellt im Text, dann den Name auch hochgestellt lassen).\n");
+		FORMATS.put(ReservationField.DATE, 
+				"Datum als TT.MM.2025 (z. B. 01.05.2025).\n");
+		FORMATS.put(ReservationField.TIME, 
+				"Uhrzeit im Format HH:mm (z. B. 09:45).\n");
+		FORMATS.put(ReservationField.NUMBER_OF_PEOPLE, 
+				"Personen als Integer.\n");
+
+		RULES.put(ReservationField.DATE, 
+				"Relative Datumsangaben immer vom Zeitpunkt des Textes berechnen.\n" +
+				"Angaben wie \"übernächste X\" berechnet sich als Zeitpunkt + 2 X, wobei X ein Tag, eine Woche, ein Monat ein Jahr oder ein Wochentag sein kann.\n");
+		RULES.put(ReservationField.TIME, 
+				"Bei Zeitangaben wie z. B. \"zwischen 18 und 19 Uhr \" immer die kleinere Zeit nehmen.\n");
+		RULES.put(ReservationField.NUMBER_OF_PEOPLE, 
+				"Bei Personenangaben wie z. B. \"vier bis sechs Personen\" immer die größere Personenanzahl nehmen.\n");
+	}
+
+	/**
+	 * The system prompt asking for all fields.
+	 */
+	private static final String SYSTEM_PROMPT = createSystemPrompt(EnumSet.allOf(ReservationField.class));
+
+	/**
+	 * The system prompt asking for a structured answer (all fields as JSON object).
+	 */
+	private static final String STRUCTURED_SYSTEM_PROMPT = createStructuredSystemPrompt();
+
+//	Beispiele:
+//	"Guten Tag, einen Tisch für 8 Mann am 1.5. 9 Uhr abends, Gruß Franz Schulze"-> (Franz Schulze, 01.05.2025, 21:00, 8)
+//	"Guten Tag, einen Tisch für vier Personen am kommenden Montagabend um 20 Uhr, Gruß Franz Schulze"-> (Franz Schulze, 28.04.2025, 20:00, 4)
+//	"Guten Tag, einen Tisch für sieben für den übernächsten Freitagmittag um 12 Uhr, Gruß Franz Schulze"-> (Franz Schulze, 02.05.2025, 12:00, 7)
+//	"Guten Tag, wir sind 9 und brauchen einen Tisch für den übernächsten Montag um 22 Uhr, Gruß Franz Schulze"-> (Franz Schulze, 05.05.2025, 22:00, 9)
+//	"Guten Tag, einen Tisch für vier Personen für den übernächsten Monat um 18 Uhr, Gruß Franz Schulze"-> (Franz Schulze, 24.06.2025, 18:00, 4)
+
+	/**
+	 * The default token budget of a request (prompt and expected completion).
+	 */
+	public static final int DEFAULT_TOKEN_BUDGET = 4000;
+
+	/**
+	 * The estimated number of completion tokens per answer tuple.
+	 */
+	private static final int TOKENS_PER_ANSWER = 25;
+
+	/**
+	 * The estimated number of completion tokens of a structured answer.
+	 */
+	private static final int TOKENS_PER_STRUCTURED_ANSWER = 40;
+
+	/**
+	 * The system prompt of a batch (asking for all fields of several texts).
+	 */
+	private static final String BATCH_PROMPT = createBatchPreamble();
+
+	/**
+	 * Pattern of an indexed answer in a batch response, e.g., "2: (Franz Schulze, 01.05.2025, 21:00, 8)".
+	 */
+	private static final Pattern BATCH_ANSWER = Pattern.compile("(\\d+)\\s*:\\s*(\\([^()\\n]*\\))");
 
 	/**
 	 * The OpenAI client.
 	 */
 	private OpenAIClient openAi;
 
+	/**
+	 * The token budget of a request.
+	 */
+	private int tokenBudget;
+
+	/**
+	 * Whether single requests are asked streaming the response.
+	 */
+	private boolean streaming;
+
+	/**
+	 * Whether single requests are asked for a structured answer.
+	 */
+	private boolean structured;
+
 	/**
 	 * Constructs a new OpenAI reservation parser.
 	 */
 	public OpenAIReservationParser() {
-		this.openAi = new OpenAIClient();
+		this(new OpenAIClient());
+	}
+
+	/**
+	 * Constructs a new OpenAI reservation parser using the given client.
+	 * 
+	 * @param openAi the OpenAI client to use
+	 */
+	public OpenAIReservationParser(OpenAIClient openAi) {
+		this(openAi, DEFAULT_TOKEN_BUDGET);
+	}
+
+	/**
+	 * Constructs a new OpenAI reservation parser using the given client and token budget.
+	 * 
+	 * @param openAi the OpenAI client to use
+	 * @param tokenBudget the token budget of a request (prompt and expected completion), up to which batches are
+	 *        packed and beyond which single requests are rejected
+	 */
+	public OpenAIReservationParser(OpenAIClient openAi, int tokenBudget) {
+		this(openAi, tokenBudget, false);
+	}
+
+	/**
+	 * Constructs a new OpenAI reservation parser using the given client and token budget.
+	 * 
+	 * @param openAi the OpenAI client to use
+	 * @param tokenBudget the token budget of a request (prompt and expected completion), up to which batches are
+	 *        packed and beyond which single requests are rejected
+	 * @param streaming true to stream the responses to single requests, i.e., to stop receiving a response as
+	 *        soon as the answer tuple is complete
+	 */
+	public OpenAIReservationParser(OpenAIClient openAi, int tokenBudget, boolean streaming) {
+		this(openAi, tokenBudget, streaming, false);
+	}
+
+	/**
+	 * Constructs a new OpenAI reservation parser using the given client and token budget.
+	 * 
+	 * @param openAi the OpenAI client to use
+	 * @param tokenBudget the token budget of a request (prompt and expected completion), up to which batches are
+	 *        packed and beyond which single requests are rejected
+	 * @param streaming true to stream the responses to single requests, i.e., to stop receiving a response as
+	 *        soon as the answer tuple is complete
+	 * @param structured true to ask single requests for a JSON object conforming to a schema instead of a tuple
+	 *        (takes precedence over streaming; partial and batch requests are still answered with tuples)
+	 */
+	public OpenAIReservationParser(OpenAIClient openAi, int tokenBudget, boolean streaming, boolean structured) {
+		this.openAi = openAi;
+		this.tokenBudget = tokenBudget;
+		this.streaming = streaming;
+		this.structured = structured;
 	}
 
 	@Override
 	public ReservationData parse(ReservationRequest request) {
-        String timestamp = request.getTimestamp().toLocalDate().toString();
-        String text = request.getText();
-
-		String response = openAi.ask(String.format(PROMPT, timestamp, timestamp, text));
+		if (structured) {
+			return this.parseStructured(request);
+		}
+		String userPrompt = this.createUserPrompt(request);
+		this.checkBudget(SYSTEM_PROMPT, userPrompt, TOKENS_PER_ANSWER);
+		String response = this.ask(SYSTEM_PROMPT, userPrompt);
         return parseResponse(response, request);
     }
 
+	/**
+	 * Parses only the given fields from a reservation request, i.e., the prompt asks only for these fields.
+	 * The other fields of the returned data are missing.
+	 * 
+	 * @param request the reservation request
+	 * @param fields the fields to parse
+	 * @return the data parsed from the request
+	 */
+	public ReservationData parse(ReservationRequest request, Set<ReservationField> fields) {
+		String systemPrompt = createSystemPrompt(fields);
+		String userPrompt = this.createUserPrompt(request);
+		this.checkBudget(systemPrompt, userPrompt, TOKENS_PER_ANSWER);
+		String response = this.ask(systemPrompt, userPrompt);
+		return this.parseResponse(response, request, fields);
+	}
+
+	/**
+	 * Parses the reservation data from a reservation request without blocking the calling thread.
+	 * 
+	 * @param request the reservation request
+	 * @return a future completing with the data parsed from the request
+	 */
+	public CompletableFuture<ReservationData> parseAsync(ReservationRequest request) {
+		if (structured) {
+			return this.parseStructuredAsync(request);
+		}
+		String userPrompt = this.createUserPrompt(request);
+		try {
+			this.checkBudget(SYSTEM_PROMPT, userPrompt, TOKENS_PER_ANSWER);
+		} catch (IllegalArgumentException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		CompletableFuture<String> response = streaming
+				? openAi.askStreamingAsync(SYSTEM_PROMPT, userPrompt, OpenAIReservationParser::isTupleComplete)
+						.thenApply(OpenAIReservationParser::extractTuple)
+				: openAi.askAsync(SYSTEM_PROMPT, userPrompt);
+		return response.thenApply(r -> this.parseResponse(r, request));
+	}
+
+	/**
+	 * Parses the reservation data from a reservation request asking for a structured answer. If the answer
+	 * violates the schema, the API is asked once more, quoting the answer and the violations; if that answer
+	 * is invalid too, the result is empty reservation data.
+	 * 
+	 * @param request the reservation request
+	 * @return the data parsed from the request
+	 */
+	private ReservationData parseStructured(ReservationRequest request) {
+		String prompt = this.createUserPrompt(request);
+		this.checkBudget(STRUCTURED_SYSTEM_PROMPT, prompt, TOKENS_PER_STRUCTURED_ANSWER);
+		String response = openAi.askJson(STRUCTURED_SYSTEM_PROMPT, prompt, ReservationAnswer.SCHEMA_NAME,
+				ReservationAnswer.SCHEMA);
+		List<String> violations = new ArrayList<>();
+		ReservationAnswer answer = ReservationAnswer.read(response, violations);
+		if (violations.isEmpty()) {
+			return answer.toReservationData();
+		}
+		response = openAi.askJson(STRUCTURED_SYSTEM_PROMPT, createReaskPrompt(prompt, response, violations),
+				ReservationAnswer.SCHEMA_NAME, ReservationAnswer.SCHEMA);
+		return this.toReservationData(response);
+	}
+
+	/**
+	 * Parses the reservation data from a reservation request asking for a structured answer without blocking
+	 * the calling thread (see {@link #parseStructured(ReservationRequest)}).
+	 * 
+	 * @param request the reservation request
+	 * @return a future completing with the data parsed from the request
+	 */
+	private CompletableFuture<ReservationData> parseStructuredAsync(ReservationRequest request) {
+		String prompt = this.createUserPrompt(request);
+		try {
+			this.checkBudget(STRUCTURED_SYSTEM_PROMPT, prompt, TOKENS_PER_STRUCTURED_ANSWER);
+		} catch (IllegalArgumentException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		return openAi.askJsonAsync(STRUCTURED_SYSTEM_PROMPT, prompt, ReservationAnswer.SCHEMA_NAME,
+				ReservationAnswer.SCHEMA)
+				.thenCompose(response -> {
+					List<String> violations = new ArrayList<>();
+					ReservationAnswer answer = ReservationAnswer.read(response, violations);
+					if (violations.isEmpty()) {
+						return CompletableFuture.completedFuture(answer.toReservationData());
+					}
+					return openAi.askJsonAsync(STRUCTURED_SYSTEM_PROMPT, createReaskPrompt(prompt, response, violations),
+							ReservationAnswer.SCHEMA_NAME, ReservationAnswer.SCHEMA)
+							.thenApply(this::toReservationData);
+				});
+	}
+
+	/**
+	 * Maps the structured answer asked again to reservation data.
+	 * 
+	 * @param response the response from the OpenAI API
+	 * @return the reservation data, or empty reservation data if the answer is still invalid
+	 */
+	private ReservationData toReservationData(String response) {
+		List<String> violations = new ArrayList<>();
+		ReservationAnswer answer = ReservationAnswer.read(response, violations);
+		return violations.isEmpty() ? answer.toReservationData() : new DefaultReservationData();
+	}
+
+	/**
+	 * Asks the OpenAI API with the prompts of a single request, streaming the response if enabled.
+	 * 
+	 * @param systemPrompt the system prompt
+	 * @param userPrompt the user prompt
+	 * @return the response from the OpenAI API (only the answer tuple if streamed)
+	 */
+	private String ask(String systemPrompt, String userPrompt) {
+		if (streaming) {
+			return extractTuple(openAi.askStreaming(systemPrompt, userPrompt, OpenAIReservationParser::isTupleComplete));
+		}
+		return openAi.ask(systemPrompt, userPrompt);
+	}
+
+	/**
+	 * Checks that the estimated tokens of a request fit the token budget.
+	 * 
+	 * @param systemPrompt the system prompt
+	 * @param userPrompt the user prompt
+	 * @param completionTokens the estimated number of completion tokens
+	 * @throws IllegalArgumentException if the request exceeds the token budget
+	 */
+	private void checkBudget(String systemPrompt, String userPrompt, int completionTokens) {
+		int tokens = TokenEstimator.estimate(systemPrompt, userPrompt) + completionTokens;
+		if (tokens > tokenBudget) {
+			throw new IllegalArgumentException(String.format(
+					"Request of about %d tokens exceeds the token budget of %d tokens", tokens, tokenBudget));
+		}
+	}
+
+	/**
+	 * Returns true if the content received so far contains a complete answer tuple, i.e., a closing parenthesis
+	 * after an opening one.
+	 * 
+	 * @param content the content received so far
+	 * @return true if the answer tuple is complete
+	 */
+	static boolean isTupleComplete(CharSequence content) {
+		boolean open = false;
+		for (int i = 0; i < content.length(); i++) {
+			char c = content.charAt(i);
+			if (c == '(') {
+				open = true;
+			} else if (open && (c == ')')) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Extracts the first answer tuple from a streamed response, dropping any text around it.
+	 * 
+	 * @param response the streamed response
+	 * @return the answer tuple, or the response if it contains no complete tuple
+	 */
+	static String extractTuple(String response) {
+		int start = response.indexOf('(');
+		int end = (start >= 0) ? response.indexOf(')', start) : -1;
+		return (end >= 0) ? response.substring(start, end + 1) : response;
+	}
+
+	/**
+	 * Parses the reservation data from several reservation requests, packing as many requests into one prompt
+	 * as the token budget allows. The batches are asked concurrently. The answers missing from or malformed in
+	 * the batch responses are retried concurrently with prompts of their own; if a retry fails too, the result
+	 * is {@link FailedReservationData}. A request exceeding the token budget on its own is not asked in a batch,
+	 * and its retry fails.
+	 * 
+	 * @param requests the reservation requests
+	 * @return the data parsed from the requests (same order as the requests)
+	 */
+	public List<ReservationData> parseBatch(List<? extends ReservationRequest> requests) {
+		List<List<? extends ReservationRequest>> batches = this.createBatches(requests);
+		List<CompletableFuture<List<ReservationData>>> futures = new ArrayList<>();
+		for (List<? extends ReservationRequest> batch : batches) {
+			String userPrompt = this.createBatchPrompt(batch);
+			if (TokenEstimator.estimate(BATCH_PROMPT, userPrompt) + TOKENS_PER_ANSWER * batch.size() > tokenBudget) {
+				// a single request exceeding the budget, rejected when retried alone
+				futures.add(CompletableFuture.completedFuture(new ArrayList<>(Collections.nCopies(batch.size(), null))));
+				continue;
+			}
+			futures.add(openAi.askAsync(BATCH_PROMPT, userPrompt)
+					.thenApply(response -> this.parseResponse(response, batch))
+					.exceptionally(e -> new ArrayList<>(Collections.nCopies(batch.size(), null))));
+		}
+
+		List<ReservationData> results = new ArrayList<>(requests.size());
+		for (CompletableFuture<List<ReservationData>> future : futures) {
+			results.addAll(future.join());
+		}
+
+		// retry the missing answers alone, all at once
+		Map<Integer, CompletableFuture<ReservationData>> retries = new LinkedHashMap<>();
+		for (int i = 0; i < results.size(); i++) {
+			if (results.get(i) == null) {
+				CompletableFuture<ReservationData> retry;
+				try {
+					retry = this.parseAsync(requests.get(i));
+				} catch (RuntimeException e) {
+					retry = CompletableFuture.failedFuture(e);
+				}
+				retries.put(i, retry.handle((data, e) -> (e != null)
+						? new FailedReservationData((e instanceof CompletionException) ? e.getCause() : e)
+						: data));
+			}
+		}
+		for (Map.Entry<Integer, CompletableFuture<ReservationData>> retry : retries.entrySet()) {
+			results.set(retry.getKey(), retry.getValue().join());
+		}
+		return results;
+	}
+
+	/**
+	 * Splits the requests into batches fitting the token budget (each batch has at least one request).
+	 * 
+	 * @param requests the reservation requests
+	 * @return the batches
+	 */
+	private List<List<? extends ReservationRequest>> createBatches(List<? extends ReservationRequest> requests) {
+		List<List<? extends ReservationRequest>> batches = new ArrayList<>();
+		int preambleTokens = TokenEstimator.estimate(BATCH_PROMPT, "");
+		int start = 0;
+		int tokens = preambleTokens;
+		for (int i = 0; i < requests.size(); i++) {
+			int requestTokens = TokenEstimator.estimate(createBatchText(i - start + 1, requests.get(i)))
+					+ TOKENS_PER_ANSWER;
+			if ((i > start) && (tokens + requestTokens > tokenBudget)) {
+				batches.add(requests.subList(start, i));
+				start = i;
+				tokens = preambleTokens;
+			}
+			tokens += requestTokens;
+		}
+		if (start < requests.size()) {
+			batches.add(requests.subList(start, requests.size()));
+		}
+		return batches;
+	}
+
+	/**
+	 * Creates the user prompt for a batch of reservation requests (see {@link #BATCH_PROMPT} for the system
+	 * prompt).
+	 * 
+	 * @param requests the reservation requests
+	 * @return the user prompt
+	 */
+	private String createBatchPrompt(List<? extends ReservationRequest> requests) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < requests.size(); i++) {
+			sb.append(createBatchText(i + 1, requests.get(i)));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Creates the part of the user prompt of a batch for one reservation request.
+	 * 
+	 * @param number the number of the request in the batch (starting at 1)
+	 * @param request the reservation request
+	 * @return the part of the user prompt
+	 */
+	private static String createBatchText(int number, ReservationRequest request) {
+		return "Text " + number + " (Zeitpunkt " + request.getTimestamp().toLocalDate() + "):\n \""
+				+ request.getText() + "\"\n\n";
+	}
+
+	/**
+	 * Creates the system prompt of a batch.
+	 * 
+	 * @return the system prompt
+	 */
+	private static String createBatchPreamble() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Extrahiere aus jedem der folgenden Texte die folgenden Informationen im Format: Nr: (Name, Datum, Uhrzeit, Personen)\n");
+		for (String format : FORMATS.values()) {
+			sb.append(format);
+		}
+		sb.append("Relative Datumsangaben immer vom Zeitpunkt des jeweiligen Textes berechnen.\n")
+			.append("Angaben wie \"übernächste X\" berechnet sich als Zeitpunkt + 2 X, wobei X ein Tag, eine Woche, ein Monat ein Jahr oder ein Wochentag sein kann.\n")
+			.append(RULES.get(ReservationField.TIME))
+			.append(RULES.get(ReservationField.NUMBER_OF_PEOPLE))
+			.append("Fehlende Names-, Datums- und Zeitangaben als leerer String \"\". Fehlende Personenangaben als -1.\n")
+			.append("Antworte mit genau einer Zeile pro Text, z. B. 1: (Franz Schulze, 01.05.2025, 21:00, 8)\n\n");
+		return sb.toString();
+	}
+
+	/**
+	 * Creates the user prompt for a reservation request, i.e., its timestamp and text. The instructions are
+	 * in the system prompt.
+	 * 
+	 * @param request the reservation request
+	 * @return the user prompt
+	 */
+	private String createUserPrompt(ReservationRequest request) {
+		return "Zeitpunkt: " + request.getTimestamp().toLocalDate() + "\nText:\n \"" + request.getText() + "\"";
+	}
+
+	/**
+	 * Creates the prompt asking again for a structured answer that violated the schema.
+	 * 
+	 * @param prompt the user prompt asked
+	 * @param response the invalid answer
+	 * @param violations the violations of the schema
+	 * @return the prompt
+	 */
+	private static String createReaskPrompt(String prompt, String response, List<String> violations) {
+		StringBuilder sb = new StringBuilder(prompt);
+		sb.append("\n\nDeine vorherige Antwort war ungültig:\n").append(response).append("\n\nFehler:\n");
+		for (String violation : violations) {
+			sb.append("- ").append(violation).append('\n');
+		}
+		sb.append("Antworte nur mit dem korrigierten JSON-Objekt.");
+		return sb.toString();
+	}
+
+	/**
+	 * Creates the system prompt asking for the given fields. It does not depend on the request, i.e., it is the
+	 * same for all requests asking for the same fields.
+	 * 
+	 * @param fields the fields to ask for
+	 * @return the system prompt
+	 */
+	private static String createSystemPrompt(Set<ReservationField> fields) {
+		List<String> labels = new ArrayList<>();
+		for (ReservationField field : fields) {
+			labels.add(LABELS.get(field));
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append("Extrahiere aus folgendem Text die folgenden Informationen im Format: (")
+			.append(String.join(", ", labels)).append(")\n");
+		for (ReservationField field : fields) {
+			sb.append(FORMATS.get(field));
+		}
+		for (ReservationField field : fields) {
+			if (RULES.containsKey(field)) {
+				sb.append(RULES.get(field));
+			}
+		}
+		sb.append("Fehlende Names-, Datums- und Zeitangaben als leerer String \"\". Fehlende Personenangaben als -1.\n");
+		return sb.toString();
+	}
+
+	/**
+	 * Creates the system prompt asking for a structured answer (see {@link ReservationAnswer#SCHEMA}).
+	 * 
+	 * @return the system prompt
+	 */
+	private static String createStructuredSystemPrompt() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Extrahiere aus folgendem Text die folgenden Informationen als JSON-Objekt mit den Feldern ")
+			.append("name (Name), date (Datum), time (Uhrzeit) und numberOfPeople (Personen)\n");
+		for (String format : FORMATS.values()) {
+			sb.append(format);
+		}
+		for (String rule : RULES.values()) {
+			sb.append(rule);
+		}
+		sb.append("Fehlende Names-, Datums- und Zeitangaben als leerer String \"\". Fehlende Personenangaben als -1.\n");
+		return sb.toString();
+	}
+
 	/**
 	 * Parses the response from the OpenAI API.
 	 * 
@@ -68,17 +581,44 @@ public class OpenAIReservationParser implements ReservationParser {
 	 * @return the reservation data
 	 */
 	protected ReservationData parseResponse(String response, ReservationRequest request) {
+		return this.parseResponse(response, request, EnumSet.allOf(ReservationField.class));
+	}
+
+	/**
+	 * Parses the response from the OpenAI API asked for the given fields.
+	 * 
+	 * @param response the response from the OpenAI API
+	 * @param request  the reservation request
+	 * @param fields the fields asked for (in the order of the response tuple)
+	 * @return the reservation data
+	 */
+	protected ReservationData parseResponse(String response, ReservationRequest request, Set<ReservationField> fields) {
 		if ((response != null) && !response.isEmpty()) {
 			String[] parts = response.replace("(", "").replace(")", "").split(",");
-			if (parts.length == 4) {
-
-				String name = this.parseName(parts[0]);
-
-				LocalDate date = this.parseDate(parts[1], request);
-
-				LocalTime time = this.parseTime(parts[2]);
+			if (parts.length == fields.size()) {
+				String name = null;
+				LocalDate date = null;
+				LocalTime time = null;
+				int numberOfPeople = -1;
 
-				int numberOfPeople = this.parseNumberOfPeople(parts[3]);
+				int i = 0;
+				for (ReservationField field : fields) {
+					String part = parts[i++];
+					switch (field) {
+						case NAME:
+							name = this.parseName(part);
+							break;
+						case DATE:
+							date = this.parseDate(part, request);
+							break;
+						case TIME:
+							time = this.parseTime(part);
+							break;
+						case NUMBER_OF_PEOPLE:
+							numberOfPeople = this.parseNumberOfPeople(part);
+							break;
+					}
+				}
 
 				return new DefaultReservationData(name, date, time, numberOfPeople);
 			}
@@ -86,6 +626,35 @@ public class OpenAIReservationParser implements ReservationParser {
 		return new DefaultReservationData();
 	}
 
+	/**
+	 * Parses the response from the OpenAI API asked for a batch of requests, i.e., demultiplexes the indexed
+	 * answers to their requests.
+	 * 
+	 * @param response the response from the OpenAI API
+	 * @param requests the reservation requests of the batch
+	 * @return the reservation data per request (null if the answer is missing or malformed)
+	 */
+	protected List<ReservationData> parseResponse(String response, List<? extends ReservationRequest> requests) {
+		List<ReservationData> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+		if (response == null) {
+			return results;
+		}
+		Matcher answerMatcher = BATCH_ANSWER.matcher(response);
+		while (answerMatcher.find()) {
+			try {
+				int index = Integer.parseInt(answerMatcher.group(1)) - 1;
+				String answer = answerMatcher.group(2);
+				if ((index >= 0) && (index < requests.size()) && (results.get(index) == null)
+						&& (answer.split(",").length == ReservationField.values().length)) {
+					results.set(index, this.parseResponse(answer, requests.get(index)));
+				}
+			} catch (Exception e) {
+				// fail gracefully, i.e., retry the answer alone
+			}
+		}
+		return results;
+	}
+
 	/**
 	 * Parses the name from the response.
 	 * 
@@ -0,0 +1,105 @@
+package com.valantic.fsa.parser;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import com.valantic.fsa.model.DefaultReservationData;
+import com.valantic.fsa.model.FailedReservationData;
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.model.ReservationRequest;
+
+/**
+ * Fork-join task parsing a range of reservation requests. The range is split in halves until it is small
+ * enough to be parsed sequentially, the results are written to the index of their request.
+ *
+ * @author M. Frick
+ */
+class ParseAllTask extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The parser to use.
+	 */
+	private final ReservationParser parser;
+
+	/**
+	 * The requests to parse.
+	 */
+	private final List<? extends ReservationRequest> requests;
+
+	/**
+	 * The results of the requests (same order as the requests).
+	 */
+	private final ReservationData[] results;
+
+	/**
+	 * The start index of the range (inclusive).
+	 */
+	private final int start;
+
+	/**
+	 * The end index of the range (exclusive).
+	 */
+	private final int end;
+
+	/**
+	 * The maximum number of requests parsed sequentially.
+	 */
+	private final int threshold;
+
+	/**
+	 * Constructs a new {@code ParseAllTask} for the specified range of requests.
+	 *
+	 * @param parser the parser to use
+	 * @param requests the requests to parse
+	 * @param results the results of the requests
+	 * @param start the start index of the range (inclusive)
+	 * @param end the end index of the range (exclusive)
+	 * @param threshold the maximum number of requests parsed sequentially
+	 */
+	ParseAllTask(ReservationParser parser, List<? extends ReservationRequest> requests, ReservationData[] results,
+			int start, int end, int threshold) {
+		this.parser = parser;
+		this.requests = requests;
+		this.results = results;
+		this.start = start;
+		this.end = end;
+		this.threshold = threshold;
+	}
+
+	@Override
+	protected void compute() {
+		if (end - start <= threshold) {
+			for (int i = start; i < end; i++) {
+				results[i] = parse(parser, requests.get(i));
+			}
+		} else {
+			int middle = (start + end) >>> 1;
+			invokeAll(new ParseAllTask(parser, requests, results, start, middle, threshold),
+					new ParseAllTask(parser, requests, results, middle, end, threshold));
+		}
+	}
+
+	/**
+	 * Parses a single request, isolating failures: a request that cannot be parsed results in
+	 * {@link FailedReservationData} carrying the exception instead of failing the whole batch.
+	 *
+	 * @param parser the parser to use
+	 * @param request the request to parse
+	 * @return the data parsed from the request
+	 */
+	static ReservationData parse(ReservationParser parser, ReservationRequest request) {
+		try {
+			ReservationData data = parser.parse(request);
+			if (data != null) {
+				return data;
+			}
+		} catch (Exception e) {
+			// fail gracefully, but keep the failure visible to the caller
+			return new FailedReservationData(e);
+		}
+		return new DefaultReservationData();
+	}
+
+}
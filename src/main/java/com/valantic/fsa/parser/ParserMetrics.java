@@ -0,0 +1,54 @@
+package com.valantic.fsa.parser;
+
+/**
+ * Listener receiving the timing and outcome of each stage of a parse (see
+ * {@link BasicReservationParser#BasicReservationParser(ParserMetrics)}). It is called on the parsing thread,
+ * so implementations have to be thread-safe and fast (see {@link ParserStatistics}).
+ *
+ * @author M. Frick
+ */
+public interface ParserMetrics {
+
+	/**
+	 * The stages of a parse.
+	 */
+	public enum Stage {
+
+		/**
+		 * The extraction of the name from the original text.
+		 */
+		NAME,
+
+		/**
+		 * The normalization of the text.
+		 */
+		NORMALIZE,
+
+		/**
+		 * The extraction of the date.
+		 */
+		DATE,
+
+		/**
+		 * The extraction of the time.
+		 */
+		TIME,
+
+		/**
+		 * The extraction of the number of people.
+		 */
+		NUMBER_OF_PEOPLE
+
+	}
+
+	/**
+	 * Records a stage of a parse.
+	 *
+	 * @param stage the stage
+	 * @param nanos the duration of the stage in nanoseconds
+	 * @param matched true if the stage found a value (always true for the normalization), false if it found
+	 *            none or failed with an exception
+	 */
+	public void record(Stage stage, long nanos, boolean matched);
+
+}
@@ -0,0 +1,130 @@
+package com.valantic.fsa.parser;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe {@code ParserMetrics} aggregating the number of calls, matches, total and maximum time per stage.
+ *
+ * @author M. Frick
+ */
+public class ParserStatistics implements ParserMetrics {
+
+	/**
+	 * The number of calls per stage.
+	 */
+	private final Map<Stage, LongAdder> counts = new EnumMap<>(Stage.class);
+
+	/**
+	 * The number of matches per stage.
+	 */
+	private final Map<Stage, LongAdder> matches = new EnumMap<>(Stage.class);
+
+	/**
+	 * The total time per stage in nanoseconds.
+	 */
+	private final Map<Stage, LongAdder> totalNanos = new EnumMap<>(Stage.class);
+
+	/**
+	 * The maximum time per stage in nanoseconds.
+	 */
+	private final Map<Stage, LongAccumulator> maxNanos = new EnumMap<>(Stage.class);
+
+	/**
+	 * Constructs a new empty {@code ParserStatistics}.
+	 */
+	public ParserStatistics() {
+		for (Stage stage : Stage.values()) {
+			counts.put(stage, new LongAdder());
+			matches.put(stage, new LongAdder());
+			totalNanos.put(stage, new LongAdder());
+			maxNanos.put(stage, new LongAccumulator(Math::max, 0));
+		}
+	}
+
+	@Override
+	public void record(Stage stage, long nanos, boolean matched) {
+		counts.get(stage).increment();
+		if (matched) {
+			matches.get(stage).increment();
+		}
+		totalNanos.get(stage).add(nanos);
+		maxNanos.get(stage).accumulate(nanos);
+	}
+
+	/**
+	 * Returns the number of calls of a stage.
+	 *
+	 * @param stage the stage
+	 * @return the number of calls
+	 */
+	public long getCount(Stage stage) {
+		return counts.get(stage).sum();
+	}
+
+	/**
+	 * Returns the number of calls of a stage that found a value.
+	 *
+	 * @param stage the stage
+	 * @return the number of matches
+	 */
+	public long getMatches(Stage stage) {
+		return matches.get(stage).sum();
+	}
+
+	/**
+	 * Returns the total time of a stage.
+	 *
+	 * @param stage the stage
+	 * @return the total time in nanoseconds
+	 */
+	public long getTotalNanos(Stage stage) {
+		return totalNanos.get(stage).sum();
+	}
+
+	/**
+	 * Returns the maximum time of a stage.
+	 *
+	 * @param stage the stage
+	 * @return the maximum time in nanoseconds
+	 */
+	public long getMaxNanos(Stage stage) {
+		return maxNanos.get(stage).get();
+	}
+
+	/**
+	 * Returns the mean time of a stage.
+	 *
+	 * @param stage the stage
+	 * @return the mean time in nanoseconds (0 if the stage was not called)
+	 */
+	public double getMeanNanos(Stage stage) {
+		long count = this.getCount(stage);
+		return (count > 0) ? (double) this.getTotalNanos(stage) / count : 0;
+	}
+
+	/**
+	 * Resets all statistics.
+	 */
+	public void reset() {
+		for (Stage stage : Stage.values()) {
+			counts.get(stage).reset();
+			matches.get(stage).reset();
+			totalNanos.get(stage).reset();
+			maxNanos.get(stage).reset();
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Stage stage : Stage.values()) {
+			sb.append(String.format("%-16s count=%d matches=%d mean=%.0f ns max=%d ns%n", stage, this.getCount(stage),
+					this.getMatches(stage), this.getMeanNanos(stage), this.getMaxNanos(stage)));
+		}
+		return sb.toString();
+	}
+
+}
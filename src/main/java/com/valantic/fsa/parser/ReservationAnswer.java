@@ -0,0 +1,212 @@
+package com.valantic.fsa.parser;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.valantic.fsa.model.DefaultReservationData;
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.util.Formatters;
+
+/**
+ * The structured answer of the OpenAI API to a reservation request, i.e., the JSON object conforming to
+ * {@link #SCHEMA}. Missing names, dates and times are empty strings, a missing number of people is -1.
+ *
+ * @author M. Frick
+ */
+class ReservationAnswer {
+
+	/**
+	 * The name of the schema.
+	 */
+	static final String SCHEMA_NAME = "reservation";
+
+	/**
+	 * The JSON schema of the answer (all fields required and no others, as strict mode demands).
+	 */
+	static final String SCHEMA = "{\"type\":\"object\",\"properties\":{"
+			+ "\"name\":{\"type\":\"string\"},"
+			+ "\"date\":{\"type\":\"string\",\"description\":\"TT.MM.JJJJ oder leer\"},"
+			+ "\"time\":{\"type\":\"string\",\"description\":\"HH:mm oder leer\"},"
+			+ "\"numberOfPeople\":{\"type\":\"integer\",\"description\":\"-1 wenn nicht angegeben\"}},"
+			+ "\"required\":[\"name\",\"date\",\"time\",\"numberOfPeople\"],\"additionalProperties\":false}";
+
+	/**
+	 * The reader of answers (thread-safe, failing on unknown fields).
+	 */
+	private static final ObjectReader READER = new ObjectMapper().readerFor(ReservationAnswer.class);
+
+	/**
+	 * The name.
+	 */
+	private String name;
+
+	/**
+	 * The date (TT.MM.JJJJ).
+	 */
+	private String date;
+
+	/**
+	 * The time (HH:mm).
+	 */
+	private String time;
+
+	/**
+	 * The number of people.
+	 */
+	private Integer numberOfPeople;
+
+	/**
+	 * Reads an answer from the response of the OpenAI API and validates it.
+	 *
+	 * @param response the response from the OpenAI API
+	 * @param violations the list to add the violations of the schema to (empty if the answer is valid)
+	 * @return the answer, or null if the response is not an answer at all
+	 */
+	static ReservationAnswer read(String response, List<String> violations) {
+		if ((response == null) || response.isBlank()) {
+			violations.add("Die Antwort ist leer.");
+			return null;
+		}
+		try {
+			ReservationAnswer answer = READER.readValue(response);
+			if (answer == null) {
+				// the JSON literal null
+				violations.add("Die Antwort ist kein JSON-Objekt.");
+				return null;
+			}
+			violations.addAll(answer.validate());
+			return answer;
+		} catch (JsonProcessingException e) {
+			violations.add("Die Antwort ist kein gültiges JSON-Objekt des Schemas: " + e.getOriginalMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Validates the answer against the schema, including the formats of the date and time.
+	 *
+	 * @return the violations (empty if the answer is valid)
+	 */
+	List<String> validate() {
+		List<String> violations = new ArrayList<>();
+		if (name == null) {
+			violations.add("Das Feld \"name\" fehlt.");
+		}
+		if (date == null) {
+			violations.add("Das Feld \"date\" fehlt.");
+		} else if (!date.isBlank()) {
+			try {
+				LocalDate.parse(date.trim(), Formatters.DATE);
+			} catch (DateTimeParseException e) {
+				violations.add("Das Feld \"date\" ist kein Datum im Format TT.MM.JJJJ: \"" + date + "\".");
+			}
+		}
+		if (time == null) {
+			violations.add("Das Feld \"time\" fehlt.");
+		} else if (!time.isBlank()) {
+			try {
+				LocalTime.parse(time.trim(), Formatters.TIME);
+			} catch (DateTimeParseException e) {
+				violations.add("Das Feld \"time\" ist keine Uhrzeit im Format HH:mm: \"" + time + "\".");
+			}
+		}
+		if (numberOfPeople == null) {
+			violations.add("Das Feld \"numberOfPeople\" fehlt.");
+		} else if ((numberOfPeople == 0) || (numberOfPeople < -1)) {
+			violations.add("Das Feld \"numberOfPeople\" ist weder positiv noch -1: " + numberOfPeople + ".");
+		}
+		return violations;
+	}
+
+	/**
+	 * Maps the (valid) answer to reservation data.
+	 *
+	 * @return the reservation data
+	 */
+	ReservationData toReservationData() {
+		String trimmedName = (name != null) ? name.trim() : "";
+		return new DefaultReservationData(trimmedName.isEmpty() ? null : trimmedName,
+				((date != null) && !date.isBlank()) ? LocalDate.parse(date.trim(), Formatters.DATE) : null,
+				((time != null) && !time.isBlank()) ? LocalTime.parse(time.trim(), Formatters.TIME) : null,
+				(numberOfPeople != null) ? numberOfPeople : -1);
+	}
+
+	/**
+	 * Returns the name.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Sets the name.
+	 *
+	 * @param name the name
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the date.
+	 *
+	 * @return the date (TT.MM.JJJJ)
+	 */
+	public String getDate() {
+		return date;
+	}
+
+	/**
+	 * Sets the date.
+	 *
+	 * @param date the date (TT.MM.JJJJ)
+	 */
+	public void setDate(String date) {
+		this.date = date;
+	}
+
+	/**
+	 * Returns the time.
+	 *
+	 * @return the time (HH:mm)
+	 */
+	public String getTime() {
+		return time;
+	}
+
+	/**
+	 * Sets the time.
+	 *
+	 * @param time the time (HH:mm)
+	 */
+	public void setTime(String time) {
+		this.time = time;
+	}
+
+	/**
+	 * Returns the number of people.
+	 *
+	 * @return the number of people
+	 */
+	public Integer getNumberOfPeople() {
+		return numberOfPeople;
+	}
+
+	/**
+	 * Sets the number of people.
+	 *
+	 * @param numberOfPeople the number of people
+	 */
+	public void setNumberOfPeople(Integer numberOfPeople) {
+		this.numberOfPeople = numberOfPeople;
+	}
+
+}
@@ -1,5 +1,11 @@
 package com.valantic.fsa.parser;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import com.valantic.fsa.model.FailedReservationData;
 import com.valantic.fsa.model.ReservationData;
 import com.valantic.fsa.model.ReservationRequest;
 
@@ -18,4 +24,48 @@ public interface ReservationParser {
 	 */
 	public ReservationData parse(ReservationRequest request);
 
+	/**
+	 * Parses the reservation data from a list of reservation requests in parallel using the common pool.
+	 * 
+	 * @param requests the reservation requests
+	 * @return the data parsed from the requests (same order as the requests)
+	 * @see #parseAll(List, ForkJoinPool)
+	 */
+	public default List<ReservationData> parseAll(List<? extends ReservationRequest> requests) {
+		return this.parseAll(requests, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Parses the reservation data from a list of reservation requests in parallel using the given pool.
+	 * A request that cannot be parsed (i.e., the parser throws an exception) results in empty
+	 * {@link FailedReservationData} carrying the exception and does not affect the other requests. The parser
+	 * must be thread-safe.
+	 * 
+	 * @param requests the reservation requests (should support fast random access)
+	 * @param pool the pool to parse the requests in
+	 * @return the data parsed from the requests (same order as the requests)
+	 */
+	public default List<ReservationData> parseAll(List<? extends ReservationRequest> requests, ForkJoinPool pool) {
+		ReservationData[] results = new ReservationData[requests.size()];
+		if (results.length > 0) {
+			// split into a few tasks per worker to balance the load
+			int threshold = Math.max(1, results.length / (pool.getParallelism() * 8));
+			pool.invoke(new ParseAllTask(this, requests, results, 0, results.length, threshold));
+		}
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Parses the reservation data from a stream of reservation requests. The stream is parsed lazily and in
+	 * parallel if the stream is parallel, i.e., in the pool the terminal operation is invoked from (the common
+	 * pool unless invoked from a task of another pool). Failures are isolated as in
+	 * {@link #parseAll(List, ForkJoinPool)}.
+	 * 
+	 * @param requests the reservation requests
+	 * @return the data parsed from the requests (same encounter order as the requests)
+	 */
+	public default Stream<ReservationData> parseAll(Stream<? extends ReservationRequest> requests) {
+		return requests.map(request -> ParseAllTask.parse(this, request));
+	}
+
 }
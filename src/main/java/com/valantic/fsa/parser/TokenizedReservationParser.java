@@ -0,0 +1,506 @@
+package com.valantic.fsa.parser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import com.valantic.fsa.model.DefaultReservationData;
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.util.Formatters;
+import com.valantic.fsa.util.Lexer;
+import com.valantic.fsa.util.ParserUtils;
+import com.valantic.fsa.util.Patterns;
+import com.valantic.fsa.util.Token;
+import com.valantic.fsa.util.TokenType;
+
+/**
+ * Implementation of the {@code ReservationParser} interface that scans the normalized text only once (see
+ * {@link Lexer}) and extracts the date, time and number of people from the resulting tokens. It returns the
+ * same results as the {@code BasicReservationParser}.
+ *
+ * @author M. Frick
+ */
+public class TokenizedReservationParser extends BasicReservationParser {
+
+	@Override
+	public ReservationData parse(CharSequence text, LocalDateTime timestamp) {
+		text = ParserUtils.trim(text);
+		String name = this.extractName(text);
+
+		List<Token> tokens = Lexer.tokenize(ParserUtils.normalizeText(text));
+
+		LocalDate date = this.extractDate(tokens, timestamp.toLocalDate());
+
+		LocalTime time = this.extractTime(tokens);
+
+		int peopleCount = this.extractNumberOfPeople(tokens);
+
+		return new DefaultReservationData(name, date, time, peopleCount);
+	}
+
+	@Override
+	protected LocalDate extractDate(CharSequence normalizedText, LocalDate timestamp) {
+		return this.extractDate(Lexer.tokenize(normalizedText.toString()), timestamp);
+	}
+
+	@Override
+	protected LocalTime extractTime(CharSequence normalizedText) {
+		return this.extractTime(Lexer.tokenize(normalizedText.toString()));
+	}
+
+	@Override
+	protected int extractNumberOfPeople(CharSequence normalizedText) {
+		return this.extractNumberOfPeople(Lexer.tokenize(normalizedText.toString()));
+	}
+
+	/**
+	 * Extracts the date of the reservation from the tokens.
+	 *
+	 * @param tokens the tokens of the normalized text to extract the date from
+	 * @param timestamp the timestamp of the reservation request
+	 * @return the date of the reservation
+	 */
+	protected LocalDate extractDate(List<Token> tokens, LocalDate timestamp) {
+		// match date fragments, e.g., 12.04, 12.5.2024
+		String partialDate = null;
+		for (Token token : tokens) {
+			if (token.is(TokenType.DATE_FRAGMENT)) {
+				String[] numbers = digits(token);
+				String separators = separators(token);
+				for (int i = 0; i < separators.length(); i++) {
+					if (separators.charAt(i) != '.') {
+						continue;
+					}
+					if (partialDate == null) {
+						partialDate = last(numbers[i], 2) + "." + first(numbers[i + 1], 2);
+					}
+					if ((i + 1 < separators.length()) && (separators.charAt(i + 1) == '.')
+							&& (numbers[i + 1].length() <= 2) && (numbers[i + 2].length() >= 2)) {
+						return LocalDate.parse(last(numbers[i], 2) + "." + numbers[i + 1] + "." + first(numbers[i + 2], 4),
+								Formatters.DATE);
+					}
+				}
+			}
+		}
+		if (partialDate != null) {
+			return LocalDate.parse(partialDate, Formatters.PARTIAL_DATE);
+		}
+
+		// special cases
+		boolean isTomorrow = false;
+		for (Token token : tokens) {
+			if (token.is(TokenType.RELATIVE_DAY)) {
+				if (token.contains("uebermorgen")) {
+					return timestamp.plusDays(2);
+				}
+				isTomorrow = true;
+			}
+		}
+		if (isTomorrow) {
+			return timestamp.plusDays(1);
+		}
+
+		LocalDate date = this.parseRelativeDate(tokens, timestamp);
+		if (date != null) {
+			return date;
+		}
+
+		date = this.parseWeekday(tokens, timestamp);
+		if (date != null) {
+			return date;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Parses a relative date from the tokens.
+	 *
+	 * @param tokens the tokens to parse the relative date from
+	 * @param timestamp the timestamp of the reservation request
+	 * @return the relative date
+	 */
+	private LocalDate parseRelativeDate(List<Token> tokens, LocalDate timestamp) {
+		// match in x pattern
+		LocalDate date = timestamp;
+		for (int i = 0; i + 2 < tokens.size(); i++) {
+			Token in = tokens.get(i);
+			Token amount = tokens.get(i + 1);
+			Token unit = tokens.get(i + 2);
+			if (in.is(TokenType.WORD) && in.endsWith("in")
+					&& amount.is(TokenType.NUMBER) && isSeparated(in, amount)
+					&& unit.is(TokenType.WORD) && isSeparated(amount, unit)) {
+				try {
+					int valueToAdd = Integer.parseInt(amount.getText());
+					if (unit.startsWith("tagen")) {
+						date = date.plusDays(valueToAdd);
+					} else if (unit.startsWith("wochen")) {
+						date = date.plusWeeks(valueToAdd);
+					} else if (unit.startsWith("monaten")) {
+						date = date.plusMonths(valueToAdd);
+					} else if (unit.startsWith("jahren")) {
+						date = date.plusYears(valueToAdd);
+					}
+				} catch (Exception e) {
+					// fail gracefully
+				}
+			}
+		}
+		if (date != timestamp) {
+			return date;
+		}
+
+		// match next day/week/month/year pattern
+		for (int i = 0; i + 1 < tokens.size(); i++) {
+			Token keyword = tokens.get(i);
+			Token unit = tokens.get(i + 1);
+			if (keyword.is(TokenType.RELATIVE_KEYWORD) && unit.is(TokenType.WORD) && isSeparated(keyword, unit)) {
+				int amount = this.isAfterNext(keyword) ? 2 : 1;
+				if (unit.startsWith("tage")) {
+					return timestamp.plusDays(amount);
+				} else if (unit.startsWith("woche")) {
+					return timestamp.plusWeeks(amount);
+				} else if (unit.startsWith("monat")) {
+					return timestamp.plusMonths(amount);
+				} else if (unit.startsWith("jahr")) {
+					return timestamp.plusYears(amount);
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Parses a weekday from the tokens.
+	 *
+	 * @param tokens the tokens to parse the weekday from
+	 * @param timestamp the timestamp of the reservation request
+	 * @return the weekday
+	 */
+	private LocalDate parseWeekday(List<Token> tokens, LocalDate timestamp) {
+		for (int i = 1; i < tokens.size(); i++) {
+			Token previous = tokens.get(i - 1);
+			Token weekdayToken = tokens.get(i);
+			if (weekdayToken.is(TokenType.WEEKDAY) && isSeparated(previous, weekdayToken)) {
+				int weekday = 0;
+				for (String weekdayName : ParserUtils.weekdays()) {
+					if (weekdayToken.startsWith(weekdayName)) {
+						weekday = ParserUtils.weekdayToInteger(weekdayName);
+						break;
+					}
+				}
+				int currentDay = timestamp.getDayOfWeek().getValue();
+				int daysToAdd = (weekday - currentDay + 7) % 7;
+				if (daysToAdd == 0) {
+					daysToAdd = 7; // go to next week
+				}
+				boolean isWeekAfterNext = previous.is(TokenType.RELATIVE_KEYWORD)
+						? this.isAfterNext(previous) : previous.endsWith("ueber");
+				if (isWeekAfterNext) {
+					daysToAdd += 7; // go to week after next
+				}
+				return timestamp.plusDays(daysToAdd);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if a relative keyword is preceded by "ueber", e.g., "uebernaechste".
+	 *
+	 * @param keyword the token ending with a relative keyword
+	 * @return true if the relative keyword is preceded by "ueber", false otherwise
+	 */
+	private boolean isAfterNext(Token keyword) {
+		for (String relativeKeyword : Patterns.relativeKeywords()) {
+			if (keyword.endsWith(relativeKeyword)) {
+				return keyword.endsWithWords("ueber" + relativeKeyword);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Extracts the time of the reservation from the tokens.
+	 *
+	 * @param tokens the tokens of the normalized text to extract the time from
+	 * @return the time of the reservation
+	 */
+	protected LocalTime extractTime(List<Token> tokens) {
+		// match time range pattern
+		LocalTime time = this.parseTimeRange(tokens);
+		if (time == null) {
+			// match time pattern, e.g., 9:45 or 9 uhr
+			for (int i = 0; (i < tokens.size()) && (time == null); i++) {
+				Token token = tokens.get(i);
+				if (!isNumeric(token)) {
+					continue;
+				}
+				String[] numbers = digits(token);
+				String separators = separators(token);
+				for (int j = 0; (j < separators.length()) && (time == null); j++) {
+					if ((separators.charAt(j) == ':') && (numbers[j + 1].length() >= 2)) {
+						time = LocalTime.parse(last(numbers[j], 2) + ":" + first(numbers[j + 1], 2), Formatters.TIME);
+					}
+				}
+				if ((time == null) && (i + 1 < tokens.size()) && tokens.get(i + 1).is(TokenType.TIME_MARKER)) {
+					time = LocalTime.parse(last(numbers[numbers.length - 1], 2), Formatters.TIME);
+				}
+			}
+		}
+
+		if (time != null) {
+			// apply hourly offsets
+			if (isAny(tokens, TokenType.MORNING_MARKER) && time.getHour() > 12) {
+				return time.minusHours(12);
+			}
+
+			if (isAny(tokens, TokenType.EVENING_MARKER) && time.getHour() < 12) {
+				return time.plusHours(12);
+			}
+
+			return time;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Parses a time range from the tokens, e.g., zwischen 18 und 19:30 uhr.
+	 *
+	 * @param tokens the tokens to parse the time range from
+	 * @return the time range
+	 */
+	private LocalTime parseTimeRange(List<Token> tokens) {
+		for (int i = 0; i + 4 < tokens.size(); i++) {
+			Token between = tokens.get(i);
+			Token from = tokens.get(i + 1);
+			Token to = tokens.get(i + 3);
+			if (between.is(TokenType.WORD) && between.endsWith("zwischen") && isSeparated(between, from)
+					&& isTimeOfRange(from) && isRangeSeparator(tokens.get(i + 2)) && isTimeOfRange(to)
+					&& tokens.get(i + 4).is(TokenType.TIME_MARKER)) {
+				LocalTime time1 = LocalTime.parse(from.getText(), Formatters.TIME);
+				LocalTime time2 = LocalTime.parse(to.getText(), Formatters.TIME);
+				return (time1.compareTo(time2) == -1) ? time1 : time2;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if a token is a time within a time range, e.g., 9 or 9:45.
+	 *
+	 * @param token the token to check
+	 * @return true if the token is a time within a time range, false otherwise
+	 */
+	private boolean isTimeOfRange(Token token) {
+		if (token.is(TokenType.NUMBER)) {
+			return token.length() <= 2;
+		}
+		if (token.is(TokenType.TIME_FRAGMENT)) {
+			String[] numbers = digits(token);
+			return (numbers.length == 2) && (numbers[0].length() <= 2) && (numbers[1].length() == 2);
+		}
+		return false;
+	}
+
+	/**
+	 * Extracts the number of people for the reservation from the tokens.
+	 *
+	 * @param tokens the tokens of the normalized text to extract the number of people from
+	 * @return the number of people for the reservation
+	 */
+	protected int extractNumberOfPeople(List<Token> tokens) {
+		// match simple people count pattern, e.g., 4 personen
+		int numberOfPeople = -1;
+		for (int i = 0; i + 1 < tokens.size(); i++) {
+			Token amount = tokens.get(i);
+			Token people = tokens.get(i + 1);
+			if (isNumeric(amount) && people.is(TokenType.PEOPLE_NOUN) && isSeparated(amount, people)) {
+				String[] numbers = digits(amount);
+				numberOfPeople = Math.max(numberOfPeople, Integer.parseInt(numbers[numbers.length - 1]));
+			}
+		}
+		if (numberOfPeople >= 0) {
+			return numberOfPeople;
+		}
+
+		numberOfPeople = this.parsePeopleCount(tokens);
+		if (numberOfPeople >= 0) {
+			return numberOfPeople;
+		}
+
+		numberOfPeople = this.parsePeopleRange(tokens);
+		if (numberOfPeople >= 0) {
+			return numberOfPeople;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Parses the number of people from the tokens, e.g., fuer 4 or mindestens 4.
+	 *
+	 * @param tokens the tokens to parse the people count from
+	 * @return the number of people for the reservation
+	 */
+	private int parsePeopleCount(List<Token> tokens) {
+		int numberOfPeople = -1;
+		for (int i = 0; i + 1 < tokens.size(); i++) {
+			Token keyword = tokens.get(i);
+			Token amount = tokens.get(i + 1);
+			if (keyword.is(TokenType.WORD) && isPeopleCountKeyword(keyword)
+					&& isNumeric(amount) && isSeparated(keyword, amount)) {
+				try {
+					boolean isTimePattern = amount.is(TokenType.NUMBER)
+							&& (i + 2 < tokens.size()) && tokens.get(i + 2).is(TokenType.TIME_MARKER);
+					if (!isTimePattern) {
+						numberOfPeople = Math.max(numberOfPeople, Integer.parseInt(digits(amount)[0]));
+					}
+				} catch (Exception e) {
+					// fail gracefully
+				}
+			}
+		}
+		return numberOfPeople;
+	}
+
+	/**
+	 * Checks if a word ends with a keyword preceding the number of people, e.g., fuer or nicht mehr als.
+	 *
+	 * @param keyword the word to check
+	 * @return true if the word ends with a people count keyword, false otherwise
+	 */
+	private boolean isPeopleCountKeyword(Token keyword) {
+		return keyword.endsWith("zu") || keyword.endsWith("sind") || keyword.endsWith("fuer")
+				|| keyword.endsWith("mindestens")
+				|| keyword.endsWithWords("nicht", "mehr", "als");
+	}
+
+	/**
+	 * Parses a people range from the tokens, e.g., mit 3-4 personen.
+	 *
+	 * @param tokens the tokens to parse the people range from
+	 * @return the number of people for the reservation
+	 */
+	private int parsePeopleRange(List<Token> tokens) {
+		int numberOfPeople = -1;
+		for (int i = 0; i + 4 < tokens.size(); i++) {
+			Token keyword = tokens.get(i);
+			Token amount1 = tokens.get(i + 1);
+			Token amount2 = tokens.get(i + 3);
+			Token people = tokens.get(i + 4);
+			if (keyword.is(TokenType.WORD) && (keyword.endsWith("zwischen") || keyword.endsWith("mit"))
+					&& amount1.is(TokenType.NUMBER) && isSeparated(keyword, amount1)
+					&& isRangeSeparator(tokens.get(i + 2)) && amount2.is(TokenType.NUMBER)
+					&& people.is(TokenType.PEOPLE_NOUN) && isSeparated(amount2, people)) {
+				try {
+					Integer value1 = Integer.parseInt(amount1.getText());
+					Integer value2 = Integer.parseInt(amount2.getText());
+					numberOfPeople = Math.max(numberOfPeople, Math.max(value1, value2));
+				} catch (Exception e) {
+					// fail gracefully
+				}
+			}
+		}
+		return numberOfPeople;
+	}
+
+	/**
+	 * Checks if a token separates a range, i.e., und, bis or -.
+	 *
+	 * @param token the token to check
+	 * @return true if the token separates a range, false otherwise
+	 */
+	private boolean isRangeSeparator(Token token) {
+		return token.textEquals("und") || token.textEquals("bis") || token.textEquals("-");
+	}
+
+	/**
+	 * Checks if two tokens are separated by whitespace.
+	 *
+	 * @param first the first token
+	 * @param second the second token, following the first
+	 * @return true if the tokens are separated by whitespace, false otherwise
+	 */
+	private static boolean isSeparated(Token first, Token second) {
+		return first.getEnd() < second.getStart();
+	}
+
+	/**
+	 * Checks if a token is a number, a date fragment or a time fragment.
+	 *
+	 * @param token the token to check
+	 * @return true if the token is numeric, false otherwise
+	 */
+	private static boolean isNumeric(Token token) {
+		return token.is(TokenType.NUMBER) || token.is(TokenType.DATE_FRAGMENT) || token.is(TokenType.TIME_FRAGMENT);
+	}
+
+	/**
+	 * Checks if any token has the given type.
+	 *
+	 * @param tokens the tokens to check
+	 * @param type the type to check
+	 * @return true if any token has the type, false otherwise
+	 */
+	private static boolean isAny(List<Token> tokens, TokenType type) {
+		for (Token token : tokens) {
+			if (token.is(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the digits of a numeric token, e.g., [1, 5, 2024] for 1.5.2024.
+	 *
+	 * @param token the numeric token
+	 * @return the digits of the token
+	 */
+	private static String[] digits(Token token) {
+		return token.getText().split("[.:]");
+	}
+
+	/**
+	 * Returns the separators of a numeric token, e.g., ".." for 1.5.2024.
+	 *
+	 * @param token the numeric token
+	 * @return the separators of the token
+	 */
+	private static String separators(Token token) {
+		StringBuilder sb = new StringBuilder();
+		for (char c : token.getText().toCharArray()) {
+			if ((c == '.') || (c == ':')) {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the first digits of a number.
+	 *
+	 * @param digits the digits of the number
+	 * @param count the number of digits to return
+	 * @return the first digits
+	 */
+	private static String first(String digits, int count) {
+		return digits.substring(0, Math.min(count, digits.length()));
+	}
+
+	/**
+	 * Returns the last digits of a number.
+	 *
+	 * @param digits the digits of the number
+	 * @param count the number of digits to return
+	 * @return the last digits
+	 */
+	private static String last(String digits, int count) {
+		return digits.substring(Math.max(0, digits.length() - count));
+	}
+
+}
@@ -0,0 +1,294 @@
+package com.valantic.fsa.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.valantic.fsa.io.ReservationDataWriter;
+import com.valantic.fsa.io.ReservationRequestReader;
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.model.ReservationRequest;
+import com.valantic.fsa.parser.ReservationParser;
+
+/**
+ * An embedded HTTP service parsing reservation requests. {@code POST /parse} accepts either a JSON object
+ * {@code {"text": ..., "timestamp": ...}} or the plain text of the request with an optional {@code timestamp}
+ * query parameter (ISO date time or date, default now), and answers with the reservation data as JSON (see
+ * {@link ReservationDataWriter}). Request bodies larger than the configured limit are rejected with status 413.
+ * <p>
+ * Each request is handled by a thread of its own; on Java 21 and later these are virtual threads, so parsers
+ * blocking for seconds (e.g., calling the OpenAI API) do not limit the number of concurrent requests. On older
+ * Java versions a pool of {@value #FALLBACK_THREADS} platform threads is used.
+ *
+ * @author M. Frick
+ */
+public class ReservationService implements AutoCloseable {
+
+	/**
+	 * The default maximum size of a request body in bytes.
+	 */
+	public static final int DEFAULT_MAX_REQUEST_BYTES = 16 * 1024;
+
+	/**
+	 * The path of the parse endpoint.
+	 */
+	public static final String PATH = "/parse";
+
+	/**
+	 * The maximum number of pending connections.
+	 */
+	private static final int BACKLOG = 4096;
+
+	/**
+	 * The number of platform threads if virtual threads are not available.
+	 */
+	static final int FALLBACK_THREADS = 256;
+
+	/**
+	 * The parser.
+	 */
+	private final ReservationParser parser;
+
+	/**
+	 * The maximum size of a request body in bytes.
+	 */
+	private final int maxRequestBytes;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+	/**
+	 * Constructs a new service using the given parser, listening on the given port of all interfaces.
+	 *
+	 * @param parser the parser
+	 * @param port the port (0 for a free port)
+	 * @throws IOException if the port cannot be bound
+	 */
+	public ReservationService(ReservationParser parser, int port) throws IOException {
+		this(parser, new InetSocketAddress(port), DEFAULT_MAX_REQUEST_BYTES);
+	}
+
+	/**
+	 * Constructs a new service using the given parser, listening on the given address.
+	 *
+	 * @param parser the parser
+	 * @param address the address to listen on
+	 * @param maxRequestBytes the maximum size of a request body in bytes
+	 * @throws IOException if the address cannot be bound
+	 */
+	public ReservationService(ReservationParser parser, InetSocketAddress address, int maxRequestBytes)
+			throws IOException {
+		if (maxRequestBytes < 1) {
+			throw new IllegalArgumentException("Maximum request size must be positive: " + maxRequestBytes);
+		}
+		this.parser = parser;
+		this.maxRequestBytes = maxRequestBytes;
+		this.executor = createExecutor();
+		this.server = HttpServer.create(address, BACKLOG);
+		server.createContext(PATH, this::handle);
+		server.setExecutor(executor);
+	}
+
+	/**
+	 * Starts the service.
+	 *
+	 * @return this service
+	 */
+	public ReservationService start() {
+		server.start();
+		return this;
+	}
+
+	/**
+	 * Stops the service, waiting at most one second for running requests.
+	 */
+	@Override
+	public void close() {
+		server.stop(1);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Returns the port the service listens on.
+	 *
+	 * @return the port
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Returns the maximum size of a request body.
+	 *
+	 * @return the maximum size in bytes
+	 */
+	public int getMaxRequestBytes() {
+		return maxRequestBytes;
+	}
+
+	/**
+	 * Creates the executor running one thread per request: a virtual thread if available (Java 21 and later),
+	 * otherwise a thread of a fixed pool of platform threads.
+	 *
+	 * @return the executor
+	 */
+	static ExecutorService createExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			// fail gracefully, i.e., use platform threads
+		}
+		return Executors.newFixedThreadPool(FALLBACK_THREADS, runnable -> {
+			Thread thread = new Thread(runnable, "reservation-service");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Handles a request of the parse endpoint.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @throws IOException if the response cannot be sent
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			if (!"POST".equals(exchange.getRequestMethod())) {
+				exchange.getResponseHeaders().add("Allow", "POST");
+				this.respondError(exchange, 405, "Method not allowed");
+				return;
+			}
+			byte[] body = this.readBody(exchange);
+			if (body == null) {
+				this.respondError(exchange, 413, "Request larger than " + maxRequestBytes + " bytes");
+				return;
+			}
+
+			ReservationRequest request;
+			try {
+				request = this.createRequest(exchange, body);
+			} catch (IOException e) {
+				this.respondError(exchange, 400, e.getMessage());
+				return;
+			}
+
+			ReservationData data;
+			try {
+				data = parser.parse(request);
+			} catch (Exception e) {
+				this.respondError(exchange, 500, "Parsing failed: " + e.getMessage());
+				return;
+			}
+
+			ByteArrayOutputStream json = new ByteArrayOutputStream(128);
+			try (ReservationDataWriter writer = new ReservationDataWriter(json)) {
+				writer.write(data);
+			}
+			this.respond(exchange, 200, json.toByteArray());
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Reads the request body up to the maximum size.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @return the request body, or null if it is larger than the maximum size
+	 * @throws IOException if the body cannot be read
+	 */
+	private byte[] readBody(HttpExchange exchange) throws IOException {
+		String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+		try {
+			if ((contentLength != null) && (Long.parseLong(contentLength.trim()) > maxRequestBytes)) {
+				return null;
+			}
+		} catch (NumberFormatException e) {
+			// fail gracefully, i.e., count the bytes read
+		}
+		byte[] body = exchange.getRequestBody().readNBytes(maxRequestBytes + 1);
+		return (body.length <= maxRequestBytes) ? body : null;
+	}
+
+	/**
+	 * Creates the reservation request from a JSON or plain text body.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @param body the request body
+	 * @return the reservation request
+	 * @throws IOException if the body or the timestamp is malformed
+	 */
+	private ReservationRequest createRequest(HttpExchange exchange, byte[] body) throws IOException {
+		String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+		if ((contentType != null) && contentType.toLowerCase().startsWith("application/json")) {
+			JsonNode node = mapper.readTree(body);
+			if ((node == null) || !node.path("text").isTextual()) {
+				throw new IOException("Missing text in request");
+			}
+			JsonNode timestamp = node.path("timestamp");
+			return ReservationRequestReader.createRequest(node.get("text").asText(),
+					timestamp.isTextual() ? timestamp.asText() : null);
+		}
+		return ReservationRequestReader.createRequest(new String(body, StandardCharsets.UTF_8),
+				this.getQueryParameter(exchange, "timestamp"));
+	}
+
+	/**
+	 * Returns the value of a query parameter.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @param name the name of the parameter
+	 * @return the decoded value, or null if there is no such parameter
+	 */
+	private String getQueryParameter(HttpExchange exchange, String name) {
+		String query = exchange.getRequestURI().getRawQuery();
+		if (query != null) {
+			for (String parameter : query.split("&")) {
+				int separator = parameter.indexOf('=');
+				if ((separator > 0) && parameter.substring(0, separator).equals(name)) {
+					return URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Sends an error response {@code {"error": ...}}.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @param status the HTTP status
+	 * @param message the error message
+	 * @throws IOException if the response cannot be sent
+	 */
+	private void respondError(HttpExchange exchange, int status, String message) throws IOException {
+		this.respond(exchange, status, mapper.writeValueAsBytes(mapper.createObjectNode().put("error", message)));
+	}
+
+	/**
+	 * Sends a JSON response.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @param status the HTTP status
+	 * @param body the response body
+	 * @throws IOException if the response cannot be sent
+	 */
+	private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+}
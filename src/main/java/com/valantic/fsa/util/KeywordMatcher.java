@@ -0,0 +1,325 @@
+package com.valantic.fsa.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-keyword matcher based on the Aho-Corasick automaton. The automaton is built once from a fixed set of
+ * keywords and finds all (possibly overlapping) occurrences of the keywords in a text in a single linear scan.
+ * Each keyword is associated with a value, e.g., the type of the keyword.
+ *
+ * @param <T> the type of the values associated with the keywords
+ * @author M. Frick
+ */
+public class KeywordMatcher<T> {
+
+	/**
+	 * The keywords of the matcher.
+	 */
+	private final String[] keywords;
+
+	/**
+	 * The values associated with the keywords.
+	 */
+	private final List<T> values;
+
+	/**
+	 * Maps a character to its index in the alphabet of the keywords (-1 if not part of the alphabet).
+	 */
+	private final int[] alphabet;
+
+	/**
+	 * The size of the alphabet of the keywords.
+	 */
+	private final int alphabetSize;
+
+	/**
+	 * The transition table of the automaton, i.e., the next state for each state and character index.
+	 */
+	private final int[] transitions;
+
+	/**
+	 * The keyword ending in each state (-1 if no keyword ends in the state).
+	 */
+	private final int[] keywordOf;
+
+	/**
+	 * The next state on the failure path ending a keyword (-1 if there is none).
+	 */
+	private final int[] outputLinks;
+
+	/**
+	 * Constructs a new {@code KeywordMatcher} for the specified keywords.
+	 *
+	 * @param keywords the keywords with their associated values (keywords must not be empty)
+	 */
+	public KeywordMatcher(Map<String, T> keywords) {
+		this.keywords = keywords.keySet().toArray(new String[0]);
+		this.values = Collections.unmodifiableList(new ArrayList<>(keywords.values()));
+
+		// build alphabet
+		char maxChar = 0;
+		for (String keyword : this.keywords) {
+			if (keyword.isEmpty()) {
+				throw new IllegalArgumentException("Keywords must not be empty");
+			}
+			for (char c : keyword.toCharArray()) {
+				maxChar = (char) Math.max(maxChar, c);
+			}
+		}
+		this.alphabet = new int[maxChar + 1];
+		Arrays.fill(this.alphabet, -1);
+		int size = 0;
+		for (String keyword : this.keywords) {
+			for (char c : keyword.toCharArray()) {
+				if (this.alphabet[c] < 0) {
+					this.alphabet[c] = size++;
+				}
+			}
+		}
+		this.alphabetSize = size;
+
+		// build trie
+		int maxStates = 1;
+		for (String keyword : this.keywords) {
+			maxStates += keyword.length();
+		}
+		int[] trie = new int[maxStates * size];
+		int[] keywordOf = new int[maxStates];
+		Arrays.fill(keywordOf, -1);
+		int states = 1;
+		for (int k = 0; k < this.keywords.length; k++) {
+			int state = 0;
+			for (char c : this.keywords[k].toCharArray()) {
+				int index = state * size + this.alphabet[c];
+				if (trie[index] == 0) {
+					trie[index] = states++;
+				}
+				state = trie[index];
+			}
+			keywordOf[state] = k;
+		}
+
+		// build failure and output links (breadth first), turning the trie into a deterministic automaton
+		this.transitions = Arrays.copyOf(trie, states * size);
+		this.keywordOf = Arrays.copyOf(keywordOf, states);
+		this.outputLinks = new int[states];
+		int[] failureLinks = new int[states];
+		Arrays.fill(this.outputLinks, -1);
+		Deque<Integer> queue = new ArrayDeque<>();
+		for (int c = 0; c < size; c++) {
+			if (this.transitions[c] != 0) {
+				queue.add(this.transitions[c]);
+			}
+		}
+		while (!queue.isEmpty()) {
+			int state = queue.poll();
+			for (int c = 0; c < size; c++) {
+				int index = state * size + c;
+				int failure = this.transitions[failureLinks[state] * size + c];
+				if (this.transitions[index] == 0) {
+					this.transitions[index] = failure;
+				} else {
+					int next = this.transitions[index];
+					failureLinks[next] = failure;
+					this.outputLinks[next] = (this.keywordOf[failure] >= 0) ? failure : this.outputLinks[failure];
+					queue.add(next);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds all occurrences of the keywords in the text.
+	 *
+	 * @param text the text to search in
+	 * @return the matches ordered by their end index (and by descending length for the same end index)
+	 */
+	public List<Match<T>> findAll(CharSequence text) {
+		return this.findAll(text, 0, text.length());
+	}
+
+	/**
+	 * Finds all occurrences of the keywords in the given region of the text.
+	 *
+	 * @param text the text to search in
+	 * @param start the start index of the region (inclusive)
+	 * @param end the end index of the region (exclusive)
+	 * @return the matches ordered by their end index (and by descending length for the same end index)
+	 */
+	public List<Match<T>> findAll(CharSequence text, int start, int end) {
+		List<Match<T>> matches = new ArrayList<>();
+		int state = 0;
+		for (int i = start; i < end; i++) {
+			state = this.next(state, text.charAt(i));
+			for (int s = (this.keywordOf[state] >= 0) ? state : this.outputLinks[state]; s >= 0; s = this.outputLinks[s]) {
+				String keyword = this.keywords[this.keywordOf[s]];
+				matches.add(new Match<>(keyword, this.values.get(this.keywordOf[s]), i + 1 - keyword.length(), i + 1));
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Finds the start indices of all occurrences of the keywords with the given value in the text.
+	 *
+	 * @param text the text to search in
+	 * @param value the value of the keywords to search for
+	 * @return the set of start indices
+	 */
+	public BitSet findStarts(CharSequence text, T value) {
+		return this.findStarts(text, value, new BitSet(text.length()));
+	}
+
+	/**
+	 * Finds the start indices of all occurrences of the keywords with the given value in the text.
+	 *
+	 * @param text the text to search in
+	 * @param value the value of the keywords to search for
+	 * @param starts the bit set to reuse (cleared first)
+	 * @return the given bit set containing the start indices
+	 */
+	public BitSet findStarts(CharSequence text, T value, BitSet starts) {
+		starts.clear();
+		int state = 0;
+		for (int i = 0; i < text.length(); i++) {
+			state = this.next(state, text.charAt(i));
+			for (int s = (this.keywordOf[state] >= 0) ? state : this.outputLinks[state]; s >= 0; s = this.outputLinks[s]) {
+				if (value.equals(this.values.get(this.keywordOf[s]))) {
+					starts.set(i + 1 - this.keywords[this.keywordOf[s]].length());
+				}
+			}
+		}
+		return starts;
+	}
+
+	/**
+	 * Checks whether the text contains any keyword with the given value.
+	 *
+	 * @param text the text to search in
+	 * @param value the value of the keywords to search for
+	 * @return true if a keyword with the value occurs in the text, false otherwise
+	 */
+	public boolean contains(CharSequence text, T value) {
+		int state = 0;
+		for (int i = 0; i < text.length(); i++) {
+			state = this.next(state, text.charAt(i));
+			for (int s = (this.keywordOf[state] >= 0) ? state : this.outputLinks[state]; s >= 0; s = this.outputLinks[s]) {
+				if (value.equals(this.values.get(this.keywordOf[s]))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the next state of the automaton.
+	 *
+	 * @param state the current state
+	 * @param c the next character of the text
+	 * @return the next state
+	 */
+	private int next(int state, char c) {
+		int index = (c < this.alphabet.length) ? this.alphabet[c] : -1;
+		return (index < 0) ? 0 : this.transitions[state * this.alphabetSize + index];
+	}
+
+	/**
+	 * An occurrence of a keyword in a text.
+	 *
+	 * @param <T> the type of the value associated with the keyword
+	 */
+	public static class Match<T> {
+
+		/**
+		 * The keyword found.
+		 */
+		private final String keyword;
+
+		/**
+		 * The value associated with the keyword.
+		 */
+		private final T value;
+
+		/**
+		 * The start index of the keyword in the text (inclusive).
+		 */
+		private final int start;
+
+		/**
+		 * The end index of the keyword in the text (exclusive).
+		 */
+		private final int end;
+
+		/**
+		 * Constructs a new {@code Match} with the specified keyword, value and region.
+		 *
+		 * @param keyword the keyword found
+		 * @param value the value associated with the keyword
+		 * @param start the start index of the keyword in the text (inclusive)
+		 * @param end the end index of the keyword in the text (exclusive)
+		 */
+		Match(String keyword, T value, int start, int end) {
+			this.keyword = keyword;
+			this.value = value;
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * Returns the keyword found.
+		 *
+		 * @return the keyword
+		 */
+		public String getKeyword() {
+			return keyword;
+		}
+
+		/**
+		 * Returns the value associated with the keyword.
+		 *
+		 * @return the value
+		 */
+		public T getValue() {
+			return value;
+		}
+
+		/**
+		 * Returns the start index of the keyword in the text.
+		 *
+		 * @return the start index (inclusive)
+		 */
+		public int getStart() {
+			return start;
+		}
+
+		/**
+		 * Returns the end index of the keyword in the text.
+		 *
+		 * @return the end index (exclusive)
+		 */
+		public int getEnd() {
+			return end;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append("Match[")
+				.append("keyword='").append(this.getKeyword())
+				.append("', value=").append(this.getValue())
+				.append(", start=").append(this.getStart())
+				.append("]");
+			return sb.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.valantic.fsa.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lexer turning a normalized text (see {@link ParserUtils#normalizeText(CharSequence)}) into a stream of typed tokens
+ * in a single pass. Whitespace is skipped, hence two consecutive tokens are separated by whitespace only.
+ *
+ * @author M. Frick
+ */
+public class Lexer {
+
+	/**
+	 * Splits a normalized text into tokens.
+	 *
+	 * @param normalizedText the normalized text to split
+	 * @return the tokens of the text
+	 */
+	public static List<Token> tokenize(String normalizedText) {
+		List<Token> tokens = new ArrayList<>();
+		int length = normalizedText.length();
+		int i = 0;
+		while (i < length) {
+			char c = normalizedText.charAt(i);
+			int start = i;
+			if (isWhitespace(c)) {
+				i++;
+			} else if (isDigit(c)) {
+				// numbers separated by dots or colons, e.g., 1.5.2025 or 9:45
+				i = skipDigits(normalizedText, i);
+				TokenType type = TokenType.NUMBER;
+				while (isSeparatedDigit(normalizedText, i)) {
+					if ((normalizedText.charAt(i) == '.') || (type == TokenType.DATE_FRAGMENT)) {
+						type = TokenType.DATE_FRAGMENT;
+					} else {
+						type = TokenType.TIME_FRAGMENT;
+					}
+					i = skipDigits(normalizedText, i + 1);
+				}
+				tokens.add(new Token(normalizedText, type, 0, start, i));
+			} else if (Character.isLetter(c)) {
+				while ((i < length) && Character.isLetter(normalizedText.charAt(i))) {
+					i++;
+				}
+				tokens.add(new Token(normalizedText, TokenType.WORD, classify(normalizedText, start, i), start, i));
+			} else {
+				i++;
+				tokens.add(new Token(normalizedText, TokenType.SYMBOL, 0, start, i));
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * Classifies a word.
+	 *
+	 * @param text the text containing the word
+	 * @param start the start index of the word (inclusive)
+	 * @param end the end index of the word (exclusive)
+	 * @return the set of types of the word
+	 */
+	private static int classify(String text, int start, int end) {
+		int types = 0;
+		for (KeywordMatcher.Match<TokenType> keyword : Patterns.KEYWORDS.findAll(text, start, end)) {
+			switch (keyword.getValue()) {
+				case WEEKDAY:
+				case PEOPLE_NOUN:
+				case TIME_MARKER:
+					// prefix of the word
+					if (keyword.getStart() == start) {
+						types |= keyword.getValue().bit();
+					}
+					break;
+				case RELATIVE_KEYWORD:
+					// suffix of the word
+					if (keyword.getEnd() == end) {
+						types |= keyword.getValue().bit();
+					}
+					break;
+				default:
+					types |= keyword.getValue().bit();
+					break;
+			}
+		}
+		return types;
+	}
+
+	/**
+	 * Checks if the character at the given index is a dot or colon followed by a digit.
+	 *
+	 * @param text the text to check
+	 * @param index the index of the separator
+	 * @return true if there is a separator followed by a digit, false otherwise
+	 */
+	private static boolean isSeparatedDigit(String text, int index) {
+		return (index + 1 < text.length()) && ((text.charAt(index) == '.') || (text.charAt(index) == ':'))
+				&& isDigit(text.charAt(index + 1));
+	}
+
+	/**
+	 * Skips the digits starting at the given index.
+	 *
+	 * @param text the text to skip the digits in
+	 * @param index the index to start at
+	 * @return the index after the digits
+	 */
+	private static int skipDigits(String text, int index) {
+		while ((index < text.length()) && isDigit(text.charAt(index))) {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * Checks if a character is a digit (same as {@code \d} in a regular expression).
+	 *
+	 * @param c the character to check
+	 * @return true if the character is a digit, false otherwise
+	 */
+	private static boolean isDigit(char c) {
+		return (c >= '0') && (c <= '9');
+	}
+
+	/**
+	 * Checks if a character is whitespace (same as {@code \s} in a regular expression).
+	 *
+	 * @param c the character to check
+	 * @return true if the character is whitespace, false otherwise
+	 */
+	public static boolean isWhitespace(char c) {
+		return (c == ' ') || (c == '\t') || (c == '\n') || (c == '\u000B') || (c == '\f') || (c == '\r');
+	}
+
+}
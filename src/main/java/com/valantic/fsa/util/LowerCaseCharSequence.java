@@ -0,0 +1,50 @@
+package com.valantic.fsa.util;
+
+/**
+ * View of a character sequence converting each character to lower case when it is read, i.e., without copying
+ * the characters. The indices of the view are the indices of the underlying sequence, so a match in the view
+ * can be extracted from the original text.
+ * 
+ * @author M. Frick
+ */
+public class LowerCaseCharSequence implements CharSequence {
+
+	/**
+	 * The underlying character sequence.
+	 */
+	private final CharSequence text;
+
+	/**
+	 * Constructs a new {@code LowerCaseCharSequence} for the given text.
+	 * 
+	 * @param text the underlying character sequence
+	 */
+	public LowerCaseCharSequence(CharSequence text) {
+		this.text = text;
+	}
+
+	@Override
+	public int length() {
+		return text.length();
+	}
+
+	@Override
+	public char charAt(int index) {
+		return Character.toLowerCase(text.charAt(index));
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return new LowerCaseCharSequence(text.subSequence(start, end));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			sb.append(this.charAt(i));
+		}
+		return sb.toString();
+	}
+
+}
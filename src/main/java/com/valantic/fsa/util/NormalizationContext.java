@@ -0,0 +1,174 @@
+package com.valantic.fsa.util;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reusable state for normalizing and parsing texts without allocating per text: two character buffers the
+ * normalization steps write into alternately, one matcher per pattern (reset to each new text) and a bit set
+ * for keyword positions. Each thread has its own context (see {@link #get()}).
+ * <p>
+ * The normalized text returned by {@link #normalize(CharSequence)} and the matchers are only valid until they
+ * are used again on the same thread, so a caller must not hold on to them (e.g., across nested parse calls).
+ *
+ * @author M. Frick
+ */
+public class NormalizationContext {
+
+	/**
+	 * The initial capacity of the buffers.
+	 */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/**
+	 * The capacity above which the buffers are shrunk again after use, so that a single huge text does not
+	 * pin its buffers to the thread.
+	 */
+	private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The context of each thread.
+	 */
+	private static final ThreadLocal<NormalizationContext> CONTEXT = ThreadLocal.withInitial(NormalizationContext::new);
+
+	/**
+	 * The buffer holding the result of the last normalization step.
+	 */
+	private StringBuilder buffer = new StringBuilder(INITIAL_CAPACITY);
+
+	/**
+	 * The buffer the next normalization step writes into.
+	 */
+	private StringBuilder scratch = new StringBuilder(INITIAL_CAPACITY);
+
+	/**
+	 * The matchers by pattern.
+	 */
+	private final Map<Pattern, Matcher> matchers = new IdentityHashMap<>();
+
+	/**
+	 * The bit set returned by {@link #findStarts(KeywordMatcher, CharSequence, Object)}.
+	 */
+	private final BitSet starts = new BitSet();
+
+	/**
+	 * Returns the context of the current thread.
+	 *
+	 * @return the context of the current thread
+	 */
+	public static NormalizationContext get() {
+		return CONTEXT.get();
+	}
+
+	/**
+	 * Normalizes a text the same way as {@link ParserUtils#normalizeText(CharSequence)}, but into a buffer of
+	 * this context instead of a new string.
+	 *
+	 * @param text the text to normalize
+	 * @return the normalized text, valid until the next call of this method
+	 */
+	public CharSequence normalize(CharSequence text) {
+		this.shrink();
+		buffer.setLength(0);
+		if (text == null) {
+			return buffer;
+		}
+
+		// convert to lower case, remove special characters and nested strings
+		ParserUtils.foldCase(ParserUtils.trim(text), buffer);
+		ParserUtils.stripQuotes(buffer);
+
+		// replace month names with numbers
+		Matcher monthMatcher = this.matcher(ParserUtils.MONTH_PATTERN, buffer);
+		if (monthMatcher.find()) {
+			scratch.setLength(0);
+			int tail = 0;
+			do {
+				scratch.append(buffer, tail, monthMatcher.start());
+				if (monthMatcher.start(1) >= 0) {
+					scratch.append('.');
+				}
+				scratch.append(ParserUtils.monthToNumber(buffer, monthMatcher.start(2), monthMatcher.end(2)));
+				if (monthMatcher.start(3) >= 0) {
+					scratch.append(buffer, monthMatcher.start(3), monthMatcher.end(3));
+				}
+				tail = monthMatcher.end();
+			} while (monthMatcher.find());
+			scratch.append(buffer, tail, buffer.length());
+			this.swap();
+		}
+
+		// replace number words with numbers
+		Matcher wordMatcher = this.matcher(ParserUtils.NUMBER_WORD_PATTERN, buffer);
+		scratch.setLength(0);
+		int tail = 0;
+		while (wordMatcher.find()) {
+			int number = ParserUtils.toInteger(buffer, wordMatcher.start(), wordMatcher.end());
+			if (number != ParserUtils.NOT_A_NUMBER) {
+				scratch.append(buffer, tail, wordMatcher.start()).append(number);
+				tail = wordMatcher.end();
+			}
+		}
+		if (tail > 0) {
+			scratch.append(buffer, tail, buffer.length());
+			this.swap();
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns the matcher of this context for the given pattern, reset to the given text.
+	 *
+	 * @param pattern the pattern to match
+	 * @param text the text to match
+	 * @return the matcher, valid until the next call of this method with the same pattern
+	 */
+	public Matcher matcher(Pattern pattern, CharSequence text) {
+		Matcher matcher = matchers.get(pattern);
+		if (matcher == null) {
+			matcher = pattern.matcher(text);
+			matchers.put(pattern, matcher);
+			return matcher;
+		}
+		return matcher.reset(text);
+	}
+
+	/**
+	 * Finds the start indices of all occurrences of the keywords with the given value in the text (see
+	 * {@link KeywordMatcher#findStarts(CharSequence, Object)}).
+	 *
+	 * @param <T> the type of the values of the keywords
+	 * @param keywords the keyword matcher
+	 * @param text the text to search in
+	 * @param value the value of the keywords to search for
+	 * @return the set of start indices, valid until the next call of this method
+	 */
+	public <T> BitSet findStarts(KeywordMatcher<T> keywords, CharSequence text, T value) {
+		return keywords.findStarts(text, value, starts);
+	}
+
+	/**
+	 * Swaps the buffers after a normalization step wrote its result into the scratch buffer.
+	 */
+	private void swap() {
+		StringBuilder result = scratch;
+		scratch = buffer;
+		buffer = result;
+	}
+
+	/**
+	 * Replaces buffers that grew beyond {@link #MAX_RETAINED_CAPACITY}.
+	 */
+	private void shrink() {
+		if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+			buffer = new StringBuilder(INITIAL_CAPACITY);
+		}
+		if (scratch.capacity() > MAX_RETAINED_CAPACITY) {
+			scratch = new StringBuilder(INITIAL_CAPACITY);
+		}
+	}
+
+}
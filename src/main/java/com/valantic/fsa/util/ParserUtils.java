@@ -1,7 +1,9 @@
 package com.valantic.fsa.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -42,10 +44,53 @@ public class ParserUtils {
 	 */	
 	private static final Map<String, Integer> SCALES_MAP = new LinkedHashMap<>();
 
+	/**
+	 * Value returned by {@link #toInteger(CharSequence, int, int)} if the input is not a number
+	 * (hence, {@code Integer.MIN_VALUE} itself is not recognized as a number).
+	 */
+	public static final int NOT_A_NUMBER = Integer.MIN_VALUE;
+
+	/**
+	 * The symbols of the number word trie (i.e., the lower case letters including umlauts).
+	 */
+	private static final String NUMBER_WORD_SYMBOLS = "abcdefghijklmnopqrstuvwxyzäöüß";
+
+	/**
+	 * The transitions of the number word trie, i.e., {@code node * NUMBER_WORD_SYMBOLS.length() + symbol}
+	 * maps to the next node, or to 0 if there is none.
+	 */
+	private static final int[] NUMBER_WORD_TRIE;
+
+	/**
+	 * The number word ending at each node of the number word trie, or -1 if there is none.
+	 */
+	private static final int[] NUMBER_WORD_TRIE_WORDS;
+
+	/**
+	 * The values of the number words, indexed by priority (i.e., scales, tens and simple numbers).
+	 */
+	private static final int[] NUMBER_WORD_VALUES;
+
+	/**
+	 * The lengths of the number words, indexed by priority.
+	 */
+	private static final int[] NUMBER_WORD_LENGTHS;
+
+	/**
+	 * The number of scales in the number words, i.e., the first {@code NUMBER_WORD_SCALES} words are scales.
+	 */
+	private static final int NUMBER_WORD_SCALES;
+
 	/**
 	 * The number word pattern to match.
 	 */
-	private static final Pattern NUMBER_WORD_PATTERN = Pattern.compile("\\b([a-z]+)\\b");
+	static final Pattern NUMBER_WORD_PATTERN = Pattern.compile("\\b([a-z]+)\\b");
+
+	/**
+	 * The month pattern to match, i.e., any month name optionally preceded by a day dot (e.g., "1. januar") 
+	 * and optionally followed by a year (e.g., "januar 2024"). Built once from {@link #MONTH_MAP}.
+	 */
+	static final Pattern MONTH_PATTERN;
 
 	static {
 		// initialize weekday mapping
@@ -141,6 +186,46 @@ public class ParserUtils {
 		SCALES_MAP.put("million", 1000000);
 		SCALES_MAP.put("milliarden", 1000000000);
 		SCALES_MAP.put("milliarde", 1000000000);
+		
+		// initialize number word trie (the word index defines the priority of a match)
+		List<Entry<String, Integer>> numberWords = new ArrayList<>();
+		numberWords.addAll(SCALES_MAP.entrySet());
+		numberWords.addAll(TENS_MAP.entrySet());
+		numberWords.addAll(SIMPLE_NUMBERS_MAP.entrySet());
+		if (numberWords.size() > Long.SIZE) {
+			throw new IllegalStateException("Too many number words: " + numberWords.size());
+		}
+		NUMBER_WORD_SCALES = SCALES_MAP.size();
+		NUMBER_WORD_VALUES = new int[numberWords.size()];
+		NUMBER_WORD_LENGTHS = new int[numberWords.size()];
+		int symbols = NUMBER_WORD_SYMBOLS.length();
+		int maxNodes = 1 + numberWords.stream().mapToInt(e -> e.getKey().length()).sum();
+		int[] trie = new int[maxNodes * symbols];
+		int[] trieWords = new int[maxNodes];
+		Arrays.fill(trieWords, -1);
+		int nodes = 1;
+		for (int i = 0; i < numberWords.size(); i++) {
+			String word = numberWords.get(i).getKey();
+			int node = 0;
+			for (int j = 0; j < word.length(); j++) {
+				int transition = node * symbols + NUMBER_WORD_SYMBOLS.indexOf(word.charAt(j));
+				if (trie[transition] == 0) {
+					trie[transition] = nodes++;
+				}
+				node = trie[transition];
+			}
+			trieWords[node] = i;
+			NUMBER_WORD_VALUES[i] = numberWords.get(i).getValue();
+			NUMBER_WORD_LENGTHS[i] = word.length();
+		}
+		NUMBER_WORD_TRIE = Arrays.copyOf(trie, nodes * symbols);
+		NUMBER_WORD_TRIE_WORDS = Arrays.copyOf(trieWords, nodes);
+		
+		// initialize month pattern (longest names first, so that "januar" wins over "jan")
+		List<String> months = new ArrayList<>(MONTH_MAP.keySet());
+		months.sort(Comparator.comparingInt(String::length).reversed());
+		MONTH_PATTERN = Pattern.compile(
+				"(\\.\\s+)?\\b(" + String.join("|", months) + ")\\b(?=(?:\\s+(\\d{2,4}))?)");
 	}
 
 	/**
@@ -167,6 +252,7 @@ public class ParserUtils {
 	 * 
 	 * @param numberWord the number word to parse
 	 * @return the integer value of the number word
+	 * @throws ParserException if the number word could not be parsed
 	 */
 	public static int parseToInteger(String numberWord) {
 		if ((numberWord == null) || numberWord.isEmpty()) {
@@ -176,84 +262,306 @@ public class ParserUtils {
 		numberWord = numberWord.trim();
 		numberWord = numberWord.toLowerCase(Locale.GERMAN);
 
+		int number = toInteger(numberWord, 0, numberWord.length());
+		if (number == NOT_A_NUMBER) {
+			throw new ParserException("Could not parse '" + numberWord + "' to number.");
+		}
+		return number;
+	}
+
+	/**
+	 * Converts a lower case number word (e.g., "dreihundertzweiundvierzig", "minuszwölf") or actual number 
+	 * (e.g., "-12") in the given region of a text to its corresponding integer value. Unlike 
+	 * {@link #parseToInteger(String)} this method neither allocates nor throws, and runs in time 
+	 * linear to the length of the region.
+	 * 
+	 * @param text the text containing the number word
+	 * @param start the start index of the number word (inclusive)
+	 * @param end the end index of the number word (exclusive)
+	 * @return the integer value of the number word, or {@link #NOT_A_NUMBER} if it is not a number
+	 */
+	public static int toInteger(CharSequence text, int start, int end) {
+		if (start >= end) {
+			return NOT_A_NUMBER;
+		}
+
 		// handle actual number
-		try {
-			return Integer.parseInt(numberWord);
-		} catch (Exception e) {
+		int number = parseDigits(text, start, end);
+		if (number != NOT_A_NUMBER) {
+			return number;
 		}
 
 		// determine sign
 		int sign = 1;
-		if (numberWord.startsWith("minus")) {
-			numberWord = numberWord.substring(5);
+		if (regionStartsWith(text, start, end, "minus")) {
+			start += 5;
 			sign = -1;
 		}
 
 		// handle trivial case
-		if (numberWord.equals("null")) {
+		if ((end - start == 4) && regionStartsWith(text, start, end, "null")) {
 			return sign * 0;
 		}
 
-		// try to parse the number recursively
-		List<Integer> results = new ArrayList<>();
-		parseNumberRecursive(numberWord, 0, 0, results);
-		if (results.isEmpty()) {
-			throw new ParserException("Could not parse '" + numberWord + "' to number.");
+		number = parseNumberWord(text, start, end);
+		if (number == NOT_A_NUMBER) {
+			return NOT_A_NUMBER;
 		}
+		return sign * number;
+	}
 
-		return sign * results.get(0);
+	/**
+	 * Parses an actual number (e.g., "42", "-1") in the given region of a text the same way 
+	 * {@link Integer#parseInt(String)} does, but without throwing.
+	 * 
+	 * @param text the text containing the number
+	 * @param start the start index of the number (inclusive)
+	 * @param end the end index of the number (exclusive)
+	 * @return the integer value, or {@link #NOT_A_NUMBER} if the region is not a valid integer
+	 */
+	private static int parseDigits(CharSequence text, int start, int end) {
+		int i = start;
+		char first = text.charAt(i);
+		boolean negative = (first == '-');
+		if (negative || (first == '+')) {
+			i++;
+			if (i == end) {
+				return NOT_A_NUMBER;
+			}
+		}
+		// accumulate negatively to cover Integer.MIN_VALUE
+		long limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+		long result = 0;
+		for (; i < end; i++) {
+			int digit = Character.digit(text.charAt(i), 10);
+			if (digit < 0) {
+				return NOT_A_NUMBER;
+			}
+			result = result * 10 - digit;
+			if (result < limit) {
+				return NOT_A_NUMBER;
+			}
+		}
+		return (int) (negative ? result : -result);
 	}
 
-	private static void parseNumberRecursive(String numberWord, 
-			int sum, int currentValue, List<Integer> results) {
-		if (numberWord.isEmpty()) {
-			results.add(sum + currentValue);
-			return;
+	/**
+	 * Parses a number word without sign (e.g., "vierhunderttausendsechsundsechzig") by walking the 
+	 * number word trie. Where a word can be split in several ways, the split preferring scales over 
+	 * tens over simple numbers (in the order of their maps) at the earliest position wins.
+	 * 
+	 * @param text the text containing the number word
+	 * @param start the start index of the number word (inclusive)
+	 * @param end the end index of the number word (exclusive)
+	 * @return the integer value of the number word, or {@link #NOT_A_NUMBER} if it is not a number
+	 */
+	private static int parseNumberWord(CharSequence text, int start, int end) {
+		// the word is first checked backwards for the positions from which the rest of the word 
+		// can be split into number words, so that parsing never backtracks
+		boolean[] completable = new boolean[end - start + 1];
+		completable[end - start] = true;
+		for (int position = end - 1; position >= start; position--) {
+			completable[position - start] = matchNumberWords(text, position, end, start, completable) != 0;
+		}
+		if (!completable[0]) {
+			return NOT_A_NUMBER;
 		}
 
-		// remove "und" if present
-		if (numberWord.startsWith("und")) {
-			numberWord = numberWord.substring(3);
+		// every remaining match completes the word, so the one with the highest priority is taken; 
+		// scales come first, then tens and simple numbers
+		int sum = 0;
+		int currentValue = 0;
+		int position = start;
+		while (position < end) {
+			long matches = matchNumberWords(text, position, end, start, completable);
+			int word = Long.numberOfTrailingZeros(matches);
+			int value = NUMBER_WORD_VALUES[word];
+			if (word < NUMBER_WORD_SCALES) {
+				boolean storePartialCalculation = value > 100;
+				if (storePartialCalculation) {
+					sum += (currentValue == 0) ? value : (currentValue * value);
+					currentValue = 0; // re-set current value
+				} else {
+					currentValue = (currentValue == 0) ? value : (currentValue * value);
+				}
+			} else {
+				currentValue += value;
+			}
+			position = skipAnd(text, position, end) + NUMBER_WORD_LENGTHS[word];
+		}
+		return sum + currentValue;
+	}
+
+	/**
+	 * Matches the number words starting at the given position (after an optional "und") against 
+	 * the number word trie.
+	 * 
+	 * @param text the text containing the number word
+	 * @param position the position to match at
+	 * @param end the end index of the number word (exclusive)
+	 * @param start the start index of the number word (inclusive)
+	 * @param completable the positions relative to {@code start} from which the rest of the number 
+	 *        word can be parsed, matches ending elsewhere are dropped
+	 * @return the bit set of matched number words, lowest bit first in order of priority
+	 */
+	private static long matchNumberWords(CharSequence text, int position, int end, int start, boolean[] completable) {
+		position = skipAnd(text, position, end);
+		int symbols = NUMBER_WORD_SYMBOLS.length();
+		long matches = 0;
+		int node = 0;
+		for (int i = position; i < end; i++) {
+			int symbol = NUMBER_WORD_SYMBOLS.indexOf(text.charAt(i));
+			if (symbol < 0) {
+				break;
+			}
+			node = NUMBER_WORD_TRIE[node * symbols + symbol];
+			if (node == 0) {
+				break;
+			}
+			int word = NUMBER_WORD_TRIE_WORDS[node];
+			if ((word >= 0) && completable[i + 1 - start]) {
+				matches |= 1L << word;
+			}
 		}
+		return matches;
+	}
+
+	/**
+	 * Skips an "und" at the given position, e.g., in "einundzwanzig".
+	 * 
+	 * @param text the text containing the number word
+	 * @param position the position to skip at
+	 * @param end the end index of the number word (exclusive)
+	 * @return the position after the "und", or the given position if there is none
+	 */
+	private static int skipAnd(CharSequence text, int position, int end) {
+		return regionStartsWith(text, position, end, "und") ? position + 3 : position;
+	}
 
-		// try to match scales first (as they have highest priority)
-		for (Entry<String, Integer> scale : SCALES_MAP.entrySet()) {
-			if (numberWord.startsWith(scale.getKey())) {
-				String remaining = numberWord.substring(scale.getKey().length());
-
-                Integer scaleValue = scale.getValue();
-                boolean storePartialCalculation = scaleValue > 100;
-                if (storePartialCalculation) {
-                    if (currentValue == 0) {
-                        sum += scaleValue;
-                    } else {
-                        sum += (currentValue * scaleValue);
-                    }
-                    currentValue = 0; // re-set current value
-                } else {
-                    if (currentValue == 0) {
-                        currentValue = scaleValue;
-                    } else {
-                        currentValue *= scaleValue;
-                    }
-                }
-				parseNumberRecursive(remaining, sum, currentValue, results);
+	/**
+	 * Checks whether the given region of a text starts with the given prefix.
+	 * 
+	 * @param text the text to check
+	 * @param start the start index of the region (inclusive)
+	 * @param end the end index of the region (exclusive)
+	 * @param prefix the prefix to check for
+	 * @return true if the region starts with the prefix, false otherwise
+	 */
+	private static boolean regionStartsWith(CharSequence text, int start, int end, String prefix) {
+		if (end - start < prefix.length()) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length(); i++) {
+			if (text.charAt(start + i) != prefix.charAt(i)) {
+				return false;
 			}
 		}
+		return true;
+	}
 
-		// try to match tens
-		for (Entry<String, Integer> ten : TENS_MAP.entrySet()) {
-			if (numberWord.startsWith(ten.getKey())) {
-				String remaining = numberWord.substring(ten.getKey().length());
-				parseNumberRecursive(remaining, sum, currentValue + ten.getValue(), results);
+	/**
+	 * Removes all leading and trailing whitespace (any character up to and including the space character) like
+	 * {@link String#trim()}, but without copying the characters.
+	 *
+	 * @param text the text to trim
+	 * @return the trimmed text as a subsequence of the text
+	 */
+	public static CharSequence trim(CharSequence text) {
+		int start = 0;
+		int end = text.length();
+		while ((start < end) && (text.charAt(start) <= ' ')) {
+			start++;
+		}
+		while ((start < end) && (text.charAt(end - 1) <= ' ')) {
+			end--;
+		}
+		return ((start > 0) || (end < text.length())) ? text.subSequence(start, end) : text;
+	}
+
+	/**
+	 * Checks whether a text contains the given string, like {@link String#contains(CharSequence)}.
+	 *
+	 * @param text the text to search in
+	 * @param s the string to search for
+	 * @return true if the text contains the string, false otherwise
+	 */
+	public static boolean contains(CharSequence text, String s) {
+		for (int i = 0; i + s.length() <= text.length(); i++) {
+			if (regionStartsWith(text, i, text.length(), s)) {
+				return true;
 			}
 		}
+		return false;
+	}
+
+	/**
+	 * Checks whether the text starting at the given index starts with the given prefix, like
+	 * {@code text.substring(offset).startsWith(prefix)}, but without copying the text.
+	 *
+	 * @param text the text to check
+	 * @param offset the index to start at
+	 * @param prefix the prefix to check for
+	 * @return true if the text starts with the prefix at the index, false otherwise
+	 * @throws StringIndexOutOfBoundsException if the index is negative or larger than the length of the text
+	 */
+	public static boolean startsWith(CharSequence text, int offset, String prefix) {
+		if ((offset < 0) || (offset > text.length())) {
+			throw new StringIndexOutOfBoundsException("begin " + offset + ", length " + text.length());
+		}
+		return regionStartsWith(text, offset, text.length(), prefix);
+	}
 
-		// try to match simple numbers
-		for (Entry<String, Integer> simple : SIMPLE_NUMBERS_MAP.entrySet()) {
-			if (numberWord.startsWith(simple.getKey())) {
-				String remaining = numberWord.substring(simple.getKey().length());
-				parseNumberRecursive(remaining, sum, currentValue + simple.getValue(), results);
+	/**
+	 * Checks whether the given index of a text is followed by the given word after optional whitespace, like
+	 * {@code text.substring(offset).trim().startsWith(word)}, but without copying the text.
+	 *
+	 * @param text the text to check
+	 * @param offset the index to start at
+	 * @param word the word to check for
+	 * @return true if the word follows the index, false otherwise
+	 */
+	public static boolean isFollowedBy(CharSequence text, int offset, String word) {
+		while ((offset < text.length()) && (text.charAt(offset) <= ' ')) {
+			offset++;
+		}
+		return regionStartsWith(text, offset, text.length(), word);
+	}
+
+	/**
+	 * Converts a text to lower case and replaces the umlauts and "ß" (e.g., "Grüße" becomes "gruesse") in a
+	 * single pass.
+	 *
+	 * @param text the text to convert
+	 * @param sb the buffer to append the converted text to
+	 */
+	static void foldCase(CharSequence text, StringBuilder sb) {
+		int origin = sb.length();
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if ((c == '\u0130') || (c == '\u03A3') || Character.isSurrogate(c)) {
+				// lower case depends on the context or changes the length: discard the converted prefix
+				sb.setLength(origin);
+				sb.append(text.toString().toLowerCase(Locale.GERMAN)
+						.replace("ä", "ae").replace("ü", "ue")
+						.replace("ö", "oe").replace("ß", "ss"));
+				return;
+			}
+			c = Character.toLowerCase(c);
+			switch (c) {
+			case 'ä':
+				sb.append("ae");
+				break;
+			case 'ü':
+				sb.append("ue");
+				break;
+			case 'ö':
+				sb.append("oe");
+				break;
+			case 'ß':
+				sb.append("ss");
+				break;
+			default:
+				sb.append(c);
 			}
 		}
 	}
@@ -261,63 +569,55 @@ public class ParserUtils {
 	/**
 	 * Normalizes a text string by converting it to lowercase, removing special
 	 * characters and nested strings, and replacing month and number words with their numeric
-	 * representations.
+	 * representations (see {@link NormalizationContext#normalize(CharSequence)}).
 	 *
 	 * @param text the text to normalize
 	 * @return the normalized text
 	 */
-	public static String normalizeText(String text) {
-		if (text == null) {
-			return "";
-		}
-
-		// convert to lower case
-		String normalizedText = text.trim().toLowerCase(Locale.GERMAN);
-		
-		// remove special characters
-		normalizedText = normalizedText
-				.replace("ä", "ae").replace("ü", "ue")
-    			.replace("ö", "oe").replace("ß", "ss");
+	public static String normalizeText(CharSequence text) {
+		return NormalizationContext.get().normalize(text).toString();
+	}
 
-		// remove nested strings
-		normalizedText = stripQuotes(normalizedText);
-		
-		// replace month names with numbers
-		for (Map.Entry<String, String> entry : MONTH_MAP.entrySet()) {
-			Matcher monthMatcher = Pattern.compile("(\\b" + entry.getKey() + "\\b)|(\\.\\s+(" + entry.getKey() + "))").matcher(normalizedText);
-			StringBuilder sb = new StringBuilder();
-			if (monthMatcher.find()) {
-				String rawMonth = monthMatcher.group();
-				String month = entry.getValue();
-				if (rawMonth.startsWith(".")) {
-					month = "." + month;
-				}
-				
-				Matcher monthAndYearMatcher = Pattern.compile(rawMonth + "\\s+(\\d{2,4})").matcher(normalizedText);
-				if (monthAndYearMatcher.find()) {
-					month += monthAndYearMatcher.group(1);
-				}
-				monthMatcher.appendReplacement(sb, month);
+	/**
+	 * Returns the numeric representation of the month name in the given region of a text, e.g., "1." for
+	 * "januar".
+	 *
+	 * @param text the text containing the month name
+	 * @param start the start index of the month name (inclusive)
+	 * @param end the end index of the month name (exclusive)
+	 * @return the numeric representation of the month, or null if the region is not a month name
+	 */
+	static String monthToNumber(CharSequence text, int start, int end) {
+		for (Entry<String, String> month : MONTH_MAP.entrySet()) {
+			if ((month.getKey().length() == end - start) && regionStartsWith(text, start, end, month.getKey())) {
+				return month.getValue();
 			}
-			monthMatcher.appendTail(sb);
-			normalizedText = sb.toString();
 		}
-		
-		// replace number words with numbers
-		Matcher wordMatcher = NUMBER_WORD_PATTERN.matcher(normalizedText);
-		StringBuilder sb = new StringBuilder();
-		while (wordMatcher.find()) {
-			String word = wordMatcher.group();
-			// try number parsing
-			try {
-				int number = parseToInteger(word);
-				wordMatcher.appendReplacement(sb, String.valueOf(number));
-			} catch (ParserException e) {
+		return null;
+	}
+
+	/**
+	 * Strips quotes from a text in place, and trims the text afterwards (see {@link #stripQuotes(String)}).
+	 *
+	 * @param text the text to strip quotes from
+	 */
+	static void stripQuotes(StringBuilder text) {
+		int length = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if ((c != '\'') && (c != '"')) {
+				text.setCharAt(length++, c);
 			}
 		}
-		wordMatcher.appendTail(sb);
-		
-		return sb.toString();
+		while ((length > 0) && (text.charAt(length - 1) <= ' ')) {
+			length--;
+		}
+		text.setLength(length);
+		int start = 0;
+		while ((start < length) && (text.charAt(start) <= ' ')) {
+			start++;
+		}
+		text.delete(0, start);
 	}
 
 	/**
@@ -1,5 +1,10 @@
 package com.valantic.fsa.util;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 public class Patterns {
@@ -12,7 +17,57 @@ public class Patterns {
 		"herr", "herren", "mann", "maenner", "junge", "jungen",
 		"dame", "damen", "frau", "frauen", "maedchen", 
 		"gaeste", "gaesten" };
+
+	/**
+	 * Array of keywords that can indicate a relative date (e.g., "naechste Woche").
+	 */
+	private static final String[] RELATIVE_KEYWORDS = new String[] {
+		"naechste", "naechsten", "naechstes", "kommende", "kommenden", "kommendes" };
 	
+	/**
+	 * Matcher finding all keywords (people nouns, weekdays, time of day markers, etc.) in a normalized text
+	 * in a single scan. The value of a keyword is its type, e.g., "personen" is a {@code PEOPLE_NOUN}.
+	 */
+	public static final KeywordMatcher<TokenType> KEYWORDS = new KeywordMatcher<>(keywords());
+
+	/**
+	 * Returns the keywords of {@link #KEYWORDS} with their types.
+	 * 
+	 * @return a map of all keywords to their types
+	 */
+	private static Map<String, TokenType> keywords() {
+		Map<String, TokenType> keywords = new LinkedHashMap<>();
+		for (String weekday : ParserUtils.weekdays()) {
+			keywords.put(weekday, TokenType.WEEKDAY);
+		}
+		for (String person : PEOPLE) {
+			keywords.put(person, TokenType.PEOPLE_NOUN);
+		}
+		for (String relativeKeyword : RELATIVE_KEYWORDS) {
+			keywords.put(relativeKeyword, TokenType.RELATIVE_KEYWORD);
+		}
+		keywords.put("uhr", TokenType.TIME_MARKER);
+		keywords.put("morgen", TokenType.RELATIVE_DAY);
+		keywords.put("morgens", TokenType.MORNING_MARKER);
+		keywords.put("fruehstueck", TokenType.MORNING_MARKER);
+		keywords.put("abends", TokenType.EVENING_MARKER);
+		keywords.put("abendessen", TokenType.EVENING_MARKER);
+		for (String weekday : ParserUtils.weekdays()) {
+			keywords.put(weekday + "morgen", TokenType.MORNING_MARKER);
+			keywords.put(weekday + "abend", TokenType.EVENING_MARKER);
+		}
+		return keywords;
+	}
+
+	/**
+	 * Returns an unmodifiable list of all keywords that can indicate a relative date.
+	 * 
+	 * @return a list of all relative keywords
+	 */
+	public static List<String> relativeKeywords() {
+		return Collections.unmodifiableList(Arrays.asList(RELATIVE_KEYWORDS));
+	}
+
 	// name pattern
 	public static final Pattern NAME = Pattern.compile(
 			"(grüßen|grüssen|grueßen|gruessen|grüße|grueße|grüsse|gruesse|gruß|gruss|dank|danke).*?([a-zäüöß]+\\s[a-zäüöß]+)");
@@ -28,10 +83,10 @@ public class Patterns {
 			"in\\s+(\\d+)\\s+(tagen|wochen|monaten|jahren)");
 	
 	public static final Pattern RELATIVE_DATE_NEXT = Pattern.compile(
-			"(naechste|naechsten|naechstes|kommende|kommenden|kommendes)\\s+(tage|woche|monat|jahr)");
+			"(" + String.join("|", RELATIVE_KEYWORDS) + ")\\s+(tage|woche|monat|jahr)");
 	
 	public static final Pattern WEEKDAY = Pattern.compile(
-			"(|naechste|naechsten|naechstes|kommende|kommenden|kommendes)\\s+(" + String.join("|", ParserUtils.weekdays()) + ")");
+			"(|" + String.join("|", RELATIVE_KEYWORDS) + ")\\s+(" + String.join("|", ParserUtils.weekdays()) + ")");
 
 	// time patterns
 	public static final Pattern TIME = Pattern.compile(
@@ -41,12 +96,14 @@ public class Patterns {
 			"zwischen\\s+(\\d{1,2}:\\d{2}|\\d{1,2})\\s*(und|bis|-)\\s*(\\d{1,2}:\\d{2}|\\d{1,2})\\s*uhr");
 	
 	// people count patterns
+	// (must be followed by a people noun, see KEYWORDS)
 	public static final Pattern SIMPLE_PEOPLE_COUNT = Pattern.compile(
-			"(\\d+)\\s+(" + String.join("|", PEOPLE) + ")");
+			"(\\d+)\\s+");
 	
 	public static final Pattern PEOPLE_COUNT = Pattern.compile(
-			"(zu|sind|fuer|mindestens|bis\\s*zu|nicht\\s*mehr\\s*als)\\s+(\\d+)(\\s+" + String.join("|", PEOPLE) + ")?");
+			"(zu|sind|fuer|mindestens|bis\\s*zu|nicht\\s*mehr\\s*als)\\s+(\\d+)");
 	
+	// (must be followed by a people noun, see KEYWORDS)
 	public static final Pattern PEOPLE_RANGE = Pattern.compile(
-			"(zwischen|mit)\\s+(\\d+)\\s*(und|bis|-)\\s*(\\d+)\\s+(" + String.join("|", PEOPLE) + ")");
+			"(zwischen|mit)\\s+(\\d+)\\s*(und|bis|-)\\s*(\\d+)\\s+");
 }
@@ -0,0 +1,186 @@
+package com.valantic.fsa.util;
+
+/**
+ * A token of a normalized text, i.e., a region of the text with its types.
+ *
+ * @author M. Frick
+ */
+public class Token {
+
+	/**
+	 * The text the token is part of.
+	 */
+	private final String text;
+
+	/**
+	 * The lexical type of the token.
+	 */
+	private final TokenType type;
+
+	/**
+	 * The set of all types of the token (including the lexical type).
+	 */
+	private final int types;
+
+	/**
+	 * The start index of the token in the text (inclusive).
+	 */
+	private final int start;
+
+	/**
+	 * The end index of the token in the text (exclusive).
+	 */
+	private final int end;
+
+	/**
+	 * Constructs a new {@code Token} with the specified text, types and region.
+	 *
+	 * @param text the text the token is part of
+	 * @param type the lexical type of the token
+	 * @param types the set of further types of the token
+	 * @param start the start index of the token in the text (inclusive)
+	 * @param end the end index of the token in the text (exclusive)
+	 */
+	Token(String text, TokenType type, int types, int start, int end) {
+		this.text = text;
+		this.type = type;
+		this.types = types | type.bit();
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Returns the lexical type of the token.
+	 *
+	 * @return the lexical type
+	 */
+	public TokenType getType() {
+		return type;
+	}
+
+	/**
+	 * Checks if the token has the given type.
+	 *
+	 * @param type the type to check
+	 * @return true if the token has the type, false otherwise
+	 */
+	public boolean is(TokenType type) {
+		return (types & type.bit()) != 0;
+	}
+
+	/**
+	 * Returns the start index of the token in the text.
+	 *
+	 * @return the start index (inclusive)
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the end index of the token in the text.
+	 *
+	 * @return the end index (exclusive)
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * Returns the length of the token.
+	 *
+	 * @return the length
+	 */
+	public int length() {
+		return end - start;
+	}
+
+	/**
+	 * Returns the text of the token.
+	 *
+	 * @return the text
+	 */
+	public String getText() {
+		return text.substring(start, end);
+	}
+
+	/**
+	 * Checks if the token starts with the given prefix.
+	 *
+	 * @param prefix the prefix to check
+	 * @return true if the token starts with the prefix, false otherwise
+	 */
+	public boolean startsWith(String prefix) {
+		return (prefix.length() <= this.length()) && text.startsWith(prefix, start);
+	}
+
+	/**
+	 * Checks if the token ends with the given suffix.
+	 *
+	 * @param suffix the suffix to check
+	 * @return true if the token ends with the suffix, false otherwise
+	 */
+	public boolean endsWith(String suffix) {
+		return (suffix.length() <= this.length()) && text.startsWith(suffix, end - suffix.length());
+	}
+
+	/**
+	 * Checks if the token contains the given string.
+	 *
+	 * @param string the string to check
+	 * @return true if the token contains the string, false otherwise
+	 */
+	public boolean contains(String string) {
+		for (int i = start; i <= end - string.length(); i++) {
+			if (text.startsWith(string, i)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if the text up to the end of the token ends with the given words, where the words may be separated
+	 * by whitespace (e.g., "nicht", "mehr", "als" matches "nicht mehr als" and "nichtmehrals").
+	 *
+	 * @param words the words to check
+	 * @return true if the text ends with the words, false otherwise
+	 */
+	public boolean endsWithWords(String... words) {
+		int index = end;
+		for (int i = words.length - 1; i >= 0; i--) {
+			if (i < words.length - 1) {
+				while ((index > 0) && Lexer.isWhitespace(text.charAt(index - 1))) {
+					index--;
+				}
+			}
+			index -= words[i].length();
+			if ((index < 0) || !text.startsWith(words[i], index)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the token equals the given string.
+	 *
+	 * @param string the string to check
+	 * @return true if the token equals the string, false otherwise
+	 */
+	public boolean textEquals(String string) {
+		return (string.length() == this.length()) && text.startsWith(string, start);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Token[")
+			.append("type=").append(this.getType())
+			.append(", text='").append(this.getText())
+			.append("', start=").append(this.getStart())
+			.append("]");
+		return sb.toString();
+	}
+
+}
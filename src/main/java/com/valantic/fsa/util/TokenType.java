@@ -0,0 +1,81 @@
+package com.valantic.fsa.util;
+
+/**
+ * Types of the tokens produced by the {@code Lexer}. The first five types are lexical types, i.e., each token
+ * has exactly one of them. The remaining types classify words, i.e., a word may have several of them
+ * (e.g., "montagabend" is a weekday and an evening marker).
+ *
+ * @author M. Frick
+ */
+public enum TokenType {
+
+	/**
+	 * A number, e.g., "20".
+	 */
+	NUMBER,
+
+	/**
+	 * Numbers separated by dots (and possibly colons), e.g., "1.5" or "1.5.2025".
+	 */
+	DATE_FRAGMENT,
+
+	/**
+	 * Numbers separated by colons, e.g., "9:45".
+	 */
+	TIME_FRAGMENT,
+
+	/**
+	 * A word, e.g., "tisch".
+	 */
+	WORD,
+
+	/**
+	 * Any other character, e.g., "," or "-".
+	 */
+	SYMBOL,
+
+	/**
+	 * A word starting with a weekday, e.g., "montag", "montagabend" or "mo".
+	 */
+	WEEKDAY,
+
+	/**
+	 * A word starting with a noun for people, e.g., "personen" or "gaeste".
+	 */
+	PEOPLE_NOUN,
+
+	/**
+	 * A word starting with "uhr".
+	 */
+	TIME_MARKER,
+
+	/**
+	 * A word marking the morning, e.g., "morgens", "fruehstueck" or "montagmorgen".
+	 */
+	MORNING_MARKER,
+
+	/**
+	 * A word marking the evening, e.g., "abends", "abendessen" or "montagabend".
+	 */
+	EVENING_MARKER,
+
+	/**
+	 * A word containing "morgen", e.g., "morgen" or "uebermorgen".
+	 */
+	RELATIVE_DAY,
+
+	/**
+	 * A word ending with a relative keyword, e.g., "naechsten" or "uebernaechste".
+	 */
+	RELATIVE_KEYWORD;
+
+	/**
+	 * Returns the bit of this type in a set of types.
+	 *
+	 * @return the bit of this type
+	 */
+	int bit() {
+		return 1 << this.ordinal();
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.valantic.fsa.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.valantic.fsa.model.ReservationRequest;
+import com.valantic.fsa.parser.BasicReservationParser;
+
+class IngestionPipelineTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testReadJsonLines() throws IOException {
+		Path input = directory.resolve("requests.jsonl");
+		Files.writeString(input, "{\"text\":\"Tisch für 2\",\"timestamp\":\"2025-03-01T12:00:00\",\"id\":[1,2]}\n"
+				+ "{\"timestamp\":\"2025-03-02\",\"text\":\"Tisch für 3\"}\n", StandardCharsets.UTF_8);
+		try (ReservationRequestReader reader = ReservationRequestReader.open(input)) {
+			ReservationRequest request = reader.read();
+			assertEquals("Tisch für 2", request.getText());
+			assertEquals(LocalDateTime.of(2025, 3, 1, 12, 0), request.getTimestamp());
+			request = reader.read();
+			assertEquals("Tisch für 3", request.getText());
+			assertEquals(LocalDateTime.of(2025, 3, 2, 0, 0), request.getTimestamp());
+			assertNull(reader.read());
+		}
+	}
+
+	@Test
+	void testReadCsv() throws IOException {
+		Path input = directory.resolve("requests.csv");
+		Files.writeString(input, "timestamp,text\r\n"
+				+ "2025-03-01T12:00:00,\"Hallo, Tisch für \"\"2\"\"\nGruß\"\r\n"
+				+ "\n"
+				+ "2025-03-02T08:30:00,Tisch für 3\n", StandardCharsets.UTF_8);
+		try (ReservationRequestReader reader = ReservationRequestReader.open(input)) {
+			ReservationRequest request = reader.read();
+			assertEquals("Hallo, Tisch für \"2\"\nGruß", request.getText());
+			assertEquals(LocalDateTime.of(2025, 3, 1, 12, 0), request.getTimestamp());
+			request = reader.read();
+			assertEquals("Tisch für 3", request.getText());
+			assertEquals(LocalDateTime.of(2025, 3, 2, 8, 30), request.getTimestamp());
+			assertNull(reader.read());
+		}
+	}
+
+	@Test
+	void testRun() throws IOException {
+		Path input = directory.resolve("requests.jsonl");
+		Path output = directory.resolve("results.jsonl");
+		StringBuilder lines = new StringBuilder();
+		for (int i = 1; i <= 1000; i++) {
+			lines.append("{\"text\":\"Tisch für ").append(i % 20 + 1).append(" Personen am 19.3. um 20:00 Uhr, Gruß Klaus Müller\",")
+					.append("\"timestamp\":\"2025-03-01T12:00:00\"}\n");
+		}
+		Files.writeString(input, lines, StandardCharsets.UTF_8);
+
+		IngestionPipeline.Summary summary;
+		try (ReservationRequestReader reader = ReservationRequestReader.open(input);
+				ReservationDataWriter writer = new ReservationDataWriter(output)) {
+			summary = new IngestionPipeline(new BasicReservationParser(), 4).run(reader, writer);
+		}
+		assertEquals(1000, summary.getCount());
+		assertEquals(0, summary.getFailures());
+
+		ObjectMapper mapper = new ObjectMapper();
+		List<String> results = Files.readAllLines(output, StandardCharsets.UTF_8);
+		assertEquals(1000, results.size());
+		for (int i = 1; i <= 1000; i++) {
+			JsonNode result = mapper.readTree(results.get(i - 1));
+			assertEquals("Klaus Müller", result.get("name").asText());
+			assertTrue(result.get("date").asText().endsWith("-03-19"));
+			assertEquals("20:00", result.get("time").asText());
+			assertEquals(i % 20 + 1, result.get("numberOfPeople").asInt());
+		}
+	}
+
+	@Test
+	void testRunWithFailures() throws IOException {
+		Path input = directory.resolve("requests.jsonl");
+		Path output = directory.resolve("results.jsonl");
+		Files.writeString(input, "{\"text\":\"ok\"}\n{\"text\":\"fail\"}\n", StandardCharsets.UTF_8);
+
+		IngestionPipeline.Summary summary;
+		try (ReservationRequestReader reader = ReservationRequestReader.open(input);
+				ReservationDataWriter writer = new ReservationDataWriter(output)) {
+			summary = new IngestionPipeline(request -> {
+				if ("fail".equals(request.getText())) {
+					throw new IllegalStateException();
+				}
+				return new BasicReservationParser().parse(request);
+			}, 2).run(reader, writer);
+		}
+		assertEquals(2, summary.getCount());
+		assertEquals(1, summary.getFailures());
+		assertEquals(2, Files.readAllLines(output, StandardCharsets.UTF_8).size());
+	}
+
+}
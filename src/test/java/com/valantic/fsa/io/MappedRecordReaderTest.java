@@ -0,0 +1,85 @@
+package com.valantic.fsa.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.parser.BasicReservationParser;
+
+class MappedRecordReaderTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testNext() throws IOException {
+		Path input = directory.resolve("requests.txt");
+		Files.writeString(input, "\uFEFFTisch für 2\r\n"
+				+ "\n"
+				+ "2025-03-01T12:00:00\tHallo, Tisch fuer 3\n"
+				+ "2025-03-02\tGrüße\tKlaus", StandardCharsets.UTF_8);
+		try (MappedRecordReader reader = new MappedRecordReader(input, 48)) {
+			assertTrue(reader.next());
+			assertEquals("Tisch für 2", reader.getText().toString());
+			assertTrue(reader.next());
+			assertEquals("Hallo, Tisch fuer 3", reader.getText().toString());
+			assertEquals(LocalDateTime.of(2025, 3, 1, 12, 0), reader.getTimestamp());
+			assertEquals("Tisch", reader.getText().subSequence(7, 12).toString());
+			assertTrue(reader.next());
+			assertEquals("Grüße\tKlaus", reader.getText().toString());
+			assertEquals(LocalDateTime.of(2025, 3, 2, 0, 0), reader.getTimestamp());
+			assertFalse(reader.next());
+			assertNull(reader.read());
+		}
+	}
+
+	@Test
+	void testRecordTooLong() throws IOException {
+		Path input = directory.resolve("requests.txt");
+		Files.writeString(input, "Tisch für 2\nTisch für 20 Personen am 1.5.\n", StandardCharsets.UTF_8);
+		try (MappedRecordReader reader = new MappedRecordReader(input, 16)) {
+			assertTrue(reader.next());
+			assertThrows(IOException.class, () -> reader.next());
+		}
+	}
+
+	@Test
+	void testParse() throws IOException {
+		Path input = directory.resolve("requests.txt");
+		StringBuilder lines = new StringBuilder();
+		for (int i = 1; i <= 1000; i++) {
+			lines.append("2025-03-01T12:00:00\t").append(i % 2 == 0 ? "Hallo, " : "Grüß Gott, ")
+					.append("bitte für ").append(i % 20 + 1).append(" Personen einen Tisch am 19.3. um 20:00 Uhr, Vielen Dank Klaus Müller\n");
+		}
+		Files.writeString(input, lines, StandardCharsets.UTF_8);
+
+		BasicReservationParser parser = new BasicReservationParser();
+		int count = 0;
+		try (MappedRecordReader reader = new MappedRecordReader(input, 4096)) {
+			while (reader.next()) {
+				count++;
+				ReservationData data = parser.parse(reader.getText(), reader.getTimestamp());
+				assertEquals("Klaus Müller", data.getName());
+				assertEquals(MonthDay.of(3, 19), MonthDay.from(data.getDate()));
+				assertEquals(LocalTime.of(20, 0), data.getTime());
+				assertEquals(count % 20 + 1, data.getNumberOfPeople());
+			}
+		}
+		assertEquals(1000, count);
+	}
+
+}
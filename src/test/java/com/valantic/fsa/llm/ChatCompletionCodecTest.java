@@ -0,0 +1,78 @@
+package com.valantic.fsa.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ChatCompletionCodecTest {
+
+	@Test
+	void testWriteRequest() throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		String prompt = "Text:\n \"Tisch für 2 – \\\"Müller\\\"\"";
+		JsonNode request = mapper.readTree(ChatCompletionCodec.writeRequest("gpt-4o", prompt, false));
+		assertEquals("gpt-4o", request.get("model").asText());
+		assertEquals("user", request.get("messages").get(0).get("role").asText());
+		assertEquals(prompt, request.get("messages").get(0).get("content").asText());
+		assertFalse(request.has("stream"));
+
+		request = mapper.readTree(ChatCompletionCodec.writeRequest("gpt-4o", "x".repeat(100_000), true));
+		assertTrue(request.get("stream").asBoolean());
+		assertEquals(100_000, request.get("messages").get(0).get("content").asText().length());
+		// the buffer is reused after a large request
+		assertEquals("{\"model\":\"m\",\"messages\":[{\"role\":\"user\",\"content\":\"p\"}]}",
+				new String(ChatCompletionCodec.writeRequest("m", "p", false), StandardCharsets.UTF_8));
+
+		request = mapper.readTree(ChatCompletionCodec.writeRequest("m", "instructions", "input", false,
+				"{\"type\":\"json_object\"}"));
+		assertEquals("system", request.get("messages").get(0).get("role").asText());
+		assertEquals("instructions", request.get("messages").get(0).get("content").asText());
+		assertEquals("input", request.get("messages").get(1).get("content").asText());
+		assertEquals("json_object", request.get("response_format").get("type").asText());
+	}
+
+	@Test
+	void testReadContent() throws IOException {
+		OpenAICallEvent event = new OpenAICallEvent();
+		assertEquals("(Klaus Müller, 19.03.2025, 20:00, 2)", ChatCompletionCodec.readContent(
+				"{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion\",\"choices\":[{\"index\":0,\"message\":{\"role\":"
+						+ "\"assistant\",\"content\":\"(Klaus Müller, 19.03.2025, 20:00, 2)\",\"refusal\":null},"
+						+ "\"logprobs\":null,\"finish_reason\":\"stop\"},{\"index\":1,\"message\":{\"content\":\"other\"}}],"
+						+ "\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":5,\"details\":{\"cached\":0}}}", event));
+		assertEquals("(Eva Roth)", ChatCompletionCodec.readContent(
+				"{\"usage\":{\"prompt_tokens\":1},\"choices\":[{\"message\":{\"content\":\"(Eva Roth)\",\"role\":\"assistant\"}}]}",
+				event));
+	}
+
+	@Test
+	void testMissingContent() {
+		OpenAICallEvent event = new OpenAICallEvent();
+		OpenAIClient.OpenAIException e = assertThrows(OpenAIClient.OpenAIException.class,
+				() -> ChatCompletionCodec.readContent("{\"choices\":[]}", event));
+		assertTrue(e.getMessage().startsWith("Missing choices[0].message.content"));
+		assertThrows(OpenAIClient.OpenAIException.class,
+				() -> ChatCompletionCodec.readContent("{\"choices\":[{\"message\":{\"content\":null}}]}", event));
+		assertThrows(OpenAIClient.OpenAIException.class,
+				() -> ChatCompletionCodec.readContent("{\"choices\":{\"message\":{\"content\":\"x\"}}}", event));
+		assertThrows(OpenAIClient.OpenAIException.class, () -> ChatCompletionCodec.readContent("[]", event));
+		assertThrows(IOException.class, () -> ChatCompletionCodec.readContent("{\"choices\":[{\"mess", event));
+	}
+
+	@Test
+	void testReadDelta() throws IOException {
+		assertNull(ChatCompletionCodec.readDelta("{\"choices\":[{\"index\":0,\"delta\":{\"role\":\"assistant\"}}]}"));
+		assertEquals("(Kla", ChatCompletionCodec.readDelta("{\"choices\":[{\"index\":0,\"delta\":{\"content\":\"(Kla\"}}]}"));
+		assertNull(ChatCompletionCodec.readDelta("{\"choices\":[{\"index\":0,\"delta\":{},\"finish_reason\":\"stop\"}]}"));
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.valantic.fsa.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+	@Test
+	void testBuckets() {
+		for (long value : new long[] {0, 1, 255, 256, 257, 1000, 123_456_789, Long.MAX_VALUE}) {
+			int index = LatencyHistogram.indexOf(value);
+			assertTrue(LatencyHistogram.highestValueOf(index) >= value);
+			if (index > 0) {
+				assertTrue(LatencyHistogram.highestValueOf(index - 1) < value);
+			}
+		}
+	}
+
+	@Test
+	void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long millis = 1; millis <= 1000; millis++) {
+			histogram.record(millis * 1_000_000);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1_000_000_000, histogram.getMax());
+		assertEquals(500_500_000, histogram.getMean(), 1);
+		assertEquals(500_000_000, histogram.getValueAtPercentile(50), 500_000_000 * 0.01);
+		assertEquals(990_000_000, histogram.getValueAtPercentile(99), 990_000_000 * 0.01);
+		assertEquals(1_000_000_000, histogram.getValueAtPercentile(100));
+
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getValueAtPercentile(99));
+	}
+
+	@Test
+	void testRelativeError() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Random random = new Random(42);
+		for (int i = 0; i < 10_000; i++) {
+			long value = (long) Math.exp(random.nextDouble() * 25);
+			LatencyHistogram single = new LatencyHistogram();
+			single.record(value);
+			assertEquals(value, single.getValueAtPercentile(50), value * 0.01);
+			histogram.record(value);
+		}
+		assertEquals(10_000, histogram.getCount());
+	}
+
+}
@@ -0,0 +1,337 @@
+package com.valantic.fsa.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.valantic.fsa.model.DefaultReservationRequest;
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.parser.OpenAIReservationParser;
+
+class OpenAIClientTest {
+
+	private static final String RESPONSE =
+			"{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"(Klaus Müller, 19.03.2025, 20:00, 2)\"}}],"
+			+ "\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":5}}";
+
+	private static final TransportSettings FAST = new TransportSettings(Duration.ofSeconds(1), Duration.ofMillis(500), 2,
+			Duration.ofMillis(10), Duration.ofMillis(100));
+
+	private static final AtomicInteger FLAKY_CALLS = new AtomicInteger();
+
+	private static final AtomicInteger WARM_UP_CALLS = new AtomicInteger();
+
+	private static HttpServer server;
+
+	private static String apiUrl;
+
+	@BeforeAll
+	public static void beforeClass() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/v1/chat/completions", exchange -> respond(exchange, 200, RESPONSE));
+		server.createContext("/error", exchange -> respond(exchange, 500, "{\"error\":\"overloaded\"}"));
+		server.createContext("/flaky", exchange -> {
+			// every call is rate limited once, then answered
+			if (FLAKY_CALLS.incrementAndGet() % 2 == 1) {
+				exchange.getResponseHeaders().add("Retry-After", "0");
+				respond(exchange, 429, "{\"error\":\"rate limited\"}");
+			} else {
+				respond(exchange, 200, RESPONSE);
+			}
+		});
+		server.createContext("/slow", exchange -> {
+			try {
+				Thread.sleep(2000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			respond(exchange, 200, RESPONSE);
+		});
+		server.createContext("/stream", OpenAIClientTest::stream);
+		server.createContext("/warm", exchange -> {
+			WARM_UP_CALLS.incrementAndGet();
+			respond(exchange, 405, "");
+		});
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+		apiUrl = "http://localhost:" + server.getAddress().getPort();
+	}
+
+	@AfterAll
+	public static void afterClass() {
+		server.stop(0);
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		exchange.getRequestBody().readAllBytes();
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static void stream(HttpExchange exchange) throws IOException {
+		String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+		if (!request.contains("\"stream\":true")) {
+			respond(exchange, 400, "{\"error\":\"not streamed\"}");
+			return;
+		}
+		exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+		exchange.sendResponseHeaders(200, 0);
+		try (OutputStream out = exchange.getResponseBody()) {
+			for (String delta : new String[] {"Gerne: (Klaus", " Müller, 19.03.2025", ", 20:00, 2)\n", "Hinweis: ..."}) {
+				out.write(("data: {\"choices\":[{\"delta\":{\"content\":\"" + delta.replace("\n", "\\n")
+						+ "\"}}]}\n\n").getBytes(StandardCharsets.UTF_8));
+				out.flush();
+			}
+			// the model keeps talking
+			Thread.sleep(3000);
+			out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+		} catch (IOException | InterruptedException e) {
+			// the client cancelled the stream
+		}
+	}
+
+	@Test
+	void testAskStreaming() throws Exception {
+		OpenAIClient client = new OpenAIClient("test", apiUrl + "/stream", "key", null, FAST);
+		long start = System.nanoTime();
+		assertEquals("Gerne: (Klaus Müller, 19.03.2025, 20:00, 2)\n",
+				client.askStreaming("prompt", content -> content.toString().contains(")")));
+		assertEquals("Gerne: (Klaus",
+				client.askStreamingAsync("prompt", content -> content.length() > 0).get());
+		assertTrue(System.nanoTime() - start < 2_000_000_000L);
+
+		OpenAIClient notStreamed = new OpenAIClient("test", apiUrl + "/error", "key", null, FAST);
+		assertThrows(OpenAIClient.OpenAIException.class, () -> notStreamed.askStreaming("prompt", content -> true));
+	}
+
+	@Test
+	void testParseStreaming() throws Exception {
+		OpenAIReservationParser parser = new OpenAIReservationParser(
+				new OpenAIClient("test", apiUrl + "/stream", "key", null, FAST), 1000, true);
+		long start = System.nanoTime();
+		ReservationData data = parser.parse(new DefaultReservationRequest("Hallo", LocalDateTime.now()));
+		assertEquals("Klaus Müller", data.getName());
+		assertEquals(LocalDate.of(2025, 3, 19), data.getDate());
+		assertEquals(LocalTime.of(20, 0), data.getTime());
+		assertEquals(2, data.getNumberOfPeople());
+		data = parser.parseAsync(new DefaultReservationRequest("Hallo", LocalDateTime.now())).get();
+		assertEquals(2, data.getNumberOfPeople());
+		assertTrue(System.nanoTime() - start < 2_000_000_000L);
+	}
+
+	@Test
+	void testAskAsync() throws Exception {
+		OpenAIClient client = new OpenAIClient("test", apiUrl + "/v1/chat/completions", "key");
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			futures.add(client.askAsync("prompt " + i));
+		}
+		for (CompletableFuture<String> future : futures) {
+			assertEquals("(Klaus Müller, 19.03.2025, 20:00, 2)", future.get());
+		}
+		assertEquals("(Klaus Müller, 19.03.2025, 20:00, 2)", client.ask("prompt"));
+	}
+
+	@Test
+	void testAskAsyncError() {
+		OpenAIClient client = new OpenAIClient("test", apiUrl + "/error", "key", null, FAST);
+		ExecutionException e = assertThrows(ExecutionException.class, () -> client.askAsync("prompt").get());
+		assertInstanceOf(OpenAIClient.OpenAIException.class, e.getCause());
+		assertEquals("{\"error\":\"overloaded\"}", e.getCause().getMessage());
+		assertThrows(OpenAIClient.OpenAIException.class, () -> client.ask("prompt"));
+	}
+
+	@Test
+	void testRetry() throws Exception {
+		OpenAIClient client = new OpenAIClient("test", apiUrl + "/flaky", "key", null, FAST);
+		FLAKY_CALLS.set(0);
+		assertEquals("(Klaus Müller, 19.03.2025, 20:00, 2)", client.ask("prompt"));
+		assertEquals(2, FLAKY_CALLS.get());
+		assertEquals("(Klaus Müller, 19.03.2025, 20:00, 2)", client.askAsync("prompt").get());
+		assertEquals(4, FLAKY_CALLS.get());
+
+		OpenAIClient noRetries = new OpenAIClient("test", apiUrl + "/flaky", "key", null, new TransportSettings(
+				Duration.ofSeconds(1), Duration.ofSeconds(1), 0, Duration.ZERO, Duration.ZERO));
+		assertThrows(OpenAIClient.OpenAIException.class, () -> noRetries.ask("prompt"));
+	}
+
+	@Test
+	void testTimeout() {
+		OpenAIClient client = new OpenAIClient("test", apiUrl + "/slow", "key", null, FAST);
+		long start = System.nanoTime();
+		assertThrows(OpenAIClient.OpenAIException.class, () -> client.ask("prompt"));
+		ExecutionException e = assertThrows(ExecutionException.class, () -> client.askAsync("prompt").get());
+		assertInstanceOf(OpenAIClient.OpenAIException.class, e.getCause());
+		// 2 x 3 attempts of 500 ms plus backoff, far less than the 2 s the server takes per request
+		assertTrue(System.nanoTime() - start < 6_000_000_000L);
+	}
+
+	@Test
+	void testInterruptDuringBackoff() throws Exception {
+		TransportSettings settings = new TransportSettings(Duration.ofSeconds(1), Duration.ofSeconds(1), 3,
+				Duration.ofSeconds(10), Duration.ofSeconds(10));
+		OpenAIClient client = new OpenAIClient("test", apiUrl + "/error", "key", null, settings);
+		CompletableFuture<Throwable> thrown = new CompletableFuture<>();
+		CompletableFuture<Boolean> interrupted = new CompletableFuture<>();
+		Thread thread = new Thread(() -> {
+			try {
+				client.ask("prompt");
+			} catch (OpenAIClient.OpenAIException e) {
+				thrown.complete(e.getCause());
+			} finally {
+				interrupted.complete(Thread.currentThread().isInterrupted());
+			}
+		});
+		thread.start();
+		// wait for the first attempt to fail, i.e., the thread to sleep in the backoff
+		Thread.sleep(500);
+		thread.interrupt();
+		thread.join(5000);
+		assertFalse(thread.isAlive());
+		assertInstanceOf(InterruptedException.class, thrown.get());
+		assertTrue(interrupted.get());
+	}
+
+	@Test
+	void testBackoff() {
+		TransportSettings settings = new TransportSettings(Duration.ofSeconds(1), Duration.ofSeconds(1), 5,
+				Duration.ofMillis(100), Duration.ofMillis(1000));
+		for (int i = 0; i < 100; i++) {
+			assertTrue(settings.getBackoffMillis(0, null) <= 100);
+			assertTrue(settings.getBackoffMillis(2, null) <= 400);
+			assertTrue(settings.getBackoffMillis(10, null) <= 1000);
+		}
+		assertEquals(0, settings.getBackoffMillis(0, "0"));
+		assertEquals(1000, settings.getBackoffMillis(0, "120"));
+		assertEquals(0, settings.getBackoffMillis(0, "Wed, 21 Oct 2015 07:28:00 GMT"));
+		assertTrue(settings.isRetryable(429));
+		assertTrue(settings.isRetryable(503));
+		assertFalse(settings.isRetryable(400));
+	}
+
+	@Test
+	void testWarmUp() throws Exception {
+		OpenAIClient client = new OpenAIClient("test", apiUrl + "/warm", "key", null, FAST);
+		client.warmUp().get();
+		assertEquals(1, WARM_UP_CALLS.get());
+	}
+
+	@Test
+	void testSharedExecutor() throws Exception {
+		TransportSettings settings = new TransportSettings(Duration.ofSeconds(1), Duration.ofSeconds(1), 0,
+				Duration.ofMillis(10), Duration.ofMillis(100), 3);
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			OpenAIClient client = new OpenAIClient("test", apiUrl + "/v1/chat/completions", "key", null, settings);
+			futures.add(client.askAsync("shared " + i));
+		}
+		for (CompletableFuture<String> future : futures) {
+			future.get();
+		}
+		// clients with the same number of threads share one pool (plus the pool of the default settings)
+		long threads = Thread.getAllStackTraces().keySet().stream()
+				.filter(thread -> "openai-client".equals(thread.getName()))
+				.count();
+		assertTrue(threads <= settings.getThreads() + new TransportSettings().getThreads(), Long.toString(threads));
+	}
+
+	@Test
+	void testRecordCalls(@TempDir Path directory) throws Exception {
+		OpenAIClient client = new OpenAIClient("recorded", apiUrl + "/v1/chat/completions", "key");
+		OpenAIClient failing = new OpenAIClient("recorded", apiUrl + "/error", "key", null, FAST);
+		Path file = directory.resolve("calls.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("com.valantic.fsa.OpenAICall");
+			recording.start();
+			client.ask("prompt");
+			assertThrows(OpenAIClient.OpenAIException.class, () -> failing.ask("prompt"));
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+				.filter(event -> event.getEventType().getName().equals("com.valantic.fsa.OpenAICall"))
+				.collect(Collectors.toList());
+		assertEquals(2, events.size());
+		RecordedEvent success = events.get(0).getBoolean("success") ? events.get(0) : events.get(1);
+		RecordedEvent failure = (success == events.get(0)) ? events.get(1) : events.get(0);
+		assertEquals("recorded", success.getString("model"));
+		assertEquals(200, success.getInt("status"));
+		assertEquals(RESPONSE.getBytes(StandardCharsets.UTF_8).length, success.getLong("responseBytes"));
+		assertTrue(success.getLong("promptBytes") > 0);
+		assertEquals(12, success.getInt("promptTokens"));
+		assertEquals(5, success.getInt("completionTokens"));
+		assertEquals(500, failure.getInt("status"));
+		assertEquals(-1, failure.getInt("promptTokens"));
+		assertEquals(1, success.getInt("attempts"));
+		assertEquals(3, failure.getInt("attempts"));
+
+		LatencyHistogram histogram = OpenAIClient.getLatencyHistogram("recorded");
+		assertEquals(2, histogram.getCount());
+		assertTrue(histogram.getValueAtPercentile(50) > 0);
+		assertTrue(OpenAIClient.getLatencyHistograms().containsKey("recorded"));
+	}
+
+	@Test
+	void testCache(@TempDir Path directory) throws Exception {
+		try (ResponseCache cache = new ResponseCache(directory)) {
+			OpenAIClient client = new OpenAIClient("test", apiUrl + "/v1/chat/completions", "key", cache);
+			assertEquals("(Klaus Müller, 19.03.2025, 20:00, 2)", client.ask("cached prompt"));
+			assertEquals("(Klaus Müller, 19.03.2025, 20:00, 2)", client.askAsync("cached prompt").get());
+			assertEquals("(Klaus Müller, 19.03.2025, 20:00, 2)", client.ask("cached prompt"));
+			assertEquals(2, cache.getHits());
+			assertEquals(1, cache.getMisses());
+
+			// the truncated content of a stream is not cached
+			OpenAIClient streaming = new OpenAIClient("test", apiUrl + "/stream", "key", cache, FAST);
+			assertEquals("Gerne: (Klaus Müller, 19.03.2025, 20:00, 2)\n",
+					streaming.askStreaming("streamed prompt", content -> content.toString().contains(")")));
+			assertThrows(OpenAIClient.OpenAIException.class, () -> streaming.ask("streamed prompt"));
+		}
+	}
+
+	@Test
+	void testParseAsync() throws Exception {
+		OpenAIReservationParser parser = new OpenAIReservationParser(
+				new OpenAIClient("test", apiUrl + "/v1/chat/completions", "key"));
+		ReservationData data = parser.parseAsync(new DefaultReservationRequest("Hallo", LocalDateTime.now())).get();
+		assertEquals("Klaus Müller", data.getName());
+		assertEquals(LocalDate.of(2025, 3, 19), data.getDate());
+		assertEquals(LocalTime.of(20, 0), data.getTime());
+		assertEquals(2, data.getNumberOfPeople());
+	}
+
+}
@@ -0,0 +1,449 @@
+package com.valantic.fsa.llm;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * An in-process stub of the OpenAI chat completions API ({@code /v1/chat/completions}) for offline tests and load
+ * tests. Each request is answered after a latency drawn from a configurable distribution, fails with status 500
+ * at a configurable rate, or is rate limited (status 429 with Retry-After) in periodic bursts. The answers are
+ * deterministic tuples derived from the texts of the prompt (see {@link #answer(String)}); single, field-subset
+ * and batch prompts as well as streamed requests are supported.
+ *
+ * @author M. Frick
+ */
+public class OpenAIStubServer implements AutoCloseable {
+
+	/**
+	 * The path of the chat completions API.
+	 */
+	public static final String PATH = "/v1/chat/completions";
+
+	/**
+	 * Pattern of the requested answer format, e.g., "im Format: (Name, Datum)" or "im Format: Nr: (Name, ...)".
+	 */
+	private static final Pattern FORMAT = Pattern.compile("im Format: (Nr: )?\\(([^)]*)\\)");
+
+	/**
+	 * Pattern of a text of a batch prompt.
+	 */
+	private static final Pattern BATCH_TEXT = Pattern.compile("Text (\\d+) \\(Zeitpunkt [^)]*\\):\\n \"(.*)\"\\n");
+
+	/**
+	 * Pattern of the text of a single prompt.
+	 */
+	private static final Pattern SINGLE_TEXT = Pattern.compile("Text:\\n \"(.*)\"$", Pattern.DOTALL);
+
+	/**
+	 * The format of a date in an answer.
+	 */
+	public static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+	/**
+	 * The format of a time in an answer.
+	 */
+	public static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+
+	/**
+	 * The number of characters per streamed content delta.
+	 */
+	private static final int DELTA_LENGTH = 4;
+
+	static {
+		// without TCP_NODELAY, the delayed ACK of the client adds about 40 ms to each response
+		if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		}
+	}
+
+	/**
+	 * The latency distribution in milliseconds.
+	 */
+	private LongSupplier latency;
+
+	/**
+	 * The rate of requests failing with status 500.
+	 */
+	private double errorRate;
+
+	/**
+	 * The number of requests from the start of one 429 burst to the start of the next (0 for no bursts).
+	 */
+	private int burstInterval;
+
+	/**
+	 * The number of requests rate limited per burst.
+	 */
+	private int burstLength;
+
+	/**
+	 * The function answering a user prompt.
+	 */
+	private Function<String, String> answerer;
+
+	/**
+	 * The random numbers deciding on errors.
+	 */
+	private Random random = new Random(42);
+
+	private ObjectMapper mapper = new ObjectMapper();
+	private HttpServer server;
+	private ExecutorService executor;
+
+	/**
+	 * The number of requests received.
+	 */
+	private AtomicLong requests = new AtomicLong();
+
+	/**
+	 * The number of requests failed with status 500.
+	 */
+	private AtomicLong errors = new AtomicLong();
+
+	/**
+	 * The number of requests rate limited with status 429.
+	 */
+	private AtomicLong rateLimited = new AtomicLong();
+
+	/**
+	 * The bodies of the requests received (null if requests are not recorded).
+	 */
+	private List<JsonNode> recorded;
+
+	/**
+	 * Constructs a new stub server answering immediately and without errors.
+	 */
+	public OpenAIStubServer() {
+		this(fixedLatency(0), 0, 0, 0);
+	}
+
+	/**
+	 * Constructs a new stub server with the given latency, error rate and 429 bursts, answering with the
+	 * deterministic tuples.
+	 *
+	 * @param latency the latency distribution in milliseconds (see {@link #fixedLatency(long)},
+	 *        {@link #uniformLatency(long, long)} and {@link #logNormalLatency(double, double)})
+	 * @param errorRate the rate of requests failing with status 500
+	 * @param burstInterval the number of requests from the start of one 429 burst to the start of the next (0 for
+	 *        no bursts)
+	 * @param burstLength the number of requests rate limited per burst
+	 */
+	public OpenAIStubServer(LongSupplier latency, double errorRate, int burstInterval, int burstLength) {
+		this(latency, errorRate, burstInterval, burstLength, OpenAIStubServer::answer);
+	}
+
+	/**
+	 * Constructs a new stub server with the given latency, error rate, 429 bursts and answers.
+	 *
+	 * @param latency the latency distribution in milliseconds
+	 * @param errorRate the rate of requests failing with status 500
+	 * @param burstInterval the number of requests from the start of one 429 burst to the start of the next (0 for
+	 *        no bursts)
+	 * @param burstLength the number of requests rate limited per burst
+	 * @param answerer the function answering a user prompt
+	 */
+	public OpenAIStubServer(LongSupplier latency, double errorRate, int burstInterval, int burstLength,
+			Function<String, String> answerer) {
+		this.latency = latency;
+		this.errorRate = errorRate;
+		this.burstInterval = burstInterval;
+		this.burstLength = burstLength;
+		this.answerer = answerer;
+	}
+
+	/**
+	 * Records the bodies of all requests received from now on, e.g., to check the request parameters in tests
+	 * (not meant for load tests, as the bodies are kept).
+	 *
+	 * @return this server
+	 */
+	public OpenAIStubServer recordRequests() {
+		recorded = Collections.synchronizedList(new ArrayList<>());
+		return this;
+	}
+
+	/**
+	 * Returns the bodies of the requests recorded (see {@link #recordRequests()}).
+	 *
+	 * @return the request bodies in the order received
+	 */
+	public List<JsonNode> getRecordedRequests() {
+		if (recorded == null) {
+			return Collections.emptyList();
+		}
+		synchronized (recorded) {
+			return new ArrayList<>(recorded);
+		}
+	}
+
+	/**
+	 * Starts the server on a free local port.
+	 *
+	 * @return this server
+	 * @throws IOException if the server cannot be started
+	 */
+	public OpenAIStubServer start() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext(PATH, this::handle);
+		executor = Executors.newCachedThreadPool();
+		server.setExecutor(executor);
+		server.start();
+		return this;
+	}
+
+	@Override
+	public void close() {
+		if (server != null) {
+			server.stop(0);
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns the URL of the chat completions API of the server.
+	 *
+	 * @return the API URL
+	 */
+	public String getApiUrl() {
+		return "http://localhost:" + server.getAddress().getPort() + PATH;
+	}
+
+	/**
+	 * Returns the number of requests received.
+	 *
+	 * @return the number of requests
+	 */
+	public long getRequests() {
+		return requests.get();
+	}
+
+	/**
+	 * Returns the number of requests failed with status 500.
+	 *
+	 * @return the number of errors
+	 */
+	public long getErrors() {
+		return errors.get();
+	}
+
+	/**
+	 * Returns the number of requests rate limited with status 429.
+	 *
+	 * @return the number of rate limited requests
+	 */
+	public long getRateLimited() {
+		return rateLimited.get();
+	}
+
+	/**
+	 * Returns a latency distribution always returning the given latency.
+	 *
+	 * @param millis the latency in milliseconds
+	 * @return the latency distribution
+	 */
+	public static LongSupplier fixedLatency(long millis) {
+		return () -> millis;
+	}
+
+	/**
+	 * Returns a latency distribution uniform between the given latencies.
+	 *
+	 * @param minMillis the minimum latency in milliseconds
+	 * @param maxMillis the maximum latency in milliseconds
+	 * @return the latency distribution
+	 */
+	public static LongSupplier uniformLatency(long minMillis, long maxMillis) {
+		Random random = new Random(42);
+		return () -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis + 1));
+	}
+
+	/**
+	 * Returns a log-normal latency distribution, i.e., a long-tailed distribution as typical for LLM APIs.
+	 *
+	 * @param medianMillis the median latency in milliseconds
+	 * @param sigma the standard deviation of the logarithm of the latency (e.g., 0.5 for a p99 of about three
+	 *        times the median)
+	 * @return the latency distribution
+	 */
+	public static LongSupplier logNormalLatency(double medianMillis, double sigma) {
+		Random random = new Random(42);
+		return () -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+	}
+
+	/**
+	 * Answers a user prompt of the {@code OpenAIReservationParser} with deterministic tuples: for a single or
+	 * field-subset prompt the tuple of the requested fields, for a batch prompt one indexed tuple per text.
+	 *
+	 * @param prompt the user prompt
+	 * @return the answer
+	 */
+	public static String answer(String prompt) {
+		Matcher format = FORMAT.matcher(prompt);
+		if (!format.find()) {
+			return "";
+		}
+		List<String> labels = new ArrayList<>();
+		for (String label : format.group(2).split(",")) {
+			labels.add(label.trim());
+		}
+		if (format.group(1) != null) {
+			StringBuilder sb = new StringBuilder();
+			Matcher text = BATCH_TEXT.matcher(prompt);
+			while (text.find()) {
+				sb.append(text.group(1)).append(": ").append(answer(text.group(2), labels)).append('\n');
+			}
+			return sb.toString();
+		}
+		Matcher text = SINGLE_TEXT.matcher(prompt);
+		return answer(text.find() ? text.group(1) : prompt, labels);
+	}
+
+	/**
+	 * Returns the deterministic tuple of the given fields for a text, e.g., "(Gast 123, 04.05.2030, 18:00, 3)".
+	 *
+	 * @param text the text of a reservation request
+	 * @param labels the labels of the fields (Name, Datum, Uhrzeit, Personen)
+	 * @return the tuple
+	 */
+	public static String answer(String text, List<String> labels) {
+		int hash = text.hashCode() & Integer.MAX_VALUE;
+		List<String> values = new ArrayList<>();
+		for (String label : labels) {
+			switch (label) {
+			case "Name":
+				values.add("Gast " + (hash % 1000));
+				break;
+			case "Datum":
+				values.add(LocalDate.of(2030, 1, 1).plusDays(hash % 365).format(DATE));
+				break;
+			case "Uhrzeit":
+				values.add(LocalTime.of(12 + hash % 10, 15 * (hash % 4)).format(TIME));
+				break;
+			case "Personen":
+				values.add(Integer.toString(1 + hash % 8));
+				break;
+			default:
+				values.add("");
+			}
+		}
+		return "(" + String.join(", ", values) + ")";
+	}
+
+	/**
+	 * Handles a request of the chat completions API.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @throws IOException if the response cannot be sent
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			JsonNode request = mapper.readTree(exchange.getRequestBody());
+			if (recorded != null) {
+				recorded.add(request);
+			}
+			long n = requests.getAndIncrement();
+			Thread.sleep(Math.max(0, latency.getAsLong()));
+
+			if ((burstInterval > 0) && (n % burstInterval < burstLength)) {
+				rateLimited.incrementAndGet();
+				exchange.getResponseHeaders().add("Retry-After", "1");
+				this.respond(exchange, 429, "{\"error\":{\"message\":\"Rate limit reached\",\"type\":\"requests\"}}");
+				return;
+			}
+			if (random.nextDouble() < errorRate) {
+				errors.incrementAndGet();
+				this.respond(exchange, 500, "{\"error\":{\"message\":\"The server had an error\",\"type\":\"server_error\"}}");
+				return;
+			}
+
+			StringBuilder prompt = new StringBuilder();
+			for (JsonNode message : request.path("messages")) {
+				prompt.append(message.path("content").asText()).append('\n');
+			}
+			String content = answerer.apply(prompt.toString().trim());
+			if (request.path("stream").asBoolean()) {
+				this.stream(exchange, content);
+			} else {
+				this.respond(exchange, 200, mapper.writeValueAsString(mapper.createObjectNode()
+						.put("object", "chat.completion")
+						.put("model", request.path("model").asText())
+						.<ObjectNode>set("choices", mapper.createArrayNode()
+								.add(mapper.createObjectNode().put("index", 0).set("message",
+										mapper.createObjectNode().put("role", "assistant").put("content", content))))
+						.set("usage", mapper.createObjectNode()
+								.put("prompt_tokens", request.toString().length() / 4)
+								.put("completion_tokens", content.length() / 4))));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Streams the content as server-sent events of a few characters each.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @param content the content
+	 */
+	private void stream(HttpExchange exchange, String content) {
+		try {
+			exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+			exchange.sendResponseHeaders(200, 0);
+			OutputStream out = exchange.getResponseBody();
+			for (int i = 0; i < content.length(); i += DELTA_LENGTH) {
+				String delta = content.substring(i, Math.min(content.length(), i + DELTA_LENGTH));
+				out.write(("data: " + mapper.writeValueAsString(mapper.createObjectNode().set("choices",
+						mapper.createArrayNode().add(mapper.createObjectNode().put("index", 0).set("delta",
+								mapper.createObjectNode().put("content", delta))))) + "\n\n")
+						.getBytes(StandardCharsets.UTF_8));
+				out.flush();
+			}
+			out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+			out.close();
+		} catch (IOException e) {
+			// fail gracefully, i.e., the client cancelled the stream
+		}
+	}
+
+	/**
+	 * Sends a JSON response.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @param status the HTTP status
+	 * @param body the response body
+	 * @throws IOException if the response cannot be sent
+	 */
+	private void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+}
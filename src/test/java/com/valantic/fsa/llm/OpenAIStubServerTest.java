@@ -0,0 +1,109 @@
+package com.valantic.fsa.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.valantic.fsa.model.DefaultReservationRequest;
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.model.ReservationField;
+import com.valantic.fsa.model.ReservationRequest;
+import com.valantic.fsa.parser.OpenAIReservationParser;
+
+class OpenAIStubServerTest {
+
+	private static final TransportSettings FAST = new TransportSettings(Duration.ofSeconds(1), Duration.ofSeconds(5), 3,
+			Duration.ofMillis(10), Duration.ofMillis(50));
+
+	@Test
+	void testDeterministicAnswers() throws Exception {
+		try (OpenAIStubServer server = new OpenAIStubServer().start()) {
+			OpenAIReservationParser parser = new OpenAIReservationParser(
+					new OpenAIClient("stub", server.getApiUrl(), "key", null, FAST));
+			ReservationRequest request = new DefaultReservationRequest("Tisch für 4 am 1.5., Tom", LocalDateTime.now());
+			ReservationData data = parser.parse(request);
+			assertEquals(OpenAIStubServer.answer("Tisch für 4 am 1.5., Tom", List.of("Name", "Datum", "Uhrzeit", "Personen")),
+					"(" + data.getName() + ", " + data.getDate().format(OpenAIStubServer.DATE) + ", "
+							+ data.getTime().format(OpenAIStubServer.TIME) + ", "
+							+ data.getNumberOfPeople() + ")");
+			assertEquals(data.getName(), parser.parse(request).getName());
+
+			ReservationData name = parser.parse(request, EnumSet.of(ReservationField.NAME));
+			assertEquals(data.getName(), name.getName());
+
+			List<ReservationRequest> requests = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				requests.add(new DefaultReservationRequest("Tisch für " + i, LocalDateTime.now()));
+			}
+			List<ReservationData> results = parser.parseBatch(requests);
+			for (int i = 0; i < 10; i++) {
+				assertEquals(parser.parse(requests.get(i)).getNumberOfPeople(), results.get(i).getNumberOfPeople());
+			}
+		}
+	}
+
+	@Test
+	void testStreaming() throws Exception {
+		try (OpenAIStubServer server = new OpenAIStubServer().start()) {
+			OpenAIReservationParser parser = new OpenAIReservationParser(
+					new OpenAIClient("stub", server.getApiUrl(), "key", null, FAST), 1000, true);
+			ReservationData data = parser.parse(new DefaultReservationRequest("Tisch für 4", LocalDateTime.now()));
+			assertNotNull(data.getName());
+			assertNotNull(data.getDate());
+			assertNotNull(data.getTime());
+			assertTrue(data.getNumberOfPeople() > 0);
+		}
+	}
+
+	@Test
+	void testErrorsAndBursts() throws Exception {
+		LongSupplier latency = OpenAIStubServer.uniformLatency(1, 5);
+		try (OpenAIStubServer server = new OpenAIStubServer(latency, 0.1, 20, 3).start()) {
+			OpenAIClient client = new OpenAIClient("stub", server.getApiUrl(), "key", null, FAST);
+			List<CompletableFuture<String>> futures = new ArrayList<>();
+			for (int i = 0; i < 50; i++) {
+				futures.add(client.askAsync("Extrahiere im Format: (Personen)\n\nText:\n \"" + i + "\""));
+			}
+			int answered = 0;
+			for (CompletableFuture<String> future : futures) {
+				try {
+					assertTrue(future.get().matches("\\(\\d\\)"));
+					answered++;
+				} catch (Exception e) {
+					// retries exhausted
+				}
+			}
+			assertTrue(answered >= 45);
+			assertTrue(server.getRateLimited() >= 3);
+			assertTrue(server.getErrors() > 0);
+			assertEquals(answered + server.getRateLimited() + server.getErrors(), server.getRequests());
+		}
+	}
+
+	@Test
+	void testLatencyDistributions() {
+		LongSupplier logNormal = OpenAIStubServer.logNormalLatency(100, 0.5);
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 10_000; i++) {
+			histogram.record(logNormal.getAsLong());
+		}
+		assertEquals(100, histogram.getValueAtPercentile(50), 5);
+		assertTrue(histogram.getValueAtPercentile(99) > 250);
+		LongSupplier uniform = OpenAIStubServer.uniformLatency(10, 20);
+		for (int i = 0; i < 1000; i++) {
+			long value = uniform.getAsLong();
+			assertTrue((value >= 10) && (value <= 20));
+		}
+	}
+
+}
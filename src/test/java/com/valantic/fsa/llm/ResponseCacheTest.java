@@ -0,0 +1,91 @@
+package com.valantic.fsa.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResponseCacheTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testGetAndPut() throws IOException {
+		try (ResponseCache cache = new ResponseCache(directory)) {
+			assertNull(cache.get("gpt-4o", "prompt"));
+			cache.put("gpt-4o", "prompt", "(Klaus Müller, 19.03.2025, 20:00, 2)");
+			assertEquals("(Klaus Müller, 19.03.2025, 20:00, 2)", cache.get("gpt-4o", "prompt"));
+			assertNull(cache.get("gpt-3.5-turbo", "prompt"));
+
+			cache.put("gpt-4o", "prompt", "(Klaus Müller, 19.03.2025, 20:00, 3)");
+			assertEquals("(Klaus Müller, 19.03.2025, 20:00, 3)", cache.get("gpt-4o", "prompt"));
+			assertEquals(1, cache.size());
+			assertEquals(2, cache.getHits());
+			assertEquals(2, cache.getMisses());
+		}
+	}
+
+	@Test
+	void testRestart() throws IOException {
+		try (ResponseCache cache = new ResponseCache(directory)) {
+			for (int i = 0; i < 5000; i++) {
+				cache.put("gpt-4o", "prompt " + i, "response " + i);
+			}
+		}
+		try (ResponseCache cache = new ResponseCache(directory)) {
+			assertEquals(5000, cache.size());
+			for (int i = 0; i < 5000; i++) {
+				assertEquals("response " + i, cache.get("gpt-4o", "prompt " + i));
+			}
+		}
+	}
+
+	@Test
+	void testRecoverTruncatedLog() throws IOException {
+		long size;
+		try (ResponseCache cache = new ResponseCache(directory)) {
+			cache.put("gpt-4o", "prompt 1", "response 1");
+			size = cache.getLogSize();
+			cache.put("gpt-4o", "prompt 2", "response 2");
+		}
+		try (FileChannel log = FileChannel.open(directory.resolve("responses.log"), StandardOpenOption.WRITE)) {
+			log.truncate(size + 10);
+		}
+		try (ResponseCache cache = new ResponseCache(directory)) {
+			assertEquals("response 1", cache.get("gpt-4o", "prompt 1"));
+			assertNull(cache.get("gpt-4o", "prompt 2"));
+			assertEquals(size, cache.getLogSize());
+		}
+	}
+
+	@Test
+	void testTimeToLive() throws Exception {
+		try (ResponseCache cache = new ResponseCache(directory, ResponseCache.DEFAULT_MAX_BYTES, Duration.ofMillis(1))) {
+			cache.put("gpt-4o", "prompt", "response");
+			Thread.sleep(10);
+			assertNull(cache.get("gpt-4o", "prompt"));
+		}
+	}
+
+	@Test
+	void testSizeBound() throws IOException {
+		try (ResponseCache cache = new ResponseCache(directory, 10_000, ResponseCache.DEFAULT_TTL)) {
+			for (int i = 0; i < 1000; i++) {
+				cache.put("gpt-4o", "prompt " + i, "response " + i);
+				assertTrue(cache.getLogSize() <= 10_000);
+			}
+			assertEquals("response 999", cache.get("gpt-4o", "prompt 999"));
+			assertNull(cache.get("gpt-4o", "prompt 0"));
+		}
+	}
+
+}
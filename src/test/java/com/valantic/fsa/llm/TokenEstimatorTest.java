@@ -0,0 +1,31 @@
+package com.valantic.fsa.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenEstimatorTest {
+
+	@Test
+	void testEstimate() {
+		assertEquals(0, TokenEstimator.estimate(""));
+		assertEquals(2, TokenEstimator.estimate("Tisch"));
+		assertEquals(4, TokenEstimator.estimate("Tisch für"));
+		assertEquals(2, TokenEstimator.estimate("2025"));
+		assertEquals(6, TokenEstimator.estimate("19.03.2025"));
+		assertEquals(3, TokenEstimator.estimate("a\n\nb"));
+
+		int tokens = TokenEstimator.estimate("Guten Tag, einen Tisch für vier Personen am kommenden Montagabend um 20 Uhr, Gruß Franz Schulze");
+		assertTrue((tokens >= 20) && (tokens <= 30), Integer.toString(tokens));
+	}
+
+	@Test
+	void testEstimateChat() {
+		assertEquals(TokenEstimator.TOKENS_PER_MESSAGE + TokenEstimator.TOKENS_PER_REPLY + 2,
+				TokenEstimator.estimate(null, "Tisch"));
+		assertEquals(2 * TokenEstimator.TOKENS_PER_MESSAGE + TokenEstimator.TOKENS_PER_REPLY + 4,
+				TokenEstimator.estimate("Tisch", "Tisch"));
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.valantic.fsa.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+class ReservationDataBatchTest {
+
+	@Test
+	void testCompactReservationData() {
+		ReservationData data = new CompactReservationData("Klaus Müller", LocalDate.of(2025, 3, 19), LocalTime.of(20, 15), 4);
+		assertEquals("Klaus Müller", data.getName());
+		assertEquals(LocalDate.of(2025, 3, 19), data.getDate());
+		assertEquals(LocalTime.of(20, 15), data.getTime());
+		assertEquals(4, data.getNumberOfPeople());
+
+		data = new CompactReservationData(null, null, null, -1);
+		assertNull(data.getName());
+		assertNull(data.getDate());
+		assertNull(data.getTime());
+		assertEquals(-1, data.getNumberOfPeople());
+
+		assertThrows(IllegalArgumentException.class, () -> new CompactReservationData("Gast", null, null, 100000));
+		ReservationData unpackable = new DefaultReservationData("Gast", null, LocalTime.of(20, 0, 30), 2);
+		assertSame(unpackable, CompactReservationData.of(unpackable));
+		assertInstanceOf(CompactReservationData.class, CompactReservationData.of(new DefaultReservationData("Gast")));
+	}
+
+	@Test
+	void testBatch() {
+		ReservationDataBatch batch = new ReservationDataBatch(4);
+		LocalDate date = LocalDate.of(2025, 3, 19);
+		for (int i = 0; i < 10000; i++) {
+			batch.add(new DefaultReservationData((i % 3 == 0) ? null : "Gast " + (i % 10), date.plusDays(i % 30),
+					(i % 5 == 0) ? null : LocalTime.of(i % 24, i % 60), i % 12));
+		}
+		batch.add(new DefaultReservationData("Gruppe", LocalDate.MAX, LocalTime.of(20, 0), 100000));
+
+		assertEquals(10001, batch.size());
+		assertEquals(11, batch.getNameCount());
+		for (int i = 0; i < 10000; i++) {
+			ReservationData data = batch.get(i);
+			assertEquals((i % 3 == 0) ? null : "Gast " + (i % 10), data.getName());
+			assertEquals(date.plusDays(i % 30), data.getDate());
+			assertEquals((i % 5 == 0) ? null : LocalTime.of(i % 24, i % 60), data.getTime());
+			assertEquals(i % 12, data.getNumberOfPeople());
+		}
+		assertEquals("Gruppe", batch.get(10000).getName());
+		assertEquals(LocalDate.MAX, batch.getDate(10000));
+		assertEquals(100000, batch.getNumberOfPeople(10000));
+		assertThrows(IndexOutOfBoundsException.class, () -> batch.get(10001));
+
+		batch.clear();
+		assertEquals(0, batch.size());
+		assertEquals(0, batch.getNameCount());
+	}
+
+}
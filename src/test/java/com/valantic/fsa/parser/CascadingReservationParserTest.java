@@ -0,0 +1,98 @@
+package com.valantic.fsa.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+import com.valantic.fsa.llm.OpenAIClient;
+import com.valantic.fsa.model.DefaultReservationData;
+import com.valantic.fsa.model.DefaultReservationRequest;
+import com.valantic.fsa.model.ReservationData;
+
+class CascadingReservationParserTest {
+
+	private static final List<String> PROMPTS = new CopyOnWriteArrayList<>();
+
+	private static HttpServer server;
+
+	private static CascadingReservationParser parser;
+
+	@BeforeAll
+	public static void beforeClass() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/v1/chat/completions", exchange -> {
+			PROMPTS.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+			byte[] bytes = "{\"choices\":[{\"message\":{\"content\":\"(Maria Meier)\"}}]}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, bytes.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(bytes);
+			}
+		});
+		server.start();
+		OpenAIClient client = new OpenAIClient("test", "http://localhost:" + server.getAddress().getPort()
+				+ "/v1/chat/completions", "key");
+		parser = new CascadingReservationParser(new BasicReservationParser(), new OpenAIReservationParser(client));
+	}
+
+	@AfterAll
+	public static void afterClass() {
+		server.stop(0);
+	}
+
+	@BeforeEach
+	public void beforeEach() {
+		PROMPTS.clear();
+	}
+
+	@Test
+	void testCompleteWithoutOpenAI() {
+		LocalDateTime today = LocalDateTime.now();
+		ReservationData data = parser.parse(new DefaultReservationRequest(
+				"Guten Tag, wir kommen morgen gegen 20 Uhr mit 3-4 Leuten vorbei. Gruß, Nina Thalberg", today));
+		assertEquals("Nina Thalberg", data.getName());
+		assertEquals(today.toLocalDate().plusDays(1), data.getDate());
+		assertEquals(LocalTime.of(20, 0), data.getTime());
+		assertEquals(4, data.getNumberOfPeople());
+		assertEquals(0, PROMPTS.size());
+	}
+
+	@Test
+	void testAskOpenAIForMissingFields() {
+		LocalDateTime today = LocalDateTime.now();
+		ReservationData data = parser.parse(new DefaultReservationRequest(
+				"Guten Tag, wir kommen morgen gegen 20 Uhr mit 3-4 Leuten vorbei. Maria", today));
+		assertEquals("Maria Meier", data.getName());
+		assertEquals(today.toLocalDate().plusDays(1), data.getDate());
+		assertEquals(LocalTime.of(20, 0), data.getTime());
+		assertEquals(4, data.getNumberOfPeople());
+		assertEquals(1, PROMPTS.size());
+		assertTrue(PROMPTS.get(0).contains("im Format: (Name)"));
+	}
+
+	@Test
+	void testKeepValidFields() {
+		ReservationData data = parser.merge(
+				new DefaultReservationData(null, LocalDate.now().plusDays(1), null, 4),
+				new DefaultReservationData("Maria Meier", LocalDate.now().plusDays(2), LocalTime.of(19, 0), 5));
+		assertEquals("Maria Meier", data.getName());
+		assertEquals(LocalDate.now().plusDays(1), data.getDate());
+		assertEquals(LocalTime.of(19, 0), data.getTime());
+		assertEquals(4, data.getNumberOfPeople());
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.valantic.fsa.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.valantic.fsa.llm.OpenAIClient;
+import com.valantic.fsa.llm.OpenAIStubServer;
+import com.valantic.fsa.model.DefaultReservationRequest;
+import com.valantic.fsa.model.ReservationData;
+
+class CoalescingReservationParserTest {
+
+	private CountDownLatch release;
+
+	private OpenAIStubServer server;
+
+	private String apiUrl;
+
+	@BeforeEach
+	public void beforeEach() throws IOException {
+		release = new CountDownLatch(1);
+		CountDownLatch latch = release;
+		server = new OpenAIStubServer(OpenAIStubServer.fixedLatency(0), 0, 0, 0, prompt -> {
+			try {
+				// hold the call in flight until released
+				latch.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "(Klaus Müller, 19.03.2030, 20:00, 2)";
+		}).start();
+		apiUrl = server.getApiUrl();
+	}
+
+	@AfterEach
+	public void afterEach() {
+		server.close();
+	}
+
+	@Test
+	void testCoalesceIdenticalRequests() throws Exception {
+		CoalescingReservationParser parser = new CoalescingReservationParser(
+				new OpenAIReservationParser(new OpenAIClient("test", apiUrl, "key")));
+		LocalDateTime now = LocalDateTime.now();
+		List<CompletableFuture<ReservationData>> futures = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			futures.add(parser.parseAsync(new DefaultReservationRequest("Tisch  für 2,\nKlaus Müller" + " ".repeat(i % 3), now)));
+		}
+		futures.add(parser.parseAsync(new DefaultReservationRequest("Tisch für 2, Klaus Müller", now.plusDays(1))));
+		assertEquals(2, parser.getInFlight());
+		release.countDown();
+
+		for (CompletableFuture<ReservationData> future : futures) {
+			assertEquals("Klaus Müller", future.get().getName());
+		}
+		assertEquals(2, server.getRequests());
+		assertEquals(2, parser.getCalls());
+		assertEquals(9, parser.getCoalesced());
+		assertEquals(0, parser.getInFlight());
+
+		// completed calls are not cached
+		assertEquals(2, parser.parse(new DefaultReservationRequest("Tisch für 2, Klaus Müller", now)).getNumberOfPeople());
+		assertEquals(3, server.getRequests());
+	}
+
+	@Test
+	void testCancelDoesNotAffectOthers() throws Exception {
+		CoalescingReservationParser parser = new CoalescingReservationParser(
+				new OpenAIReservationParser(new OpenAIClient("test", apiUrl, "key")));
+		LocalDateTime now = LocalDateTime.now();
+		CompletableFuture<ReservationData> first = parser.parseAsync(new DefaultReservationRequest("Tisch", now));
+		CompletableFuture<ReservationData> second = parser.parseAsync(new DefaultReservationRequest("Tisch", now));
+		first.cancel(true);
+		release.countDown();
+		assertEquals(2, second.get().getNumberOfPeople());
+		assertEquals(1, server.getRequests());
+	}
+
+	@Test
+	void testFailure() {
+		CoalescingReservationParser parser = new CoalescingReservationParser(
+				new OpenAIReservationParser(new OpenAIClient("test", apiUrl.replace(OpenAIStubServer.PATH, "/missing"),
+						"key")));
+		release.countDown();
+		assertThrows(OpenAIClient.OpenAIException.class,
+				() -> parser.parse(new DefaultReservationRequest("Tisch", LocalDateTime.now())));
+		assertEquals(0, parser.getInFlight());
+	}
+
+	@Test
+	void testCreateKey() {
+		LocalDateTime now = LocalDateTime.now();
+		assertEquals(now.toLocalDate() + "|a b c", CoalescingReservationParser.createKey(
+				new DefaultReservationRequest("  a \t b\n\nc ", now)));
+		assertNotEquals(CoalescingReservationParser.createKey(new DefaultReservationRequest("a b", now)),
+				CoalescingReservationParser.createKey(new DefaultReservationRequest("A b", now)));
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.valantic.fsa.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.valantic.fsa.util.KeywordMatcher;
+import com.valantic.fsa.util.Patterns;
+import com.valantic.fsa.util.TokenType;
+
+class KeywordMatcherTest {
+
+	@Test
+	void testFindAllOverlapping() {
+		Map<String, Integer> keywords = new LinkedHashMap<>();
+		keywords.put("he", 1);
+		keywords.put("she", 2);
+		keywords.put("his", 3);
+		keywords.put("hers", 4);
+		KeywordMatcher<Integer> matcher = new KeywordMatcher<>(keywords);
+
+		List<KeywordMatcher.Match<Integer>> matches = matcher.findAll("ushers");
+		assertEquals(3, matches.size());
+		assertEquals("she", matches.get(0).getKeyword());
+		assertEquals(1, matches.get(0).getStart());
+		assertEquals("he", matches.get(1).getKeyword());
+		assertEquals(2, matches.get(1).getStart());
+		assertEquals("hers", matches.get(2).getKeyword());
+		assertEquals(4, matches.get(2).getValue());
+		assertEquals(6, matches.get(2).getEnd());
+
+		assertTrue(matcher.findAll("xyz").isEmpty());
+		assertEquals(2, matcher.findAll("ushers", 0, 4).size());
+	}
+
+	@Test
+	void testFindKeywords() {
+		String text = "tisch fuer 4 personen am montagabend um 19 uhr";
+		BitSet peopleNouns = Patterns.KEYWORDS.findStarts(text, TokenType.PEOPLE_NOUN);
+		assertTrue(peopleNouns.get(13));
+		assertEquals(1, peopleNouns.cardinality());
+
+		boolean isEvening = false;
+		boolean isMorning = false;
+		for (KeywordMatcher.Match<TokenType> keyword : Patterns.KEYWORDS.findAll(text)) {
+			isEvening |= keyword.getValue() == TokenType.EVENING_MARKER;
+			isMorning |= keyword.getValue() == TokenType.MORNING_MARKER;
+		}
+		assertTrue(isEvening);
+		assertFalse(isMorning);
+	}
+
+}
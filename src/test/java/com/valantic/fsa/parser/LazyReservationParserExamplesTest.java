@@ -0,0 +1,64 @@
+package com.valantic.fsa.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.valantic.fsa.model.DefaultReservationRequest;
+
+class LazyReservationParserExamplesTest extends AbstractExamplesTest {
+
+	@BeforeAll
+	public static void beforeClass() {
+		parser = new BasicReservationParser(true);
+	}
+
+	@Test
+	void testExtractOnDemand() {
+		AtomicInteger extractions = new AtomicInteger();
+		BasicReservationParser countingParser = new BasicReservationParser() {
+			@Override
+			protected String extractName(CharSequence text) {
+				extractions.incrementAndGet();
+				return super.extractName(text);
+			}
+
+			@Override
+			protected LocalDate extractDate(CharSequence normalizedText, LocalDate timestamp) {
+				extractions.incrementAndGet();
+				return super.extractDate(normalizedText, timestamp);
+			}
+
+			@Override
+			protected LocalTime extractTime(CharSequence normalizedText) {
+				extractions.incrementAndGet();
+				return super.extractTime(normalizedText);
+			}
+
+			@Override
+			protected int extractNumberOfPeople(CharSequence normalizedText) {
+				extractions.incrementAndGet();
+				return super.extractNumberOfPeople(normalizedText);
+			}
+		};
+
+		LazyReservationData data = countingParser.parseLazily(new DefaultReservationRequest(
+				"Hallo, bitte für zwei Personen einen Tisch am 19.3.2030 um 20:00 Uhr, Vielen Dank Klaus Müller",
+				LocalDateTime.now()));
+		assertEquals(0, extractions.get());
+		assertEquals(LocalDate.of(2030, 3, 19), data.getDate());
+		assertEquals(LocalDate.of(2030, 3, 19), data.getDate());
+		assertEquals(1, extractions.get());
+		assertEquals(2, data.getNumberOfPeople());
+		assertEquals("Klaus Müller", data.getName());
+		assertEquals(LocalTime.of(20, 0), data.getTime());
+		assertEquals(4, extractions.get());
+	}
+
+}
@@ -0,0 +1,156 @@
+package com.valantic.fsa.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.valantic.fsa.llm.OpenAIClient;
+import com.valantic.fsa.llm.OpenAIStubServer;
+import com.valantic.fsa.model.DefaultReservationRequest;
+import com.valantic.fsa.model.FailedReservationData;
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.model.ReservationRequest;
+
+class OpenAIReservationParserBatchTest {
+
+	private static final Pattern TEXT = Pattern.compile("Text (\\d+) \\(Zeitpunkt [^)]*\\):\\n \"Tisch für (\\d+)");
+
+	private final AtomicInteger batchCalls = new AtomicInteger();
+
+	private final AtomicInteger singleCalls = new AtomicInteger();
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	private OpenAIStubServer server;
+
+	@BeforeEach
+	public void beforeEach() throws IOException {
+		server = new OpenAIStubServer(OpenAIStubServer.fixedLatency(0), 0, 0, 0, this::answer).recordRequests().start();
+	}
+
+	@AfterEach
+	public void afterEach() {
+		server.close();
+	}
+
+	private String answer(String prompt) {
+		StringBuilder content = new StringBuilder();
+		Matcher matcher = TEXT.matcher(prompt);
+		if (prompt.contains("Ausfall")) {
+			if (matcher.find()) {
+				// the whole batch fails
+				batchCalls.incrementAndGet();
+				return "Fehler";
+			}
+			singleCalls.incrementAndGet();
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(300);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			inFlight.decrementAndGet();
+			content.append("(Einzeln, 02.05.2030, 19:00, 2)");
+		} else if (matcher.find()) {
+			batchCalls.incrementAndGet();
+			do {
+				int people = Integer.parseInt(matcher.group(2));
+				if (people == 13) {
+					// malformed answer
+					content.append(matcher.group(1)).append(": (Gast, 13)\n");
+				} else {
+					content.append(matcher.group(1)).append(": (Gast, 01.05.2030, 20:00, ").append(people).append(")\n");
+				}
+			} while (matcher.find());
+		} else {
+			singleCalls.incrementAndGet();
+			content.append("(Einzeln, 02.05.2030, 19:00, 13)");
+		}
+		return content.toString();
+	}
+
+	@Test
+	void testParseBatch() {
+		OpenAIReservationParser parser = new OpenAIReservationParser(new OpenAIClient("test", server.getApiUrl(), "key"), 600);
+		List<ReservationRequest> requests = new ArrayList<>();
+		for (int i = 1; i <= 20; i++) {
+			requests.add(new DefaultReservationRequest("Tisch für " + i + " Personen am 1.5. um 20 Uhr", LocalDateTime.now()));
+		}
+		List<ReservationData> results = parser.parseBatch(requests);
+		assertEquals(20, results.size());
+		for (int i = 1; i <= 20; i++) {
+			ReservationData data = results.get(i - 1);
+			assertEquals(i, data.getNumberOfPeople());
+			if (i == 13) {
+				assertEquals("Einzeln", data.getName());
+				assertEquals(LocalDate.of(2030, 5, 2), data.getDate());
+			} else {
+				assertEquals("Gast", data.getName());
+				assertEquals(LocalDate.of(2030, 5, 1), data.getDate());
+			}
+		}
+		assertTrue(batchCalls.get() > 1);
+		assertTrue(batchCalls.get() < 20);
+		assertEquals(1, singleCalls.get());
+		// one system prompt for all batches and one for the single request, whatever the dates
+		Set<String> systemPrompts = new HashSet<>();
+		for (JsonNode request : server.getRecordedRequests()) {
+			systemPrompts.add(request.get("messages").get(0).get("content").asText());
+		}
+		assertEquals(2, systemPrompts.size());
+	}
+
+	@Test
+	void testTokenBudget() {
+		OpenAIReservationParser parser = new OpenAIReservationParser(new OpenAIClient("test", server.getApiUrl(), "key"), 600);
+		ReservationRequest tooLong = new DefaultReservationRequest("Tisch für 13 " + "bitte ".repeat(500),
+				LocalDateTime.now());
+		assertThrows(IllegalArgumentException.class, () -> parser.parse(tooLong));
+
+		List<ReservationData> results = parser.parseBatch(List.of(tooLong,
+				new DefaultReservationRequest("Tisch für 3 Personen", LocalDateTime.now())));
+		assertEquals(-1, results.get(0).getNumberOfPeople());
+		assertInstanceOf(IllegalArgumentException.class, ((FailedReservationData) results.get(0)).getCause());
+		assertEquals(3, results.get(1).getNumberOfPeople());
+		assertEquals(1, server.getRequests());
+	}
+
+	@Test
+	void testRetryFailedBatchConcurrently() {
+		OpenAIReservationParser parser = new OpenAIReservationParser(new OpenAIClient("test", server.getApiUrl(), "key"));
+		List<ReservationRequest> requests = new ArrayList<>();
+		for (int i = 1; i <= 8; i++) {
+			requests.add(new DefaultReservationRequest("Tisch für " + i + " Personen, Ausfall", LocalDateTime.now()));
+		}
+		long start = System.nanoTime();
+
+		List<ReservationData> results = parser.parseBatch(requests);
+		for (ReservationData data : results) {
+			assertEquals("Einzeln", data.getName());
+		}
+		assertEquals(8, singleCalls.get());
+		// the retries are in flight together instead of one after the other (8 x 300 ms)
+		assertTrue(maxInFlight.get() > 1);
+		assertTrue(System.nanoTime() - start < 2_000_000_000L);
+	}
+
+}
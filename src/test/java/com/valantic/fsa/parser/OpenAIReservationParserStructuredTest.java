@@ -0,0 +1,130 @@
+package com.valantic.fsa.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.valantic.fsa.llm.OpenAIClient;
+import com.valantic.fsa.llm.OpenAIStubServer;
+import com.valantic.fsa.model.DefaultReservationRequest;
+import com.valantic.fsa.model.ReservationData;
+
+class OpenAIReservationParserStructuredTest {
+
+	private static final String VALID = "{\"name\":\"Müller, Klaus\",\"date\":\"01.05.2030\",\"time\":\"20:00\",\"numberOfPeople\":4}";
+
+	private static final String INVALID = "{\"name\":\"Eva\",\"date\":\"2030-05-01\",\"time\":\"20 Uhr\"}";
+
+	private OpenAIStubServer server;
+
+	private static String answer(String prompt) {
+		if (prompt.contains("kaputt")) {
+			return "(Eva, 01.05.2030, 20:00, 4)";
+		} else if (prompt.contains("ungültig") && !prompt.contains("vorherige Antwort")) {
+			return INVALID;
+		} else if (prompt.contains("nichts") && !prompt.contains("vorherige Antwort")) {
+			return "null";
+		}
+		return VALID;
+	}
+
+	@BeforeEach
+	public void beforeEach() throws IOException {
+		server = new OpenAIStubServer(OpenAIStubServer.fixedLatency(0), 0, 0, 0,
+				OpenAIReservationParserStructuredTest::answer).recordRequests().start();
+	}
+
+	@AfterEach
+	public void afterEach() {
+		server.close();
+	}
+
+	private OpenAIReservationParser createParser() {
+		return new OpenAIReservationParser(new OpenAIClient("test", server.getApiUrl(), "key"),
+				OpenAIReservationParser.DEFAULT_TOKEN_BUDGET, false, true);
+	}
+
+	@Test
+	void testParseStructured() {
+		ReservationData data = this.createParser().parse(
+				new DefaultReservationRequest("Tisch für 4 am 1.5. um 20 Uhr, Müller, Klaus", LocalDateTime.now()));
+		assertEquals("Müller, Klaus", data.getName());
+		assertEquals(LocalDate.of(2030, 5, 1), data.getDate());
+		assertEquals(LocalTime.of(20, 0), data.getTime());
+		assertEquals(4, data.getNumberOfPeople());
+		assertEquals(1, server.getRequests());
+
+		JsonNode format = server.getRecordedRequests().get(0).get("response_format");
+		assertEquals("json_schema", format.get("type").asText());
+		assertTrue(format.get("json_schema").get("strict").asBoolean());
+		assertEquals("reservation", format.get("json_schema").get("name").asText());
+		assertEquals(4, format.get("json_schema").get("schema").get("required").size());
+		assertEquals("system", server.getRecordedRequests().get(0).get("messages").get(0).get("role").asText());
+	}
+
+	@Test
+	void testReaskOnViolation() throws Exception {
+		ReservationData data = this.createParser().parseAsync(
+				new DefaultReservationRequest("ungültig", LocalDateTime.now())).get();
+		assertEquals("Müller, Klaus", data.getName());
+		assertEquals(2, server.getRequests());
+		String reask = server.getRecordedRequests().get(1).get("messages").get(1).get("content").asText();
+		assertTrue(reask.contains(INVALID));
+		assertTrue(reask.contains("\"date\" ist kein Datum"));
+		assertTrue(reask.contains("\"numberOfPeople\" fehlt"));
+	}
+
+	@Test
+	void testReaskOnNull() {
+		ReservationData data = this.createParser().parse(new DefaultReservationRequest("nichts", LocalDateTime.now()));
+		assertEquals("Müller, Klaus", data.getName());
+		assertEquals(2, server.getRequests());
+		assertTrue(server.getRecordedRequests().get(1).get("messages").get(1).get("content").asText().contains("kein JSON-Objekt"));
+	}
+
+	@Test
+	void testReaskOnlyOnce() {
+		ReservationData data = this.createParser().parse(new DefaultReservationRequest("kaputt", LocalDateTime.now()));
+		assertNull(data.getName());
+		assertEquals(-1, data.getNumberOfPeople());
+		assertEquals(2, server.getRequests());
+	}
+
+	@Test
+	void testValidate() {
+		List<String> violations = new ArrayList<>();
+		ReservationAnswer answer = ReservationAnswer.read(
+				"{\"name\":\"\",\"date\":\"\",\"time\":\"\",\"numberOfPeople\":-1}", violations);
+		assertTrue(violations.isEmpty());
+		ReservationData data = answer.toReservationData();
+		assertNull(data.getName());
+		assertNull(data.getDate());
+		assertNull(data.getTime());
+		assertEquals(-1, data.getNumberOfPeople());
+
+		assertNull(ReservationAnswer.read("{\"name\":\"Eva\",\"guests\":2}", violations));
+		assertEquals(1, violations.size());
+		violations.clear();
+		assertNull(ReservationAnswer.read("", violations));
+		assertEquals(1, violations.size());
+		violations.clear();
+		assertNull(ReservationAnswer.read("null", violations));
+		assertEquals(List.of("Die Antwort ist kein JSON-Objekt."), violations);
+		violations.clear();
+		ReservationAnswer.read("{\"name\":\"Eva\",\"date\":\"01.05.2030\",\"time\":\"20:00\",\"numberOfPeople\":0}", violations);
+		assertEquals(1, violations.size());
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.valantic.fsa.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.valantic.fsa.model.DefaultReservationRequest;
+import com.valantic.fsa.model.FailedReservationData;
+import com.valantic.fsa.model.ReservationData;
+import com.valantic.fsa.model.ReservationRequest;
+
+class ParseAllTest {
+
+	private static List<ReservationRequest> requests(int count) {
+		LocalDateTime today = LocalDateTime.now();
+		List<ReservationRequest> requests = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			requests.add(new DefaultReservationRequest(
+					"Hallo, bitte für " + (i + 1) + " Personen einen Tisch am 19.3. um 20:00 Uhr, Vielen Dank Klaus Müller", today));
+		}
+		return requests;
+	}
+
+	@Test
+	void testParseAllKeepsOrder() {
+		ReservationParser parser = new BasicReservationParser();
+		List<ReservationRequest> requests = requests(1000);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			List<ReservationData> results = parser.parseAll(requests, pool);
+			assertEquals(requests.size(), results.size());
+			for (int i = 0; i < results.size(); i++) {
+				assertEquals(i + 1, results.get(i).getNumberOfPeople());
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(0, parser.parseAll(new ArrayList<>()).size());
+	}
+
+	@Test
+	void testParseAllIsolatesFailures() {
+		BasicReservationParser basicParser = new BasicReservationParser();
+		ReservationParser parser = request -> {
+			if (request.getText().contains(" 13 ")) {
+				throw new IllegalStateException("unlucky");
+			}
+			return basicParser.parse(request);
+		};
+		List<ReservationData> results = parser.parseAll(requests(20));
+		assertEquals(12, results.get(11).getNumberOfPeople());
+		assertEquals(-1, results.get(12).getNumberOfPeople());
+		assertNull(results.get(12).getName());
+		assertEquals("unlucky", ((FailedReservationData) results.get(12)).getCause().getMessage());
+		assertEquals(14, results.get(13).getNumberOfPeople());
+		assertEquals(1, results.stream().filter(FailedReservationData::isFailure).count());
+
+		List<Integer> numbers = parser.parseAll(requests(20).parallelStream())
+				.map(ReservationData::getNumberOfPeople)
+				.collect(Collectors.toList());
+		assertEquals(20, numbers.size());
+		assertEquals(1, numbers.get(0));
+		assertEquals(-1, numbers.get(12));
+		assertEquals(20, numbers.get(19));
+	}
+
+}
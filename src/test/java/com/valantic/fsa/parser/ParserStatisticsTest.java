@@ -0,0 +1,52 @@
+package com.valantic.fsa.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.valantic.fsa.model.DefaultReservationRequest;
+import com.valantic.fsa.parser.ParserMetrics.Stage;
+
+class ParserStatisticsTest {
+
+	@Test
+	void testRecordStages() {
+		ParserStatistics statistics = new ParserStatistics();
+		BasicReservationParser parser = new BasicReservationParser(statistics);
+		LocalDateTime today = LocalDateTime.now();
+		parser.parse(new DefaultReservationRequest(
+				"Hallo, bitte für zwei Personen einen Tisch am 19.3. um 20:00 Uhr, Vielen Dank Klaus Müller", today));
+		parser.parse(new DefaultReservationRequest("Hallo, einen Tisch bitte", today));
+
+		for (Stage stage : Stage.values()) {
+			assertEquals(2, statistics.getCount(stage));
+			assertTrue(statistics.getTotalNanos(stage) > 0);
+			assertTrue(statistics.getMaxNanos(stage) <= statistics.getTotalNanos(stage));
+		}
+		assertEquals(1, statistics.getMatches(Stage.NAME));
+		assertEquals(2, statistics.getMatches(Stage.NORMALIZE));
+		assertEquals(1, statistics.getMatches(Stage.DATE));
+		assertEquals(1, statistics.getMatches(Stage.TIME));
+		assertEquals(1, statistics.getMatches(Stage.NUMBER_OF_PEOPLE));
+
+		statistics.reset();
+		assertEquals(0, statistics.getCount(Stage.NAME));
+		assertEquals(0, statistics.getMeanNanos(Stage.NAME));
+	}
+
+	@Test
+	void testRecordFailure() {
+		ParserStatistics statistics = new ParserStatistics();
+		BasicReservationParser parser = new BasicReservationParser(statistics);
+		assertThrows(RuntimeException.class, () -> parser.parse(new DefaultReservationRequest(
+				"Tisch am 35.13. um 20 Uhr", LocalDateTime.now())));
+		assertEquals(1, statistics.getCount(Stage.DATE));
+		assertEquals(0, statistics.getMatches(Stage.DATE));
+		assertEquals(0, statistics.getCount(Stage.TIME));
+	}
+
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
 
+import com.valantic.fsa.util.NormalizationContext;
 import com.valantic.fsa.util.ParserUtils;
 
 class ParserUtilsTest {
@@ -113,6 +114,29 @@ class ParserUtilsTest {
 		assertEquals(-400066, ParserUtils.parseToInteger("minusvierhunderttausendsechsundsechzig"));
 	}
 
+	@Test
+	void testToInteger() {
+		assertEquals(342, ParserUtils.toInteger("dreihundertzweiundvierzig", 0, 25));
+		assertEquals(-12, ParserUtils.toInteger("minuszwölf", 0, 10));
+		assertEquals(2, ParserUtils.toInteger("für zwei personen", 4, 8));
+		assertEquals(1000000009, ParserUtils.toInteger("milliardeneun", 0, 13));
+		assertEquals(ParserUtils.NOT_A_NUMBER, ParserUtils.toInteger("für zwei personen", 9, 17));
+		assertEquals(ParserUtils.NOT_A_NUMBER, ParserUtils.toInteger("und", 0, 3));
+		assertEquals(ParserUtils.NOT_A_NUMBER, ParserUtils.toInteger("zweiund", 0, 7));
+		assertEquals(ParserUtils.NOT_A_NUMBER, ParserUtils.toInteger("", 0, 0));
+	}
+
+	@Test
+	void testToIntegerLongWords() {
+		String word = "neunhundertneunundneunzigmillionenneunhundertneunundneunzigtausendneunhundertneunundneunzig";
+		assertEquals(999999999, ParserUtils.toInteger(word, 0, word.length()));
+		// words of any length are split without backtracking
+		String noWord = "einund".repeat(10_000) + "x";
+		assertEquals(ParserUtils.NOT_A_NUMBER, ParserUtils.toInteger(noWord, 0, noWord.length()));
+		String longWord = "eins".repeat(10_000);
+		assertEquals(10_000, ParserUtils.toInteger(longWord, 0, longWord.length()));
+	}
+
 	@Test
 	void testNormalizeLowerCases() {
 		assertEquals("hallo welt", ParserUtils.normalizeText("HALLO WELT"));
@@ -120,6 +144,29 @@ class ParserUtilsTest {
 		assertEquals("hallo welt", ParserUtils.normalizeText("hallo welt"));
 	}
 
+	@Test
+	void testNormalizeInContext() {
+		NormalizationContext context = NormalizationContext.get();
+		assertEquals("gruesse am 1.5. fuer 3 personen", ParserUtils.normalizeText(" \"Grüße\" am 1. Mai für drei Personen "));
+		assertEquals("gruesse am 1.5. fuer 3 personen",
+				context.normalize(" \"Grüße\" am 1. Mai für drei Personen ").toString());
+		assertEquals("tisch fuer 2", context.normalize("'Tisch für zwei'").toString());
+		assertEquals("", context.normalize(null).toString());
+	}
+
+	@Test
+	void testNormalizeSpecialCharacters() {
+		NormalizationContext context = NormalizationContext.get();
+		assertEquals("tisch fuer 2 personen am 3.5. \uD83D\uDE0A",
+				ParserUtils.normalizeText("Tisch für zwei Personen am 3. Mai \uD83D\uDE0A"));
+		assertEquals("tisch fuer 2 personen am 3.5. \uD83D\uDE0A",
+				context.normalize("Tisch für zwei Personen am 3. Mai \uD83D\uDE0A").toString());
+		assertEquals("gruesse aus i\u0307stanbul fuer 2",
+				context.normalize("Grüße aus \u0130stanbul für zwei").toString());
+		assertEquals("\u03C3\u03BF\u03C6\u03B9\u03B1 fuer 2",
+				context.normalize("\u03A3\u039F\u03A6\u0399\u0391 für zwei").toString());
+	}
+
 	@Test
 	void testNormalizeMonths() {
 		assertEquals("am 1. um 20:00", ParserUtils.normalizeText("am Januar um 20:00"));
@@ -130,6 +177,26 @@ class ParserUtilsTest {
 		assertEquals("am 24.12. um 20:00", ParserUtils.normalizeText("am 24. DEZ um 20:00"));
 	}
 
+	@Test
+	void testNormalizeMonthsWithYears() {
+		assertEquals("am 1.1.2024 2024 um 20:00", ParserUtils.normalizeText("am 1. Januar 2024 um 20:00"));
+		assertEquals("vom 1.1. bis 3.2.25 25", ParserUtils.normalizeText("vom 1. Januar bis 3. Feb 25"));
+		assertEquals("am 4. oder am 4.", ParserUtils.normalizeText("am April oder am Apr"));
+	}
+
+	@Test
+	void testNormalizeSeveralMonths() {
+		// each month is replaced on its own, regardless of the order of the months
+		assertEquals("2. 7.", ParserUtils.normalizeText("februar juli"));
+		assertEquals("7. 2.", ParserUtils.normalizeText("juli februar"));
+		assertEquals("1.5. oder 2.5.", ParserUtils.normalizeText("1. Mai oder 2. Mai"));
+		// a year only belongs to the month it directly follows
+		assertEquals("am 1.1. und 3.1.2024 2024", ParserUtils.normalizeText("am 1. Januar und 3. Januar 2024"));
+		assertEquals("am 1.24 24 und am 1.", ParserUtils.normalizeText("am Januar 24 und am Januar"));
+		// a month must be a whole word, also after a day dot
+		assertEquals("am 4. junior", ParserUtils.normalizeText("am 4. Junior"));
+	}
+
 	@Test
 	void testNormalizeSimpleNumbers() {
 		assertEquals("fuer 1 person", ParserUtils.normalizeText("für eine Person"));
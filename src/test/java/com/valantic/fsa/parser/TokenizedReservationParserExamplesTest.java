@@ -0,0 +1,12 @@
+package com.valantic.fsa.parser;
+
+import org.junit.jupiter.api.BeforeAll;
+
+class TokenizedReservationParserExamplesTest extends AbstractExamplesTest {
+
+	@BeforeAll
+	public static void beforeClass() {
+		parser = new TokenizedReservationParser();
+	}
+
+}
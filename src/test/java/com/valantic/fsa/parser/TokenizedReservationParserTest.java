@@ -0,0 +1,12 @@
+package com.valantic.fsa.parser;
+
+import org.junit.jupiter.api.BeforeAll;
+
+class TokenizedReservationParserTest extends AbstractReservationParserTest {
+
+	@BeforeAll
+	public static void beforeClass() {
+		parser = new TokenizedReservationParser();
+	}
+
+}
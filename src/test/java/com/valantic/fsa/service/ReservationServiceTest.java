@@ -0,0 +1,116 @@
+package com.valantic.fsa.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.valantic.fsa.model.DefaultReservationData;
+import com.valantic.fsa.parser.BasicReservationParser;
+import com.valantic.fsa.parser.ReservationParser;
+
+class ReservationServiceTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+	private static HttpResponse<String> post(ReservationService service, String query, String contentType, String body)
+			throws Exception {
+		return CLIENT.send(HttpRequest.newBuilder()
+				.uri(URI.create("http://localhost:" + service.getPort() + ReservationService.PATH + query))
+				.header("Content-Type", contentType)
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	@Test
+	void testParse() throws Exception {
+		try (ReservationService service = new ReservationService(new BasicReservationParser(), 0).start()) {
+			HttpResponse<String> response = post(service, "", "application/json", MAPPER.writeValueAsString(
+					MAPPER.createObjectNode()
+							.put("text", "Hallo, bitte für zwei Personen einen Tisch am 19.3. um 20:00 Uhr, Vielen Dank Klaus Müller")
+							.put("timestamp", "2025-01-10T12:00")));
+			assertEquals(200, response.statusCode());
+			JsonNode data = MAPPER.readTree(response.body());
+			assertEquals("Klaus Müller", data.get("name").asText());
+			assertTrue(data.get("date").asText().endsWith("-03-19"));
+			assertEquals("20:00", data.get("time").asText());
+			assertEquals(2, data.get("numberOfPeople").asInt());
+
+			response = post(service, "?timestamp=2025-01-10", "text/plain; charset=UTF-8",
+					"Tisch für vier morgen um 19 Uhr, Gruß Eva Roth");
+			assertEquals(200, response.statusCode());
+			data = MAPPER.readTree(response.body());
+			assertEquals("Eva Roth", data.get("name").asText());
+			assertEquals("2025-01-11", data.get("date").asText());
+			assertEquals(4, data.get("numberOfPeople").asInt());
+		}
+	}
+
+	@Test
+	void testErrors() throws Exception {
+		try (ReservationService service = new ReservationService(new BasicReservationParser(),
+				new InetSocketAddress("localhost", 0), 100).start()) {
+			assertEquals(413, post(service, "", "text/plain", "x".repeat(101)).statusCode());
+			assertEquals(200, post(service, "", "text/plain", "x".repeat(100)).statusCode());
+			assertEquals(400, post(service, "", "application/json", "{\"text\": ").statusCode());
+			assertEquals(400, post(service, "", "application/json", "{\"timestamp\": \"2025-01-10\"}").statusCode());
+			assertEquals(400, post(service, "?timestamp=gestern", "text/plain", "Tisch").statusCode());
+
+			HttpResponse<String> response = CLIENT.send(HttpRequest.newBuilder()
+					.uri(URI.create("http://localhost:" + service.getPort() + ReservationService.PATH)).GET().build(),
+					HttpResponse.BodyHandlers.ofString());
+			assertEquals(405, response.statusCode());
+			assertEquals("POST", response.headers().firstValue("Allow").orElse(null));
+		}
+
+		ReservationParser failing = request -> {
+			throw new IllegalStateException("broken");
+		};
+		try (ReservationService service = new ReservationService(failing, 0).start()) {
+			HttpResponse<String> response = post(service, "", "text/plain", "Tisch");
+			assertEquals(500, response.statusCode());
+			assertTrue(MAPPER.readTree(response.body()).get("error").asText().contains("broken"));
+		}
+	}
+
+	@Test
+	void testConcurrentBlockingParses() throws Exception {
+		ReservationParser slow = request -> {
+			try {
+				Thread.sleep(500);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return new DefaultReservationData("Gast", null, null, 2);
+		};
+		try (ReservationService service = new ReservationService(slow, 0).start()) {
+			long start = System.nanoTime();
+			List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				futures.add(CLIENT.sendAsync(HttpRequest.newBuilder()
+						.uri(URI.create("http://localhost:" + service.getPort() + ReservationService.PATH))
+						.POST(HttpRequest.BodyPublishers.ofString("Tisch " + i)).build(),
+						HttpResponse.BodyHandlers.ofString()));
+			}
+			for (CompletableFuture<HttpResponse<String>> future : futures) {
+				assertEquals(200, future.get().statusCode());
+			}
+			// handled concurrently, not one after another (200 x 0.5 s)
+			assertTrue(System.nanoTime() - start < 20_000_000_000L);
+		}
+	}
+
+}